@@ -0,0 +1,99 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the bytes a code section allocates on the heap, using the per 
+ * thread allocation counters of the JVM. Used to check that the hot loops 
+ * of Trias don't allocate in steady state.
+ * 
+ * Reading the counter itself allocates a few bytes; this overhead is 
+ * measured once and subtracted from each measurement.
+ * 
+ */
+final class AllocationCounter {
+
+	private final com.sun.management.ThreadMXBean bean;
+	private final long overhead;
+	private final AtomicLong bytes = new AtomicLong(0);
+
+	/**
+	 * @throws UnsupportedOperationException - if the JVM can not count the allocated bytes of a thread 
+	 */
+	AllocationCounter() {
+		final java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+			throw new UnsupportedOperationException("this JVM does not count allocated bytes per thread");
+		}
+		this.bean = (com.sun.management.ThreadMXBean) threadMXBean;
+		if (!bean.isThreadAllocatedMemorySupported()) {
+			throw new UnsupportedOperationException("this JVM does not count allocated bytes per thread");
+		}
+		bean.setThreadAllocatedMemoryEnabled(true);
+		/*
+		 * calibrate: an empty section allocates what one measurement allocates
+		 */
+		long min = Long.MAX_VALUE;
+		for (int k = 0; k < 32; k++) {
+			final long start = current();
+			min = Math.min(min, current() - start);
+		}
+		this.overhead = min;
+	}
+
+	/**
+	 * @return The start value of a measurement of the current thread.
+	 */
+	long start() {
+		return current();
+	}
+
+	/** Adds the bytes the current thread allocated since start.
+	 * 
+	 * @param start - the value returned by {@link #start()}
+	 */
+	void stop(final long start) {
+		final long allocated = current() - start - overhead;
+		if (allocated > 0) bytes.addAndGet(allocated);
+	}
+
+	/**
+	 * @return The bytes allocated in all measured sections since the last {@link #reset()}.
+	 */
+	long getBytes() {
+		return bytes.get();
+	}
+
+	void reset() {
+		bytes.set(0);
+	}
+
+	private long current() {
+		return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
@@ -0,0 +1,222 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import java.io.IOException;
+
+/**
+ * Enumerates the closed sets of objects of a small dyadic context, which 
+ * is stored as a bit matrix (one row of attribute bits per object and one 
+ * column of object bits per attribute). Derivations are computed by 
+ * AND-ing whole words, sizes by {@link Long#bitCount(long)}. 
+ * <p>
+ * The closed sets are enumerated with Close-by-One (see 
+ * {@link FastCloseByOne}, without the failed closures): the children of 
+ * a closed set A, generated by adding object y - 1, are the closures of 
+ * A+j for j >= y, j not in A, which contain no new object smaller than j. 
+ * <p>
+ * In contrast to {@link Derivation}s, no sorted orders or offset tables 
+ * are needed, thus this is cheap to set up for the small projected 
+ * relations of the inner loop of {@link Trias}. The matrix has 
+ * numberOfObjects * numberOfAttributes bits, thus the context should not 
+ * be too sparse.
+ * 
+ */
+final class BitMatrixMiner {
+
+	private final int numberOfObjects;
+	private final int numberOfAttributes;
+	private final int objectWords;            // words of a set of objects
+	private final int attributeWords;         // words of a set of attributes
+	private final long[] rows;                // for each object its attributes (attributeWords words each)
+	private final long[] columns;             // for each attribute its objects (objectWords words each)
+	private final int[] objectRepresentative;    // for each object one triple position
+	private final int[] attributeRepresentative; // for each attribute one triple position
+	private final int minAttributes;          // children with fewer attributes are pruned
+
+	/*
+	 * the sets of each level of the tree (allocated when the tree gets 
+	 * deeper) and the sets handed to the handler
+	 */
+	private long[][] objectLevels = new long[0][];
+	private long[][] attributeLevels = new long[0][];
+	private final int[] objects;
+	private final int[] attributes;
+
+	/**
+	 * @param objectKey - for each triple position its object id (1..numberOfObjects)
+	 * @param attributeKey - for each triple position its attribute id (1..numberOfAttributes)
+	 * @param n - the number of triples
+	 * @param numberOfObjects
+	 * @param numberOfAttributes
+	 * @param minAttributes - closed sets whose derivation has fewer 
+	 * attributes (and their descendants) are skipped
+	 */
+	public BitMatrixMiner(final int[] objectKey, final int[] attributeKey, final int n, final int numberOfObjects, final int numberOfAttributes, final int minAttributes) {
+		this.numberOfObjects = numberOfObjects;
+		this.numberOfAttributes = numberOfAttributes;
+		this.minAttributes = minAttributes;
+		this.objectWords = words(numberOfObjects);
+		this.attributeWords = words(numberOfAttributes);
+		this.rows = new long[numberOfObjects * attributeWords];
+		this.columns = new long[numberOfAttributes * objectWords];
+		this.objectRepresentative = new int[numberOfObjects + 1];
+		this.attributeRepresentative = new int[numberOfAttributes + 1];
+		for (int pos = n - 1; pos >= 0; pos--) {
+			final int object = objectKey[pos] - 1;
+			final int attribute = attributeKey[pos] - 1;
+			rows[object * attributeWords + (attribute >>> 6)] |= 1L << attribute;
+			columns[attribute * objectWords + (object >>> 6)] |= 1L << object;
+			objectRepresentative[object + 1] = pos;
+			attributeRepresentative[attribute + 1] = pos;
+		}
+		this.objects = new int[numberOfObjects + 1];
+		this.attributes = new int[numberOfAttributes + 1];
+	}
+
+	/**
+	 * Walks the whole tree, starting with the closure of the empty set. The 
+	 * sets given to the handler contain one triple position per object 
+	 * (attribute) and are reused for the next closed set. 
+	 * 
+	 * @param handler
+	 * @throws IOException
+	 */
+	public void run(final FastCloseByOne.ConceptHandler handler) throws IOException {
+		level(0);
+		fill(attributeLevels[0], numberOfAttributes); // {}'
+		close(attributeLevels[0], objectLevels[0]);   // {}''
+		generate(0, 1, handler);
+	}
+
+	/*
+	 * handles the closed set of the given level and walks its descendants, 
+	 * given that it was generated by adding object y - 1
+	 */
+	private void generate(final int depth, final int y, final FastCloseByOne.ConceptHandler handler) throws IOException {
+		final long[] extent = objectLevels[depth];
+		final long[] intent = attributeLevels[depth];
+		handler.handle(toPositions(extent, objectRepresentative, objects), toPositions(intent, attributeRepresentative, attributes));
+
+		level(depth + 1);
+		final long[] childExtent = objectLevels[depth + 1];
+		final long[] childIntent = attributeLevels[depth + 1];
+		for (int j = y; j <= numberOfObjects; j++) {
+			final int object = j - 1;
+			if ((extent[object >>> 6] & (1L << object)) != 0) continue;
+
+			// (A+j)' = A' \cap {j}'
+			int size = 0;
+			final int row = object * attributeWords;
+			for (int w = 0; w < attributeWords; w++) {
+				childIntent[w] = intent[w] & rows[row + w];
+				size += Long.bitCount(childIntent[w]);
+			}
+			if (size < minAttributes) continue;
+
+			close(childIntent, childExtent);
+			if (isCanonical(extent, childExtent, object)) {
+				generate(depth + 1, j + 1, handler);
+			}
+		}
+	}
+
+	/*
+	 * computes the objects which have all given attributes
+	 */
+	private void close(final long[] intent, final long[] extent) {
+		fill(extent, numberOfObjects);
+		for (int w = 0; w < attributeWords; w++) {
+			for (long word = intent[w]; word != 0; word &= word - 1) {
+				final int column = ((w << 6) + Long.numberOfTrailingZeros(word)) * objectWords;
+				for (int v = 0; v < objectWords; v++) {
+					extent[v] &= columns[column + v];
+				}
+			}
+		}
+	}
+
+	/*
+	 * returns true, if closure contains no objects smaller than object 
+	 * which are not in extent (extent is contained in closure)
+	 */
+	private boolean isCanonical(final long[] extent, final long[] closure, final int object) {
+		final int last = object >>> 6;
+		for (int w = 0; w < last; w++) {
+			if (closure[w] != extent[w]) return false;
+		}
+		final long mask = (1L << object) - 1; // the bits below object in its word
+		return ((closure[last] ^ extent[last]) & mask) == 0;
+	}
+
+	/*
+	 * converts the bits into a set of triple positions
+	 */
+	private static int[] toPositions(final long[] bits, final int[] representative, final int[] set) {
+		int k = 0;
+		for (int w = 0; w < bits.length; w++) {
+			for (long word = bits[w]; word != 0; word &= word - 1) {
+				set[++k] = representative[(w << 6) + Long.numberOfTrailingZeros(word) + 1];
+			}
+		}
+		set[0] = k;
+		return set;
+	}
+
+	/*
+	 * sets the bits of all items
+	 */
+	private static void fill(final long[] bits, final int numberOfItems) {
+		for (int w = 0; w < bits.length; w++) {
+			bits[w] = -1L;
+		}
+		if ((numberOfItems & 63) != 0) {
+			bits[bits.length - 1] = (1L << numberOfItems) - 1; // Java shifts modulo 64
+		}
+	}
+
+	/*
+	 * makes sure that the sets of the given level exist
+	 */
+	private void level(final int depth) {
+		if (depth < objectLevels.length) return;
+		final int length = Math.max(depth + 1, 2 * objectLevels.length);
+		final long[][] newObjectLevels = new long[length][];
+		final long[][] newAttributeLevels = new long[length][];
+		System.arraycopy(objectLevels, 0, newObjectLevels, 0, objectLevels.length);
+		System.arraycopy(attributeLevels, 0, newAttributeLevels, 0, attributeLevels.length);
+		for (int d = objectLevels.length; d < length; d++) {
+			newObjectLevels[d] = new long[objectWords];
+			newAttributeLevels[d] = new long[attributeWords];
+		}
+		objectLevels = newObjectLevels;
+		attributeLevels = newAttributeLevels;
+	}
+
+	private static int words(final int bits) {
+		return (bits + 63) >>> 6;
+	}
+
+}
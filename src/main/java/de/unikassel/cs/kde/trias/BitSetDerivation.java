@@ -0,0 +1,169 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import de.unikassel.cs.kde.trias.util.CompressedBitSet;
+
+/**
+ * Computes the derivation operators of a dyadic context (objects, 
+ * attributes, incidence) by intersecting compressed bitsets. 
+ * 
+ * The context is given by the same tables Trias uses for the list based 
+ * derivation: for objects and attributes an order of the triples, an 
+ * offset table, and the id (position in the offset table) of each triple. 
+ * Sets are given and returned as in {@link Trias}, i.e., as arrays of triple 
+ * positions whose first element is the size of the set. Each item is 
+ * represented by its first triple in the corresponding order. 
+ * 
+ */
+class BitSetDerivation implements Derivation {
+
+	private final CompressedBitSet[] objectRows;       // for each object the ids of its attributes
+	private final CompressedBitSet[] attributeColumns; // for each attribute the ids of its objects
+
+	private final int[] objectKey;
+	private final int[] attributeKey;
+	private final int[] objectRepresentative;
+	private final int[] attributeRepresentative;
+
+	/**
+	 * @param objectOrder - positions of the triples sorted by object (and then by attribute)
+	 * @param objectOffsets - for each object the position of its first triple in objectOrder 
+	 * @param objectKey - for each triple its object id
+	 * @param attributeOrder - positions of the triples sorted by attribute (and then by object)
+	 * @param attributeOffsets - for each attribute the position of its first triple in attributeOrder
+	 * @param attributeKey - for each triple its attribute id
+	 */
+	public BitSetDerivation(final int[] objectOrder, final int[] objectOffsets, final int[] objectKey, final int[] attributeOrder, final int[] attributeOffsets, final int[] attributeKey) {
+		this.objectKey = objectKey;
+		this.attributeKey = attributeKey;
+		this.objectRepresentative = new int[objectOffsets[0] + 1];
+		this.attributeRepresentative = new int[attributeOffsets[0] + 1];
+		this.objectRows = build(objectOrder, objectOffsets, attributeKey, objectRepresentative);
+		this.attributeColumns = build(attributeOrder, attributeOffsets, objectKey, attributeRepresentative);
+	}
+
+	private static CompressedBitSet[] build(final int[] order, final int[] offsets, final int[] key, final int[] representative) {
+		final CompressedBitSet[] sets = new CompressedBitSet[offsets[0] + 1];
+		for (int item = 1; item <= offsets[0]; item++) {
+			sets[item] = new CompressedBitSet();
+			representative[item] = order[offsets[item]];
+			for (int pos = offsets[item]; pos < offsets[item + 1]; pos++) {
+				sets[item].add(key[order[pos]]);
+			}
+		}
+		return sets;
+	}
+
+	/** 
+	 * @param objects
+	 * @return The attributes common to all given objects.
+	 */
+	public int[] primeOfObjects(final int[] objects) {
+		return prime(objects, objectKey, objectRows, attributeRepresentative);
+	}
+
+	/**
+	 * @param attributes
+	 * @return The objects having all given attributes.
+	 */
+	public int[] primeOfAttributes(final int[] attributes) {
+		return prime(attributes, attributeKey, attributeColumns, objectRepresentative);
+	}
+
+	/**
+	 * Computes {@link #primeOfObjects(int[])} and copies the result; the 
+	 * bitset intersection itself still allocates.
+	 * 
+	 * @see de.unikassel.cs.kde.trias.Derivation#primeOfObjects(int[], int[], de.unikassel.cs.kde.trias.Scratch)
+	 */
+	public int[] primeOfObjects(final int[] objects, final int[] result, final Scratch scratch) {
+		return copy(primeOfObjects(objects), result);
+	}
+
+	/**
+	 * Computes {@link #primeOfAttributes(int[])} and copies the result; the 
+	 * bitset intersection itself still allocates.
+	 * 
+	 * @see de.unikassel.cs.kde.trias.Derivation#primeOfAttributes(int[], int[], de.unikassel.cs.kde.trias.Scratch)
+	 */
+	public int[] primeOfAttributes(final int[] attributes, final int[] result, final Scratch scratch) {
+		return copy(primeOfAttributes(attributes), result);
+	}
+
+	public int[] intersectPrimeOfObject(final int[] attributes, final int object, final int[] result) {
+		final CompressedBitSet row = objectRows[objectKey[object]];
+		int k = 0;
+		for (int i = 1; i <= attributes[0]; i++) {
+			if (row.contains(attributeKey[attributes[i]])) result[++k] = attributes[i];
+		}
+		result[0] = k;
+		return result;
+	}
+
+	public int numberOfObjects() {
+		return objectRepresentative.length - 1;
+	}
+
+	public int numberOfAttributes() {
+		return attributeRepresentative.length - 1;
+	}
+
+	private static int[] copy(final int[] set, final int[] result) {
+		System.arraycopy(set, 0, result, 0, set[0] + 1);
+		return result;
+	}
+
+	private static int[] prime(final int[] menge, final int[] key, final CompressedBitSet[] sets, final int[] representative) {
+		if (menge[0] == 0) { // empty set --> return all elements
+			final int[] result = new int[representative.length];
+			System.arraycopy(representative, 1, result, 1, representative.length - 1);
+			result[0] = representative.length - 1;
+			return result;
+		}
+		/*
+		 * start with the smallest set
+		 */
+		int smallest = 1;
+		for (int i = 2; i <= menge[0]; i++) {
+			if (sets[key[menge[i]]].cardinality() < sets[key[menge[smallest]]].cardinality()) smallest = i;
+		}
+		CompressedBitSet intersection = sets[key[menge[smallest]]];
+		for (int i = 1; i <= menge[0] && intersection.cardinality() > 0; i++) {
+			if (i != smallest) intersection = intersection.and(sets[key[menge[i]]]);
+		}
+		/*
+		 * map item ids to triple positions
+		 */
+		final int[] result = new int[intersection.cardinality() + 1];
+		intersection.toArray(result, 1);
+		for (int i = 1; i < result.length; i++) {
+			result[i] = representative[result[i]];
+		}
+		result[0] = result.length - 1;
+		return result;
+	}
+
+}
@@ -0,0 +1,87 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+
+/**
+ * The derivation (') operators of a dyadic context. Sets are arrays of 
+ * triple positions whose first element contains the size of the set.
+ * 
+ */
+interface Derivation {
+
+	/**
+	 * @param objects
+	 * @return The attributes common to all given objects (all attributes for the empty set).
+	 */
+	public int[] primeOfObjects(final int[] objects);
+
+	/**
+	 * @param attributes
+	 * @return The objects having all given attributes (all objects for the empty set).
+	 */
+	public int[] primeOfAttributes(final int[] attributes);
+
+	/** Like {@link #primeOfObjects(int[])}, but stores the attributes in 
+	 * the given array and takes temporary arrays from the scratch space.
+	 * 
+	 * @param objects
+	 * @param result - must have room for all attributes, i.e., {@link #numberOfAttributes()} + 1 elements
+	 * @param scratch
+	 * @return result
+	 */
+	public int[] primeOfObjects(final int[] objects, final int[] result, final Scratch scratch);
+
+	/** Like {@link #primeOfAttributes(int[])}, but stores the objects in 
+	 * the given array and takes temporary arrays from the scratch space.
+	 * 
+	 * @param attributes
+	 * @param result - must have room for all objects, i.e., {@link #numberOfObjects()} + 1 elements
+	 * @param scratch
+	 * @return result
+	 */
+	public int[] primeOfAttributes(final int[] attributes, final int[] result, final Scratch scratch);
+
+	/** Computes (X+object)' from X', i.e., intersects the given 
+	 * attributes with the attributes of the object.  
+	 * 
+	 * @param attributes - X' for some set X of objects
+	 * @param object
+	 * @param result - must have room for attributes[0] + 1 elements
+	 * @return result
+	 */
+	public int[] intersectPrimeOfObject(final int[] attributes, final int object, final int[] result);
+
+	/**
+	 * @return The number of objects of the context.
+	 */
+	public int numberOfObjects();
+
+	/**
+	 * @return The number of attributes of the context.
+	 */
+	public int numberOfAttributes();
+
+}
@@ -0,0 +1,196 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import de.unikassel.cs.kde.trias.model.TripleStore;
+import de.unikassel.cs.kde.trias.util.Dimension;
+
+/**
+ * Chooses which dimension of the context Trias enumerates in the outer 
+ * loop and which in the inner loop. 
+ * 
+ * Trias enumerates the closed sets of the first dimension (U) in the outer 
+ * loop and, for each of them, those of the second dimension (T) on the 
+ * projected relation of the other two dimensions in the inner loop. Since 
+ * tri-concepts are symmetric in the dimensions, any of the six 
+ * permutations of the columns finds the same tri-concepts - but their 
+ * running times differ a lot.
+ * 
+ * The cost of a permutation (X, Y, Z) is estimated from the degrees (number 
+ * of triples) of the items:
+ * <ul>
+ * <li>only items with at least minsup_Y * minsup_Z triples can occur in 
+ *     frequent tri-concepts; m_X is the number of such items of X,</li>
+ * <li>s_X = sum deg(x)^2 / sum deg(x) (over these items) is the expected 
+ *     size of the projected relation of the outer concepts, weighted by 
+ *     size (thus, skewed degree distributions yield large projections),</li>
+ * <li>for each of the (at least) m_X outer concepts, NEXT CLOSURE tries 
+ *     up to m_X items, each costing an intersection of size s_X,</li>
+ * <li>likewise, the inner loop of each outer concept tries up to k items 
+ *     for each of (at least) k inner concepts, with k = min(m_Y, s_X) the 
+ *     number of items of Y in the projection.</li>
+ * </ul>
+ * Thus, cost(X, Y, Z) = m_X * s_X * (m_X + min(m_Y, s_X)^2). This is a 
+ * rough estimate, but it reliably keeps very large dimensions out of the 
+ * outer loop and enumerates the smaller dimension of the projection. 
+ * 
+ */
+public class DimensionPlanner {
+
+	private static final int[][] PERMUTATIONS = new int[][] {
+		{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}
+	};
+
+	private final Plan[] plans;
+
+	/**
+	 * Estimates the costs of all permutations.
+	 * 
+	 * @param tripleStore - the context
+	 * @param numberOfItemsPerDimension
+	 * @param minSupportPerDimension
+	 */
+	public DimensionPlanner(final TripleStore tripleStore, final int[] numberOfItemsPerDimension, final int[] minSupportPerDimension) {
+		final int dims = Dimension.noOfDimensions;
+		final long[] effectiveItems = new long[dims];    // m_d
+		final double[] projectionSize = new double[dims]; // s_d
+		for (int d = 0; d < dims; d++) {
+			/*
+			 * degree of each item
+			 */
+			final int[] column = tripleStore.getColumn(d);
+			final int[] degree = new int[numberOfItemsPerDimension[d] + 1];
+			for (int i = 0; i < tripleStore.size(); i++) {
+				degree[column[i]]++;
+			}
+			final long minDegree = Math.max(1L, (long) minSupportPerDimension[(d + 1) % dims] * minSupportPerDimension[(d + 2) % dims]);
+			long sum = 0;
+			double sumOfSquares = 0;
+			for (int item = 1; item < degree.length; item++) {
+				if (degree[item] >= minDegree) {
+					effectiveItems[d]++;
+					sum += degree[item];
+					sumOfSquares += (double) degree[item] * degree[item];
+				}
+			}
+			projectionSize[d] = sum > 0 ? sumOfSquares / sum : 0;
+		}
+
+		plans = new Plan[PERMUTATIONS.length];
+		for (int p = 0; p < PERMUTATIONS.length; p++) {
+			final int x = PERMUTATIONS[p][0];
+			final int y = PERMUTATIONS[p][1];
+			final double s = projectionSize[x];
+			final double k = Math.min(effectiveItems[y], s);
+			plans[p] = new Plan(PERMUTATIONS[p], effectiveItems[x] * s * (effectiveItems[x] + k * k));
+		}
+		/*
+		 * cheapest first; the identity wins ties
+		 */
+		Arrays.sort(plans, new Comparator<Plan>() {
+			public int compare(final Plan o1, final Plan o2) {
+				return Double.compare(o1.cost, o2.cost);
+			}
+		});
+	}
+
+	/**
+	 * @return The plan with the lowest estimated cost.
+	 */
+	public Plan getBestPlan() {
+		return plans[0];
+	}
+
+	/**
+	 * @return The plans for all six permutations, cheapest first.
+	 */
+	public Plan[] getPlans() {
+		return plans.clone();
+	}
+
+	/**
+	 * @return A report of the estimated costs of all permutations (dry run).
+	 */
+	public String getReport() {
+		final StringBuilder buf = new StringBuilder();
+		buf.append("outer inner  estimated cost\n");
+		for (final Plan plan: plans) {
+			buf.append(String.format("%5s %3s%s  %14.4g%s%n", 
+					Dimension.byValue(plan.permutation[0]), 
+					Dimension.byValue(plan.permutation[1]), 
+					Dimension.byValue(plan.permutation[2]), 
+					plan.cost, 
+					plan == plans[0] ? " (chosen)" : ""));
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * An assignment of the dimensions of the context to the roles of U, T, 
+	 * and R in Trias.
+	 */
+	public static class Plan {
+		private final int[] permutation;
+		private final double cost;
+
+		private Plan(final int[] permutation, final double cost) {
+			this.permutation = permutation;
+			this.cost = cost;
+		}
+
+		/**
+		 * @return For each role (U = outer, T and R = inner) the dimension 
+		 * of the context which plays it.
+		 */
+		public int[] getPermutation() {
+			return permutation.clone();
+		}
+
+		/**
+		 * @return The estimated cost.
+		 */
+		public double getCost() {
+			return cost;
+		}
+
+		/**
+		 * @return <code>true</code>, if the dimensions keep their roles.
+		 */
+		public boolean isIdentity() {
+			for (int k = 0; k < permutation.length; k++) {
+				if (permutation[k] != k) return false;
+			}
+			return true;
+		}
+
+		@Override
+		public String toString() {
+			return Dimension.byValue(permutation[0]) + "" + Dimension.byValue(permutation[1]) + Dimension.byValue(permutation[2]) + " (" + cost + ")";
+		}
+	}
+}
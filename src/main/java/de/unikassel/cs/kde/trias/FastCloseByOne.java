@@ -0,0 +1,273 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Enumerates the closed sets of objects of a dyadic context with Fast 
+ * Close-by-One (FCbO, Krajca, Outrata, Vychodil). 
+ * 
+ * Like Close-by-One, the closed sets form a tree: a closed set A which was 
+ * generated by adding object y has as children the closures of A+j for all 
+ * j > y, j not in A, which pass the canonicity test 
+ * (A+j)'' \cap {1,...,j-1} = A \cap {1,...,j-1}. The tree is walked depth 
+ * first. In addition, a closure which fails the test is remembered for j 
+ * and inherited by the descendants: as long as it still contains an object 
+ * smaller than j which is missing in their set, their closures of (A+j) 
+ * fail, too, and need not be computed. 
+ * 
+ * The branches of the tree are independent, thus they can be walked 
+ * concurrently on a {@link ForkJoinPool} (see {@link #run(ConceptHandler, ForkJoinPool)}). 
+ * 
+ * Sets are given as in {@link Trias}, i.e., as arrays of triple positions 
+ * whose first element contains the size of the set, sorted by object. 
+ * 
+ */
+final class FastCloseByOne {
+
+	private static final int[] EMPTY_SET = new int[]{0};
+
+	/*
+	 * only the branches up to this depth are forked as own tasks, deeper 
+	 * branches are walked by the task of their ancestor
+	 */
+	private static final int MAX_TASK_DEPTH = 3;
+
+	/**
+	 * Receives the closed sets.
+	 */
+	interface ConceptHandler {
+		/**
+		 * @param objects - a closed set of objects 
+		 * @param attributes - the derivation of objects
+		 * @throws IOException
+		 */
+		public void handle(final int[] objects, final int[] attributes) throws IOException;
+	}
+
+	private final Derivation derivation;
+	private final int[] key;              // for each triple position the id of its object
+	private final int[] representative;   // for each object id one triple position
+	private final int minAttributes;      // children with fewer attributes are pruned
+	private final int numberOfObjects;
+
+	/**
+	 * @param derivation - the derivation operators of the context
+	 * @param objectOrder - positions of the triples sorted by object 
+	 * @param objectOffsets - for each object the position of its first triple in objectOrder
+	 * @param objectKey - for each triple its object id
+	 * @param minAttributes - closed sets whose derivation has fewer 
+	 * attributes (and their descendants, which have even fewer attributes) 
+	 * are skipped
+	 */
+	public FastCloseByOne(final Derivation derivation, final int[] objectOrder, final int[] objectOffsets, final int[] objectKey, final int minAttributes) {
+		this.derivation = derivation;
+		this.key = objectKey;
+		this.minAttributes = minAttributes;
+		this.numberOfObjects = objectOffsets[0];
+		this.representative = new int[numberOfObjects + 1];
+		for (int j = 1; j <= numberOfObjects; j++) {
+			representative[j] = objectOrder[objectOffsets[j]];
+		}
+	}
+
+	/**
+	 * Walks the whole tree in the current thread, starting with the closure 
+	 * of the empty set.
+	 * 
+	 * @param handler
+	 * @throws IOException
+	 */
+	public void run(final ConceptHandler handler) throws IOException {
+		final int[] attributes = derivation.primeOfObjects(EMPTY_SET); // {}'
+		final int[] objects = derivation.primeOfAttributes(attributes); // {}''
+		generate(objects, attributes, 1, new int[numberOfObjects + 1][], handler);
+	}
+
+	/**
+	 * Walks the tree on the given pool; each branch up to a small depth is 
+	 * a task of its own. The handler is called concurrently. 
+	 * 
+	 * @param handler
+	 * @param pool
+	 * @throws RuntimeException - wraps exceptions of the handler
+	 */
+	public void run(final ConceptHandler handler, final ForkJoinPool pool) {
+		final int[] attributes = derivation.primeOfObjects(EMPTY_SET); // {}'
+		final int[] objects = derivation.primeOfAttributes(attributes); // {}''
+		pool.invoke(new BranchTask(objects, attributes, 1, new int[numberOfObjects + 1][], 0, handler));
+	}
+
+	/*
+	 * handles the closed set A and walks its descendants, given that A 
+	 * was generated by adding object y - 1; failed[j] contains the 
+	 * last closure of a set +j which failed the canonicity test
+	 */
+	private void generate(final int[] objects, final int[] attributes, final int y, final int[][] failed, final ConceptHandler handler) throws IOException {
+		handler.handle(objects, attributes);
+
+		final List<Child> children = new ArrayList<Child>();
+		final List<Child> replaced = new ArrayList<Child>();
+		expand(objects, attributes, y, failed, children, replaced);
+		for (final Child child: children) {
+			generate(child.objects, child.attributes, child.j + 1, failed, handler);
+		}
+		/*
+		 * restore the failed closures for the siblings of A
+		 */
+		for (int c = replaced.size() - 1; c >= 0; c--) {
+			failed[replaced.get(c).j] = replaced.get(c).objects;
+		}
+	}
+
+	/*
+	 * computes the children of A; the failed closures which are replaced 
+	 * are added to replaced
+	 */
+	private void expand(final int[] objects, final int[] attributes, final int y, final int[][] failed, final List<Child> children, final List<Child> replaced) {
+		if (objects[0] == numberOfObjects) return;
+		for (int j = y; j <= numberOfObjects; j++) {
+			if (contains(objects, j)) continue;
+			/*
+			 * failed attribute inheritance: if a failed closure of +j 
+			 * contains objects before j which are not in A, so does the 
+			 * closure of A+j
+			 */
+			if (failed[j] != null && !isPrefixContained(failed[j], objects, j)) continue;
+
+			// (A+j)' = A' \cap {j}'
+			final int[] childAttributes = derivation.intersectPrimeOfObject(attributes, representative[j], new int[attributes[0] + 1]);
+			if (childAttributes[0] < minAttributes) continue;
+
+			final int[] closure = derivation.primeOfAttributes(childAttributes);
+			if (isPrefixContained(closure, objects, j)) {
+				children.add(new Child(closure, childAttributes, j));
+			} else {
+				replaced.add(new Child(failed[j], null, j));
+				failed[j] = closure;
+			}
+		}
+	}
+
+	/*
+	 * returns true, if all objects of a before j are contained in b
+	 * (since b is contained in the closures we test, this is the 
+	 * canonicity test)
+	 */
+	private boolean isPrefixContained(final int[] a, final int[] b, final int j) {
+		int l = 1;
+		for (int k = 1; k <= a[0] && key[a[k]] < j; k++) {
+			while (l <= b[0] && key[b[l]] < key[a[k]]) l++;
+			if (l > b[0] || key[b[l]] != key[a[k]]) return false;
+		}
+		return true;
+	}
+
+	/*
+	 * binary search for object j in set
+	 */
+	private boolean contains(final int[] set, final int j) {
+		int l = 1;
+		int u = set[0];
+		while (l <= u) {
+			final int m = (l + u) >>> 1;
+			if (key[set[m]] < j) {
+				l = m + 1;
+			} else if (key[set[m]] > j) {
+				u = m - 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A branch of the tree: handles its closed set and forks a task for 
+	 * each child (or walks the children itself, below {@link #MAX_TASK_DEPTH}).
+	 */
+	private class BranchTask extends RecursiveAction {
+		private static final long serialVersionUID = -3524380312651238311L;
+
+		private final int[] objects;
+		private final int[] attributes;
+		private final int y;
+		private final int[][] failed; // shared with the siblings, thus copied before changing it
+		private final int depth;
+		private final ConceptHandler handler;
+
+		public BranchTask(final int[] objects, final int[] attributes, final int y, final int[][] failed, final int depth, final ConceptHandler handler) {
+			this.objects = objects;
+			this.attributes = attributes;
+			this.y = y;
+			this.failed = failed;
+			this.depth = depth;
+			this.handler = handler;
+		}
+
+		@Override
+		protected void compute() {
+			final int[][] ownFailed = failed.clone();
+			try {
+				if (depth >= MAX_TASK_DEPTH) {
+					generate(objects, attributes, y, ownFailed, handler);
+					return;
+				}
+				handler.handle(objects, attributes);
+			} catch (final IOException e) {
+				throw new RuntimeException(e);
+			}
+			final List<Child> children = new ArrayList<Child>();
+			expand(objects, attributes, y, ownFailed, children, new ArrayList<Child>());
+
+			final List<BranchTask> tasks = new ArrayList<BranchTask>(children.size());
+			for (final Child child: children) {
+				tasks.add(new BranchTask(child.objects, child.attributes, child.j + 1, ownFailed, depth + 1, handler));
+			}
+			invokeAll(tasks);
+		}
+	}
+
+	/*
+	 * a closed set generated by adding object j (or a failed closure 
+	 * of +j)
+	 */
+	private static final class Child {
+		private final int[] objects;
+		private final int[] attributes;
+		private final int j;
+
+		public Child(final int[] objects, final int[] attributes, final int j) {
+			this.objects = objects;
+			this.attributes = attributes;
+			this.j = j;
+		}
+	}
+}
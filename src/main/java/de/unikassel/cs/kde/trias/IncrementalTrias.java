@@ -0,0 +1,648 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.log4j.Logger;
+
+import de.unikassel.cs.kde.trias.io.MappingTriasWriter;
+import de.unikassel.cs.kde.trias.io.TriasWriter;
+import de.unikassel.cs.kde.trias.model.ContextIndex;
+import de.unikassel.cs.kde.trias.model.TripleStore;
+import de.unikassel.cs.kde.trias.util.Dimension;
+
+/**
+ * Maintains the frequent tri-concepts of a context when triples are added 
+ * or removed, without mining the whole context again. Given the index of 
+ * the previous context, its tri-concepts (mined with the same minimal 
+ * supports) and the changed triples, 
+ * {@link #update(boolean[], TripleStore, Iterable, TriasWriter, TriasWriter)} 
+ * writes the tri-concepts which were added and those which were removed.
+ * <ul>
+ * <li>A previous tri-concept is removed iff it contains a removed triple or 
+ * it can be extended by an item, i.e., a new triple has two of its items 
+ * in the concept. Thus only concepts with affected items in two (new 
+ * triples) or three (removed triples) dimensions are checked.</li>
+ * <li>A tri-concept which contains a new triple (u, t, r) is new. Its users 
+ * have the pair (t, r), its tags the pair (u, r) and its resources the 
+ * pair (u, t): Trias mines the (small) subcontext spanned by these items, 
+ * and a tri-concept of it is kept, if (u, t, r) is its first new triple 
+ * and it is closed in the new context.</li>
+ * <li>Any other new tri-concept was not closed in the previous context, 
+ * thus it has two items of a removed triple, say t and r. Its users have 
+ * the pair (t, r), its tags the pair (u', r) and its resources the pair 
+ * (u', t) for some user u' with (t, r): Trias mines the subcontext spanned 
+ * by these items, and a tri-concept of it is kept, if (t, r) are the first 
+ * items of a removed triple it has, and it is closed in the new but not in 
+ * the previous context.</li>
+ * </ul>
+ * Tri-concepts with empty sets depend on the whole context, hence all 
+ * minimal supports must be at least 1.
+ * <p>
+ * {@link #getContextIndex()} returns the index of the new context, 
+ * which can be saved with {@link ContextIndex#write(java.io.DataOutputStream)} 
+ * for the next update.
+ * 
+ */
+public class IncrementalTrias {
+
+	private static final Logger log = Logger.getLogger(IncrementalTrias.class);
+
+	private final static int U = Dimension.U.intValue();
+	private final static int T = Dimension.T.intValue();
+	private final static int R = Dimension.R.intValue();
+
+	private final int[] minSupportPerDimension;
+
+	/*
+	 * the index of the current context; replaced by update()
+	 */
+	private ContextIndex index;
+
+	/*
+	 * during an update: the index of the previous context, the indexes of 
+	 * the new triples (sorted by (U, T, R)) and of the removed triples, and 
+	 * the marks of the items of the concept which is checked
+	 */
+	private ContextIndex previousIndex;
+	private ContextIndex newTriples;
+	private ContextIndex removedTriples;
+	private boolean[][] marked;
+
+	private int numberOfNewTriples = 0;
+	private int numberOfRemovedTriples = 0;
+	private int numberOfSubcontexts = 0;
+	private int numberOfCheckedConcepts = 0;
+	private int numberOfAddedConcepts = 0;
+	private int numberOfRemovedConcepts = 0;
+
+	/**
+	 * @param index - the index of the context the previous tri-concepts were mined on
+	 * @param minSupportPerDimension - the minimal supports the previous tri-concepts were mined with, at least 1
+	 */
+	public IncrementalTrias(final ContextIndex index, final int[] minSupportPerDimension) {
+		super();
+		for (final int minSupport: minSupportPerDimension) {
+			if (minSupport < 1) {
+				throw new IllegalArgumentException("incremental mining needs minimal supports of at least 1, since tri-concepts with empty sets depend on the whole context");
+			}
+		}
+		this.index = index;
+		this.minSupportPerDimension = minSupportPerDimension;
+	}
+
+	/** Adds the triples to the context and writes the changes of its 
+	 * tri-concepts.
+	 * 
+	 * @param addedTriples - the triples to add
+	 * @param previousConcepts - the tri-concepts of the context before the update
+	 * @param addedConcepts - receives the tri-concepts which are new
+	 * @param removedConcepts - receives the previous tri-concepts which no longer are tri-concepts
+	 * @throws IOException
+	 * @see #update(boolean[], TripleStore, Iterable, TriasWriter, TriasWriter)
+	 */
+	public void update(final TripleStore addedTriples, final Iterable<int[][]> previousConcepts, final TriasWriter addedConcepts, final TriasWriter removedConcepts) throws IOException {
+		update(null, addedTriples, previousConcepts, addedConcepts, removedConcepts);
+	}
+
+	/** Removes and adds the triples and writes the changes of the 
+	 * tri-concepts of the context. Added triples which are already in the 
+	 * context are ignored (and kept, if they should be removed). New items 
+	 * must get the ids following the ones of their dimension. Both writers 
+	 * are closed afterwards.
+	 * <p>
+	 * The kept triples keep their order in the triple store of the new 
+	 * index, the new triples follow, ordered by (U, T, R).
+	 * 
+	 * @param removed - for each triple of the index, whether it is removed; <code>null</code> to keep all
+	 * @param addedTriples - the triples to add
+	 * @param previousConcepts - the tri-concepts of the context before the update
+	 * @param addedConcepts - receives the tri-concepts which are new
+	 * @param removedConcepts - receives the previous tri-concepts which no longer are tri-concepts
+	 * @throws IOException
+	 */
+	public void update(final boolean[] removed, final TripleStore addedTriples, final Iterable<int[][]> previousConcepts, final TriasWriter addedConcepts, final TriasWriter removedConcepts) throws IOException {
+		numberOfSubcontexts = 0;
+		numberOfCheckedConcepts = 0;
+		numberOfAddedConcepts = 0;
+		numberOfRemovedConcepts = 0;
+
+		final int[] numberOfItemsPerDimension = index.getNumberOfItemsPerDimension().clone();
+		for (int dim = 0; dim < numberOfItemsPerDimension.length; dim++) {
+			final int[] column = addedTriples.getColumn(dim);
+			for (int i = 0; i < column.length; i++) {
+				numberOfItemsPerDimension[dim] = Math.max(numberOfItemsPerDimension[dim], column[i]);
+			}
+		}
+		final boolean[] removedMask = removed != null ? removed.clone() : new boolean[index.getTripleStore().size()];
+		final TripleStore newTripleStore = getNewTriples(addedTriples, numberOfItemsPerDimension, removedMask);
+		final TripleStore removedTripleStore = getRemovedTriples(removedMask);
+		numberOfNewTriples = newTripleStore.size();
+		numberOfRemovedTriples = removedTripleStore.size();
+		log.info(numberOfNewTriples + " of " + addedTriples.size() + " added triples are new, " + numberOfRemovedTriples + " triples are removed");
+
+		if (numberOfNewTriples > 0 || numberOfRemovedTriples > 0) {
+			try {
+				previousIndex = index;
+				index = index.update(removedMask, newTripleStore, numberOfItemsPerDimension);
+				newTriples = new ContextIndex(newTripleStore, numberOfItemsPerDimension);
+				removedTriples = new ContextIndex(removedTripleStore, numberOfItemsPerDimension);
+				marked = new boolean[Dimension.noOfDimensions][];
+				for (int dim = 0; dim < marked.length; dim++) {
+					marked[dim] = new boolean[numberOfItemsPerDimension[dim] + 1];
+				}
+				writeRemovedConcepts(previousConcepts, removedConcepts);
+				writeAddedConcepts(addedConcepts);
+			} finally {
+				previousIndex = null;
+				newTriples = null;
+				removedTriples = null;
+				marked = null;
+			}
+			log.info("checked " + numberOfCheckedConcepts + " previous tri-concepts and mined " + numberOfSubcontexts + " subcontexts: " + numberOfAddedConcepts + " tri-concepts added, " + numberOfRemovedConcepts + " removed");
+		}
+		addedConcepts.close();
+		removedConcepts.close();
+	}
+
+	/*
+	 * returns the added triples which are neither in the context nor 
+	 * duplicates, sorted by (U, T, R); those in the context are kept
+	 */
+	private TripleStore getNewTriples(final TripleStore addedTriples, final int[] numberOfItemsPerDimension, final boolean[] removedMask) {
+		final ContextIndex added = new ContextIndex(addedTriples, numberOfItemsPerDimension);
+		final int[] order = added.getUOrder();
+		final int[][] columns = addedTriples.getColumns();
+		final TripleStore triples = new TripleStore(addedTriples.size());
+		for (int p = 0; p < order.length; p++) {
+			final int triple = order[p];
+			final int u = columns[U][triple];
+			final int t = columns[T][triple];
+			final int r = columns[R][triple];
+			if (p > 0) {
+				final int previous = order[p - 1];
+				if (columns[U][previous] == u && columns[T][previous] == t && columns[R][previous] == r) continue;
+			}
+			final int position = index.find(u, t, r);
+			if (position < 0) {
+				triples.add(u, t, r);
+			} else {
+				removedMask[position] = false;
+			}
+		}
+		triples.trimToSize();
+		return triples;
+	}
+
+	private TripleStore getRemovedTriples(final boolean[] removedMask) {
+		final TripleStore triples = new TripleStore();
+		final int[][] columns = index.getTripleStore().getColumns();
+		for (int triple = 0; triple < removedMask.length; triple++) {
+			if (removedMask[triple]) {
+				triples.add(columns[U][triple], columns[T][triple], columns[R][triple]);
+			}
+		}
+		triples.trimToSize();
+		return triples;
+	}
+
+	/*
+	 * a previous tri-concept can only be extended by a new triple with 
+	 * two of its items in the concept and only contain a removed triple 
+	 * with three of its items in the concept
+	 */
+	private void writeRemovedConcepts(final Iterable<int[][]> previousConcepts, final TriasWriter removedConcepts) throws IOException {
+		final boolean[][] affectedByNew = getAffectedItems(newTriples.getTripleStore());
+		final boolean[][] affectedByRemoved = getAffectedItems(removedTriples.getTripleStore());
+		for (final int[][] concept: previousConcepts) {
+			if (countAffectedDimensions(concept, affectedByNew) < 2 && countAffectedDimensions(concept, affectedByRemoved) < 3) continue;
+			numberOfCheckedConcepts++;
+			mark(concept, true);
+			final boolean kept = getFirstTriple(removedTriples, concept) < 0 && isClosed(index, concept);
+			mark(concept, false);
+			if (!kept) {
+				numberOfRemovedConcepts++;
+				removedConcepts.write(concept);
+			}
+		}
+	}
+
+	private boolean[][] getAffectedItems(final TripleStore triples) {
+		final boolean[][] affected = new boolean[Dimension.noOfDimensions][];
+		for (int dim = 0; dim < affected.length; dim++) {
+			affected[dim] = new boolean[marked[dim].length];
+			final int[] column = triples.getColumn(dim);
+			for (int i = 0; i < column.length; i++) {
+				affected[dim][column[i]] = true;
+			}
+		}
+		return affected;
+	}
+
+	private static int countAffectedDimensions(final int[][] concept, final boolean[][] affected) {
+		int affectedDimensions = 0;
+		for (int dim = 0; dim < Dimension.noOfDimensions; dim++) {
+			for (final int item: concept[dim]) {
+				if (item < affected[dim].length && affected[dim][item]) {
+					affectedDimensions++;
+					break;
+				}
+			}
+		}
+		return affectedDimensions;
+	}
+
+	/*
+	 * mines the subcontexts of the tri-concepts which contain a new triple 
+	 * and of those which contain two items of a removed triple; the 
+	 * subcontexts are numbered: first one per new triple, then three 
+	 * (one per dimension the removed triple is not fixed in) per removed 
+	 * triple
+	 */
+	private void writeAddedConcepts(final TriasWriter addedConcepts) throws IOException {
+		final int[] numberOfItemsPerDimension = index.getNumberOfItemsPerDimension();
+		final int[][] localIds = new int[Dimension.noOfDimensions][];
+		for (int dim = 0; dim < localIds.length; dim++) {
+			localIds[dim] = new int[numberOfItemsPerDimension[dim] + 1];
+		}
+		final SubcontextWriter subcontextWriter = new SubcontextWriter(addedConcepts);
+		final Trias trias = new Trias();
+		trias.setSupportReduction(false); // the subcontexts are small
+
+		final TripleStore newTripleStore = newTriples.getTripleStore();
+		final int[] triple = new int[Dimension.noOfDimensions];
+		for (int q = 0; q < newTripleStore.size(); q++) {
+			for (int dim = 0; dim < triple.length; dim++) {
+				triple[dim] = newTripleStore.get(q, dim);
+			}
+			final int[][] items = new int[Dimension.noOfDimensions][];
+			for (int dim = 0; dim < items.length; dim++) {
+				items[dim] = getItems(index, dim, triple);
+			}
+			subcontextWriter.subcontext = q;
+			mine(trias, items, localIds, subcontextWriter);
+		}
+
+		final TripleStore removedTripleStore = removedTriples.getTripleStore();
+		for (int q = 0; q < removedTripleStore.size(); q++) {
+			for (int free = 0; free < Dimension.noOfDimensions; free++) {
+				for (int dim = 0; dim < triple.length; dim++) {
+					triple[dim] = removedTripleStore.get(q, dim);
+				}
+				/*
+				 * the items of the free dimension complete the two fixed 
+				 * items of the triple, the items of each fixed dimension 
+				 * complete the other fixed item and one of them
+				 */
+				final int[][] items = new int[Dimension.noOfDimensions][];
+				items[free] = getItems(index, free, triple);
+				for (int dim = 0; dim < items.length; dim++) {
+					if (dim == free) continue;
+					int count = 0;
+					for (final int item: items[free]) {
+						triple[free] = item;
+						for (final int other: getItems(index, dim, triple)) {
+							if (localIds[dim][other] == 0) {
+								localIds[dim][other] = 1;
+								count++;
+							}
+						}
+					}
+					items[dim] = new int[count];
+					count = 0;
+					for (final int item: items[free]) {
+						triple[free] = item;
+						for (final int other: getItems(index, dim, triple)) {
+							if (localIds[dim][other] != 0) {
+								localIds[dim][other] = 0;
+								items[dim][count++] = other;
+							}
+						}
+					}
+					Arrays.sort(items[dim]);
+				}
+				subcontextWriter.subcontext = newTripleStore.size() + Dimension.noOfDimensions * q + free;
+				mine(trias, items, localIds, subcontextWriter);
+			}
+		}
+	}
+
+	/*
+	 * mines the subcontext spanned by the items (sorted per dimension)
+	 */
+	private void mine(final Trias trias, final int[][] items, final int[][] localIds, final SubcontextWriter subcontextWriter) throws IOException {
+		for (int dim = 0; dim < items.length; dim++) {
+			if (items[dim].length < minSupportPerDimension[dim]) return;
+		}
+		/*
+		 * number the items of the subcontext densely, keeping their order
+		 */
+		final int[][] originalIds = new int[Dimension.noOfDimensions][];
+		for (int dim = 0; dim < items.length; dim++) {
+			originalIds[dim] = new int[items[dim].length + 1];
+			for (int i = 0; i < items[dim].length; i++) {
+				localIds[dim][items[dim][i]] = i + 1;
+				originalIds[dim][i + 1] = items[dim][i];
+			}
+		}
+		final TripleStore triples = index.getTripleStore();
+		final TripleStore subcontext = new TripleStore();
+		for (final int user: items[U]) {
+			for (int p = index.getUOffsets()[user]; p < index.getUOffsets()[user + 1]; p++) {
+				final int triple = index.getUOrder()[p];
+				final int tag = localIds[T][triples.get(triple, T)];
+				final int resource = localIds[R][triples.get(triple, R)];
+				if (tag > 0 && resource > 0) {
+					subcontext.add(localIds[U][user], tag, resource);
+				}
+			}
+		}
+		for (int dim = 0; dim < items.length; dim++) {
+			for (final int item: items[dim]) {
+				localIds[dim][item] = 0;
+			}
+		}
+
+		numberOfSubcontexts++;
+		trias.setTripleStore(subcontext);
+		trias.setNumberOfItemsPerDimension(new int[]{items[U].length, items[T].length, items[R].length});
+		trias.setMinSupportPerDimension(minSupportPerDimension);
+		trias.setTriConceptWriter(new MappingTriasWriter(subcontextWriter, originalIds));
+		trias.doWork();
+	}
+
+	/*
+	 * receives the tri-concepts of a subcontext and writes those which 
+	 * are new and belong to it
+	 */
+	private class SubcontextWriter implements TriasWriter {
+
+		private final TriasWriter addedConcepts;
+		private int subcontext;
+
+		public SubcontextWriter(final TriasWriter addedConcepts) {
+			this.addedConcepts = addedConcepts;
+		}
+
+		public void write(final int[][] concept) throws IOException {
+			mark(concept, true);
+			try {
+				final int firstNewTriple = getFirstTriple(newTriples, concept);
+				if (subcontext < newTriples.getTripleStore().size()) {
+					/*
+					 * each tri-concept is written for its first new triple only
+					 */
+					if (firstNewTriple != subcontext) return;
+				} else {
+					/*
+					 * tri-concepts with new triples have been written above, 
+					 * the others for the first removed triple they have two 
+					 * items of, if they were no tri-concepts before
+					 */
+					if (firstNewTriple >= 0) return;
+					if (getFirstRemovedSubcontext(concept) != subcontext) return;
+					if (isClosed(previousIndex, concept)) return;
+				}
+				if (!isClosed(index, concept)) return;
+			} finally {
+				mark(concept, false);
+			}
+			numberOfAddedConcepts++;
+			addedConcepts.write(concept);
+		}
+
+		public void close() throws IOException {
+			// the writer is used for all subcontexts
+		}
+	}
+
+	private void mark(final int[][] concept, final boolean value) {
+		for (int dim = 0; dim < Dimension.noOfDimensions; dim++) {
+			for (final int item: concept[dim]) {
+				marked[dim][item] = value;
+			}
+		}
+	}
+
+	/*
+	 * returns the first triple of the index (i.e., the one with the smallest 
+	 * position in its triple store) in the (marked) concept or -1
+	 */
+	private int getFirstTriple(final ContextIndex triples, final int[][] concept) {
+		final TripleStore tripleStore = triples.getTripleStore();
+		int first = -1;
+		for (final int user: concept[U]) {
+			for (int p = triples.getUOffsets()[user]; p < triples.getUOffsets()[user + 1]; p++) {
+				final int triple = triples.getUOrder()[p];
+				if ((first < 0 || triple < first) && marked[T][tripleStore.get(triple, T)] && marked[R][tripleStore.get(triple, R)]) {
+					first = triple;
+				}
+			}
+		}
+		return first;
+	}
+
+	/*
+	 * returns the number of the first subcontext of a removed triple, with 
+	 * whose two fixed items the (marked) concept is spanned, or -1
+	 */
+	private int getFirstRemovedSubcontext(final int[][] concept) {
+		final TripleStore tripleStore = removedTriples.getTripleStore();
+		int first = Integer.MAX_VALUE;
+		/*
+		 * the removed triples with a user of the concept and its tag or resource
+		 */
+		for (final int user: concept[U]) {
+			for (int p = removedTriples.getUOffsets()[user]; p < removedTriples.getUOffsets()[user + 1]; p++) {
+				final int triple = removedTriples.getUOrder()[p];
+				if (marked[T][tripleStore.get(triple, T)]) {
+					first = Math.min(first, Dimension.noOfDimensions * triple + R);
+				} else if (marked[R][tripleStore.get(triple, R)]) {
+					first = Math.min(first, Dimension.noOfDimensions * triple + T);
+				}
+			}
+		}
+		/*
+		 * the removed triples with a tag and a resource of the concept
+		 */
+		for (final int tag: concept[T]) {
+			for (final int resource: concept[R]) {
+				final int k = removedTriples.getPair(tag, resource);
+				if (k == 0) continue;
+				for (int p = removedTriples.getTROffsets()[k]; p < removedTriples.getTROffsets()[k + 1]; p++) {
+					final int triple = removedTriples.getTROrder()[p];
+					if (!marked[U][tripleStore.get(triple, U)]) {
+						first = Math.min(first, Dimension.noOfDimensions * triple + U);
+					}
+				}
+			}
+		}
+		return first == Integer.MAX_VALUE ? -1 : newTriples.getTripleStore().size() + first;
+	}
+
+	/*
+	 * checks, whether no item can be added to the (marked) concept, i.e., 
+	 * whether it is a tri-concept of the context of the index
+	 */
+	private boolean isClosed(final ContextIndex index, final int[][] concept) {
+		final int[] users = concept[U];
+		final int[] tags = concept[T];
+		final int[] resources = concept[R];
+		/*
+		 * users: the candidates have the pair (tags[0], resources[0])
+		 */
+		final long size = (long) tags.length * resources.length;
+		for (final int user: getItems(index, U, new int[]{0, tags[0], resources[0]})) {
+			if (!marked[U][user] && countTriples(index, user) == size) return false;
+		}
+		/*
+		 * tags: the candidates have the pair (users[0], resources[0])
+		 */
+		for (final int tag: getItems(index, T, new int[]{users[0], 0, resources[0]})) {
+			if (!marked[T][tag] && containsAll(index, users, new int[]{tag}, resources)) return false;
+		}
+		/*
+		 * resources: the candidates have the pair (users[0], tags[0])
+		 */
+		for (final int resource: getItems(index, R, new int[]{users[0], tags[0], 0})) {
+			if (!marked[R][resource] && containsAll(index, users, tags, new int[]{resource})) return false;
+		}
+		return true;
+	}
+
+	/*
+	 * counts the triples of the user with a marked tag and a marked resource
+	 */
+	private long countTriples(final ContextIndex index, final int user) {
+		final TripleStore triples = index.getTripleStore();
+		long count = 0;
+		for (int p = index.getUOffsets()[user]; p < index.getUOffsets()[user + 1]; p++) {
+			final int triple = index.getUOrder()[p];
+			if (marked[T][triples.get(triple, T)] && marked[R][triples.get(triple, R)]) count++;
+		}
+		return count;
+	}
+
+	private static boolean containsAll(final ContextIndex index, final int[] users, final int[] tags, final int[] resources) {
+		for (final int user: users) {
+			for (final int tag: tags) {
+				for (final int resource: resources) {
+					if (!index.contains(user, tag, resource)) return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * returns the items of the dimension which form a triple of the index 
+	 * with the items of the other dimensions of the given triple, in 
+	 * ascending order
+	 */
+	private static int[] getItems(final ContextIndex index, final int dimension, final int[] triple) {
+		final TripleStore triples = index.getTripleStore();
+		if (dimension == U) {
+			final int k = index.getPair(triple[T], triple[R]);
+			if (k == 0) return new int[0];
+			final int[] trOffsets = index.getTROffsets();
+			final int[] users = new int[trOffsets[k + 1] - trOffsets[k]];
+			for (int p = trOffsets[k]; p < trOffsets[k + 1]; p++) {
+				users[p - trOffsets[k]] = triples.get(index.getTROrder()[p], U);
+			}
+			return users;
+		}
+		/*
+		 * scan the triples of the user for the item of the other dimension
+		 */
+		final int other = dimension == T ? R : T;
+		final int u = triple[U];
+		if (u > index.getUOffsets()[0]) return new int[0];
+		final int from = index.getUOffsets()[u];
+		final int to = index.getUOffsets()[u + 1];
+		int count = 0;
+		for (int p = from; p < to; p++) {
+			if (triples.get(index.getUOrder()[p], other) == triple[other]) count++;
+		}
+		final int[] items = new int[count];
+		count = 0;
+		for (int p = from; p < to; p++) {
+			final int t = index.getUOrder()[p];
+			if (triples.get(t, other) == triple[other]) items[count++] = triples.get(t, dimension);
+		}
+		return items;
+	}
+
+	/**
+	 * @return The index of the context, including the changes of the last update.
+	 */
+	public ContextIndex getContextIndex() {
+		return index;
+	}
+
+	/**
+	 * @return The number of triples of the last update which were not in the context.
+	 */
+	public int getNumberOfNewTriples() {
+		return numberOfNewTriples;
+	}
+
+	/**
+	 * @return The number of triples the last update removed from the context.
+	 */
+	public int getNumberOfRemovedTriples() {
+		return numberOfRemovedTriples;
+	}
+
+	/**
+	 * @return The number of subcontexts mined by the last update.
+	 */
+	public int getNumberOfSubcontexts() {
+		return numberOfSubcontexts;
+	}
+
+	/**
+	 * @return The number of previous tri-concepts the last update had to check.
+	 */
+	public int getNumberOfCheckedConcepts() {
+		return numberOfCheckedConcepts;
+	}
+
+	/**
+	 * @return The number of tri-concepts the last update added.
+	 */
+	public int getNumberOfAddedConcepts() {
+		return numberOfAddedConcepts;
+	}
+
+	/**
+	 * @return The number of tri-concepts the last update removed.
+	 */
+	public int getNumberOfRemovedConcepts() {
+		return numberOfRemovedConcepts;
+	}
+
+}
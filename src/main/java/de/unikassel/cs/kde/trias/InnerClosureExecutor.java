@@ -0,0 +1,225 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import de.unikassel.cs.kde.trias.io.SynchronizedTriasWriter;
+import de.unikassel.cs.kde.trias.io.TriasWriter;
+
+/**
+ * Runs the inner next closure of several outer concepts concurrently on a
+ * fixed number of worker threads. 
+ * 
+ * At most <code>workers + queueDepth</code> jobs are in flight at the same 
+ * time (running, waiting, or finished but not yet written), further calls 
+ * to {@link #submit(Job)} block. Thus memory stays bounded, even when the 
+ * outer loop runs ahead. 
+ * 
+ * If the output is ordered, the tri-concepts of each job are buffered and 
+ * written in the order in which the jobs were submitted (reorder buffer). 
+ * Hence the writer sees exactly the same sequence as with the sequential 
+ * algorithm. Otherwise, the jobs write directly to the (synchronized) writer.
+ * 
+ */
+class InnerClosureExecutor {
+
+	private static final Logger log = Logger.getLogger(InnerClosureExecutor.class);
+
+	/**
+	 * A job writes its tri-concepts to the given writer. 
+	 */
+	interface Job {
+		public void run(final TriasWriter writer) throws IOException;
+	}
+
+	private final TriasWriter writer;
+	private final boolean ordered;
+	private final ExecutorService executor;
+	private final Semaphore slots;
+
+	/*
+	 * reorder buffer: finished jobs which wait for their predecessors
+	 */
+	private final Map<Long, List<int[][]>> finished = new HashMap<Long, List<int[][]>>();
+	private long nextToSubmit = 0;
+	private long nextToWrite = 0;
+
+	private volatile Throwable error = null;
+
+	/**
+	 * @param writer - receives the tri-concepts of all jobs
+	 * @param workers - number of worker threads
+	 * @param queueDepth - number of jobs which may wait in addition to the running ones 
+	 * @param ordered - if <code>true</code>, the tri-concepts are written in the order of submission
+	 */
+	public InnerClosureExecutor(final TriasWriter writer, final int workers, final int queueDepth, final boolean ordered) {
+		this.writer = ordered ? writer : new SynchronizedTriasWriter(writer);
+		this.ordered = ordered;
+		this.slots = new Semaphore(workers + queueDepth);
+		this.executor = Executors.newFixedThreadPool(workers, new ThreadFactory() {
+			private int ctr = 0;
+			public synchronized Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, "trias-inner-" + ctr++);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/** Queues the job for execution. Blocks, if too many jobs are in flight.
+	 * 
+	 * @param job
+	 * @throws IOException - if an earlier job failed
+	 */
+	public void submit(final Job job) throws IOException {
+		checkError();
+		try {
+			slots.acquire();
+		} catch (final InterruptedException e) {
+			throw new InterruptedIOException("interrupted while waiting for a free slot");
+		}
+		final long seq = nextToSubmit++;
+		executor.execute(new Runnable() {
+			public void run() {
+				if (ordered) {
+					final ConceptBuffer buffer = new ConceptBuffer();
+					try {
+						job.run(buffer);
+					} catch (final Throwable e) {
+						fail(e);
+					}
+					/*
+					 * deliver the (possibly partial) result anyway, otherwise 
+					 * its successors would wait forever
+					 */
+					deliver(seq, buffer.concepts);
+				} else {
+					try {
+						job.run(writer);
+					} catch (final Throwable e) {
+						fail(e);
+					} finally {
+						slots.release();
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Puts the result of a job into the reorder buffer and writes all results
+	 * whose predecessors have been written.
+	 */
+	private synchronized void deliver(final long seq, final List<int[][]> concepts) {
+		finished.put(seq, concepts);
+		List<int[][]> next;
+		while ((next = finished.remove(nextToWrite)) != null) {
+			try {
+				if (error == null) {
+					for (final int[][] concept: next) {
+						writer.write(concept);
+					}
+				}
+			} catch (final Throwable e) {
+				fail(e);
+			}
+			nextToWrite++;
+			slots.release();
+		}
+	}
+
+	private synchronized void fail(final Throwable e) {
+		if (error == null) {
+			log.fatal("inner next closure failed", e);
+			error = e;
+		}
+	}
+
+	private void checkError() throws IOException {
+		if (error != null) {
+			if (error instanceof IOException) throw (IOException) error;
+			if (error instanceof RuntimeException) throw (RuntimeException) error;
+			throw new RuntimeException(error);
+		}
+	}
+
+	/** Waits until all jobs are finished and their results are written. 
+	 * 
+	 * @throws IOException - if one of the jobs failed
+	 */
+	public void finish() throws IOException {
+		executor.shutdown();
+		try {
+			while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+				log.debug("waiting for " + (nextToSubmit - nextToWrite) + " inner next closure jobs");
+			}
+		} catch (final InterruptedException e) {
+			throw new InterruptedIOException("interrupted while waiting for the inner next closure jobs");
+		}
+		checkError();
+	}
+
+	/**
+	 * Stops all workers without waiting for them.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Collects the tri-concepts of one job.
+	 */
+	private static class ConceptBuffer implements TriasWriter {
+		private final List<int[][]> concepts = new LinkedList<int[][]>();
+
+		public void write(final int[][] concept) throws IOException {
+			/*
+			 * the caller might re-use the arrays
+			 */
+			final int[][] copy = new int[concept.length][];
+			for (int dim = 0; dim < concept.length; dim++) {
+				copy[dim] = concept[dim].clone();
+			}
+			concepts.add(copy);
+		}
+
+		public void close() throws IOException {
+			// nothing to do
+		}
+	}
+}
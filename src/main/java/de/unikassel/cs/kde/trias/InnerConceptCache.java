@@ -0,0 +1,197 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.unikassel.cs.kde.trias.util.Dimension;
+
+/**
+ * Remembers the inner concepts (B,C) of projected relations, such that 
+ * for a relation which was seen before only the triadic condition must 
+ * be checked. 
+ * 
+ * A relation is identified by its re-numbered (t,r) pairs in TxR order. 
+ * Thus relations of different outer concepts are recognized as equal, if 
+ * they are equal up to an order preserving re-numbering of T and R. Since 
+ * the positions of the pairs in the projection are then the same, too, 
+ * the concepts can be stored as sets of positions in the projection. 
+ * 
+ * The cache holds at most a given number of array elements (keys and 
+ * concepts); the least recently used relations are evicted first. It 
+ * can be used by several threads.
+ * 
+ */
+final class InnerConceptCache {
+
+	private final long maxSize;
+	private long size = 0;
+	private final LinkedHashMap<Key, int[][]> concepts = new LinkedHashMap<Key, int[][]>(16, 0.75f, true);
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * @param maxSize - the maximal number of array elements stored
+	 */
+	public InnerConceptCache(final long maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @param trListe - the projection (columns T and R contain the re-numbered items)
+	 * @param tCtr - number of t's in the projection
+	 * @param rCtr - number of r's in the projection
+	 * @return The key of the projected relation.
+	 */
+	public static Key key(final int[][] trListe, final int tCtr, final int rCtr) {
+		final int n = trListe[0].length;
+		final int[] pairs = new int[2 * n + 2];
+		pairs[0] = tCtr;
+		pairs[1] = rCtr;
+		System.arraycopy(trListe[Dimension.T.intValue()], 0, pairs, 2, n);
+		System.arraycopy(trListe[Dimension.R.intValue()], 0, pairs, n + 2, n);
+		return new Key(pairs);
+	}
+
+	/**
+	 * @param key
+	 * @return The inner concepts of the relation, or <code>null</code>, if 
+	 * the relation is unknown. The first array contains the number of inner 
+	 * concepts the miner handled (including those which are not frequent), 
+	 * the following arrays are alternating intents and modi of the frequent 
+	 * ones.
+	 */
+	public int[][] get(final Key key) {
+		final int[][] result;
+		synchronized (this) {
+			result = concepts.get(key);
+		}
+		if (result != null) {
+			hits.incrementAndGet();
+		} else {
+			misses.incrementAndGet();
+		}
+		return result;
+	}
+
+	/**
+	 * Stores the inner concepts of a relation.
+	 * 
+	 * @param key
+	 * @param numberOfConcepts - the number of inner concepts the miner handled
+	 * @param found - alternating intents and modi (the arrays are not copied)
+	 */
+	public void put(final Key key, final int numberOfConcepts, final List<int[]> found) {
+		final int[][] entry = new int[found.size() + 1][];
+		entry[0] = new int[]{numberOfConcepts};
+		for (int i = 0; i < found.size(); i++) {
+			entry[i + 1] = found.get(i);
+		}
+		final long entrySize = size(key, entry);
+		if (entrySize > maxSize) return;
+
+		synchronized (this) {
+			final int[][] previous = concepts.put(key, entry);
+			size += entrySize;
+			if (previous != null) size -= size(key, previous);
+			/*
+			 * evict least recently used relations
+			 */
+			final Iterator<Map.Entry<Key, int[][]>> it = concepts.entrySet().iterator();
+			while (size > maxSize && it.hasNext()) {
+				final Map.Entry<Key, int[][]> eldest = it.next();
+				if (eldest.getKey() == key) continue;
+				size -= size(eldest.getKey(), eldest.getValue());
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Adds copies of intent and modus to the list.
+	 * 
+	 * @param found
+	 * @param intent
+	 * @param modus
+	 */
+	public static void add(final List<int[]> found, final int[] intent, final int[] modus) {
+		found.add(Arrays.copyOf(intent, intent[0] + 1));
+		found.add(Arrays.copyOf(modus, modus[0] + 1));
+	}
+
+	/**
+	 * @return The number of relations found in the cache.
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return The number of relations not found in the cache.
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	private static long size(final Key key, final int[][] entry) {
+		long entrySize = key.pairs.length;
+		for (final int[] set: entry) {
+			entrySize += set.length;
+		}
+		return entrySize;
+	}
+
+	/**
+	 * The re-numbered (t,r) pairs of a projected relation.
+	 */
+	static final class Key {
+		private final int[] pairs;
+		private final int hash;
+
+		private Key(final int[] pairs) {
+			this.pairs = pairs;
+			this.hash = Arrays.hashCode(pairs);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) return true;
+			if (!(obj instanceof Key)) return false;
+			final Key other = (Key) obj;
+			return hash == other.hash && Arrays.equals(pairs, other.pairs);
+		}
+	}
+}
@@ -0,0 +1,297 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import de.unikassel.cs.kde.trias.util.Dimension;
+
+/**
+ * Enumerates the inner concepts with LCM (Uno, Kiyomi, Arimura), which 
+ * regards each resource as a transaction of tags and finds the closed 
+ * sets of tags with at least minModus transactions:
+ * <ul>
+ * <li>prefix preserving closure extension: a closed set P (generated by 
+ * adding tag core) has as children the closures Q of P+e for all e > core 
+ * which add no tag smaller than e, thus each closed set is found once 
+ * and no closed sets need to be stored,</li>
+ * <li>occurrence deliver: the transactions of all P+e are collected in 
+ * one scan over the transactions of P,</li>
+ * <li>database reduction: the transactions of a child contain neither 
+ * the tags of Q (they are in every transaction) nor tags which are 
+ * infrequent among them (they can neither extend Q nor be part of the 
+ * closure of one of its extensions).</li>
+ * </ul>
+ * Since the transactions only shrink, this is fast on sparse relations. 
+ * 
+ */
+final class LcmInnerMiner implements Trias.InnerMiner {
+
+	private final static int T = Dimension.T.intValue();
+	private final static int R = Dimension.R.intValue();
+
+	public void mine(final int[][] trListe, final int tCtr, final int rCtr, final int minModus, final FastCloseByOne.ConceptHandler handler) throws IOException {
+		new Search(trListe, tCtr, rCtr, minModus, handler).run();
+	}
+
+	/*
+	 * transactions (resources) with their tags
+	 */
+	private static final class Database {
+		private final int size;
+		private final int[] transaction; // for each transaction its resource
+		private final int[] start;       // for each transaction the start of its tags (size + 1 elements)
+		private final int[] items;
+
+		public Database(final int size, final int[] transaction, final int[] start, final int[] items) {
+			this.size = size;
+			this.transaction = transaction;
+			this.start = start;
+			this.items = items;
+		}
+	}
+
+	/*
+	 * the state of one run (a miner is shared by all threads)
+	 */
+	private static final class Search {
+		private final int tCtr;
+		private final int minModus;
+		private final FastCloseByOne.ConceptHandler handler;
+		private final int[] tRepresentative; // for each tag one position of trListe
+		private final int[] rRepresentative; // for each resource one position of trListe
+		private final int[] count;           // for each tag a counter (zero between uses)
+		private final int[] slot;            // for each candidate tag its bucket (zero between uses)
+		private final int[] intent;
+		private final int[] modus;
+		private final Database root;
+		private boolean topFound = false;    // true, if the set of all tags was handled
+
+		public Search(final int[][] trListe, final int tCtr, final int rCtr, final int minModus, final FastCloseByOne.ConceptHandler handler) {
+			this.tCtr = tCtr;
+			this.minModus = minModus;
+			this.handler = handler;
+			this.count = new int[tCtr + 1];
+			this.slot = new int[tCtr + 1];
+			this.intent = new int[tCtr + 1];
+			this.modus = new int[rCtr + 1];
+			this.tRepresentative = new int[tCtr + 1];
+			this.rRepresentative = new int[rCtr + 1];
+
+			/*
+			 * one transaction per resource; trListe is sorted by T, thus 
+			 * the tags of each transaction are sorted
+			 */
+			final int n = trListe[T].length;
+			final int[] transaction = new int[rCtr];
+			final int[] start = new int[rCtr + 1];
+			final int[] items = new int[n];
+			for (int j = n - 1; j >= 0; j--) {
+				start[trListe[R][j]]++;
+				tRepresentative[trListe[T][j]] = j;
+				rRepresentative[trListe[R][j]] = j;
+			}
+			for (int r = 1; r <= rCtr; r++) {
+				transaction[r - 1] = r;
+				start[r] += start[r - 1]; // end of r
+			}
+			final int[] next = new int[rCtr];
+			System.arraycopy(start, 0, next, 0, rCtr);
+			for (int j = 0; j < n; j++) {
+				items[next[trListe[R][j] - 1]++] = trListe[T][j];
+			}
+			this.root = new Database(rCtr, transaction, start, items);
+		}
+
+		public void run() throws IOException {
+			/*
+			 * the closure of the empty set: the tags of all transactions
+			 */
+			final int[] closure = new int[tCtr + 1];
+			for (int i = 0; i < root.start[root.size]; i++) {
+				count[root.items[i]]++;
+			}
+			for (int t = 1; t <= tCtr; t++) {
+				if (count[t] == root.size) closure[++closure[0]] = t;
+			}
+			final Database database = reduce(root, 0, root.size, null, root.size);
+			for (int t = 1; t <= tCtr; t++) {
+				count[t] = 0;
+			}
+			generate(closure, database, 0);
+
+			if (!topFound && minModus <= 0) {
+				/*
+				 * the set of all tags has no transaction, thus it was not found
+				 */
+				intent[0] = tCtr;
+				for (int t = 1; t <= tCtr; t++) {
+					intent[t] = tRepresentative[t];
+				}
+				modus[0] = 0;
+				handler.handle(intent, modus);
+			}
+		}
+
+		/*
+		 * handles the closed set P with the transactions of database and 
+		 * walks its children, given that it was generated by adding tag core
+		 */
+		private void generate(final int[] closure, final Database database, final int core) throws IOException {
+			if (closure[0] == tCtr) topFound = true;
+			handle(closure, database);
+			if (database.size == 0 || database.size < minModus) return;
+
+			/*
+			 * the candidates: all tags after core (all tags in the database 
+			 * are frequent)
+			 */
+			final int length = database.start[database.size];
+			final int[] candidates = new int[Math.min(length, tCtr)];
+			int candidateCtr = 0;
+			for (int i = 0; i < length; i++) {
+				final int item = database.items[i];
+				if (count[item]++ == 0 && item > core) candidates[candidateCtr++] = item;
+			}
+			Arrays.sort(candidates, 0, candidateCtr);
+
+			/*
+			 * occurrence deliver: collect the transactions of each candidate
+			 */
+			final int[] bucketStart = new int[candidateCtr + 1];
+			for (int c = 0; c < candidateCtr; c++) {
+				slot[candidates[c]] = c;
+				bucketStart[c + 1] = bucketStart[c] + count[candidates[c]];
+			}
+			final int[] next = new int[candidateCtr];
+			System.arraycopy(bucketStart, 0, next, 0, candidateCtr);
+			final int[] buckets = new int[bucketStart[candidateCtr]];
+			for (int k = 0; k < database.size; k++) {
+				for (int i = database.start[k]; i < database.start[k + 1]; i++) {
+					final int item = database.items[i];
+					if (item > core) buckets[next[slot[item]]++] = k;
+				}
+			}
+			for (int i = 0; i < length; i++) {
+				count[database.items[i]] = 0;
+				slot[database.items[i]] = 0;
+			}
+
+			for (int c = 0; c < candidateCtr; c++) {
+				final int e = candidates[c];
+				final int from = bucketStart[c];
+				final int to = bucketStart[c + 1];
+				final int support = to - from;
+				if (support < minModus) continue;
+
+				/*
+				 * closure of P+e: the tags of all its transactions
+				 */
+				for (int b = from; b < to; b++) {
+					final int k = buckets[b];
+					for (int i = database.start[k]; i < database.start[k + 1]; i++) {
+						count[database.items[i]]++;
+					}
+				}
+				final int[] child = extend(closure, e, database, buckets[from], support);
+				final Database childDatabase = child != null ? reduce(database, from, to, buckets, support) : null;
+				for (int b = from; b < to; b++) {
+					final int k = buckets[b];
+					for (int i = database.start[k]; i < database.start[k + 1]; i++) {
+						count[database.items[i]] = 0;
+					}
+				}
+				if (child != null) generate(child, childDatabase, e);
+			}
+		}
+
+		/*
+		 * returns the closure of P+e, or null, if it contains a new tag 
+		 * smaller than e (i.e., it is no prefix preserving extension); the 
+		 * tags of the closure occur in every transaction, in particular in 
+		 * the first one
+		 */
+		private int[] extend(final int[] closure, final int e, final Database database, final int first, final int support) {
+			final int[] child = new int[closure[0] + database.start[first + 1] - database.start[first] + 1];
+			int p = 1;
+			for (int i = database.start[first]; i < database.start[first + 1]; i++) {
+				final int item = database.items[i];
+				if (count[item] == support) {
+					if (item < e) return null;
+					// merge the tags of P before item
+					while (p <= closure[0] && closure[p] < item) child[++child[0]] = closure[p++];
+					child[++child[0]] = item;
+				}
+			}
+			while (p <= closure[0]) child[++child[0]] = closure[p++];
+			return child;
+		}
+
+		/*
+		 * returns the transactions buckets[from..to) (all transactions, if 
+		 * buckets is null) without the tags of the closure (which occur 
+		 * support times) and without infrequent tags
+		 */
+		private Database reduce(final Database database, final int from, final int to, final int[] buckets, final int support) {
+			int length = 0;
+			for (int b = from; b < to; b++) {
+				final int k = buckets != null ? buckets[b] : b;
+				length += database.start[k + 1] - database.start[k];
+			}
+			final int[] transaction = new int[to - from];
+			final int[] start = new int[to - from + 1];
+			final int[] items = new int[length];
+			int size = 0;
+			int i = 0;
+			for (int b = from; b < to; b++) {
+				final int k = buckets != null ? buckets[b] : b;
+				for (int j = database.start[k]; j < database.start[k + 1]; j++) {
+					final int item = database.items[j];
+					if (count[item] != support && count[item] >= minModus) items[i++] = item;
+				}
+				transaction[size++] = database.transaction[k];
+				start[size] = i;
+			}
+			return new Database(size, transaction, start, items);
+		}
+
+		/*
+		 * hands the closed set and its transactions as positions of trListe to the handler
+		 */
+		private void handle(final int[] closure, final Database database) throws IOException {
+			intent[0] = closure[0];
+			for (int k = 1; k <= closure[0]; k++) {
+				intent[k] = tRepresentative[closure[k]];
+			}
+			modus[0] = database.size;
+			for (int k = 0; k < database.size; k++) {
+				modus[k + 1] = rRepresentative[database.transaction[k]];
+			}
+			handler.handle(intent, modus);
+		}
+	}
+
+}
@@ -0,0 +1,170 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * The state of the outer NEXT CLOSURE loop of {@link Trias} at the 
+ * beginning of a step: the current extent A and the candidate i (both as
+ * positions of triples), the i of the previous step, and the offset of 
+ * the output behind the tri-concepts which were written so far. 
+ * 
+ * The positions are only meaningful for the context they were taken on, 
+ * thus a checkpoint carries a fingerprint of the mined triples and the 
+ * minimal supports. It is written to a temporary file which is then 
+ * renamed, such that a crash while writing leaves the last checkpoint 
+ * intact.
+ * 
+ */
+final class OuterCheckpoint {
+
+	private static final int MAGIC = 0x54524943;
+	private static final int VERSION = 1;
+
+	private final long fingerprint;
+	private final int[] extent;
+	private final int i;
+	private final int lastI;
+	private final long offset;
+
+	OuterCheckpoint(final long fingerprint, final int[] extent, final int i, final int lastI, final long offset) {
+		this.fingerprint = fingerprint;
+		this.extent = extent;
+		this.i = i;
+		this.lastI = lastI;
+		this.offset = offset;
+	}
+
+	/**
+	 * Identifies the context of a checkpoint.
+	 * 
+	 * @param columns
+	 * @param numberOfItemsPerDimension
+	 * @param minSupportPerDimension
+	 * @return A hash of the triples (in their order) and the parameters.
+	 */
+	static long fingerprint(final int[][] columns, final int[] numberOfItemsPerDimension, final int[] minSupportPerDimension) {
+		long hash = columns[0].length;
+		for (int dim = 0; dim < columns.length; dim++) {
+			hash = 31 * hash + numberOfItemsPerDimension[dim];
+			hash = 31 * hash + minSupportPerDimension[dim];
+			hash = 31 * hash + Arrays.hashCode(columns[dim]);
+		}
+		return hash;
+	}
+
+	/**
+	 * Replaces the checkpoint in the file by this one.
+	 * 
+	 * @param file
+	 * @throws IOException
+	 */
+	void write(final File file) throws IOException {
+		final File temp = new File(file.getPath() + ".tmp");
+		final FileOutputStream fileOut = new FileOutputStream(temp);
+		try {
+			final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(fingerprint);
+			out.writeLong(offset);
+			out.writeInt(i);
+			out.writeInt(lastI);
+			for (int k = 0; k <= extent[0]; k++) {
+				out.writeInt(extent[k]);
+			}
+			out.flush();
+			fileOut.getFD().sync();
+		} finally {
+			fileOut.close();
+		}
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Loads the checkpoint from the file.
+	 * 
+	 * @param file
+	 * @param fingerprint - the fingerprint of the context which is mined
+	 * @return The checkpoint or <code>null</code>, if the file does not exist.
+	 * @throws IOException - if the file contains no checkpoint or one of another context
+	 */
+	static OuterCheckpoint read(final File file, final long fingerprint) throws IOException {
+		if (!file.exists()) return null;
+		final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			if (in.readInt() != MAGIC) {
+				throw new IOException(file + " is not a checkpoint of Trias");
+			}
+			final int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException("unsupported version " + version + " of checkpoint " + file);
+			}
+			if (in.readLong() != fingerprint) {
+				throw new IOException("the checkpoint " + file + " was taken on other triples or minimal supports");
+			}
+			final long offset = in.readLong();
+			final int i = in.readInt();
+			final int lastI = in.readInt();
+			final int size = in.readInt();
+			final int[] extent = new int[size + 1];
+			extent[0] = size;
+			for (int k = 1; k <= size; k++) {
+				extent[k] = in.readInt();
+			}
+			return new OuterCheckpoint(fingerprint, extent, i, lastI, offset);
+		} finally {
+			in.close();
+		}
+	}
+
+	int[] getExtent() {
+		return extent;
+	}
+
+	int getI() {
+		return i;
+	}
+
+	int getLastI() {
+		return lastI;
+	}
+
+	long getOffset() {
+		return offset;
+	}
+
+}
@@ -0,0 +1,433 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import de.unikassel.cs.kde.trias.io.BinaryTriasWriter;
+import de.unikassel.cs.kde.trias.io.MappingTriasWriter;
+import de.unikassel.cs.kde.trias.io.TriasWriter;
+import de.unikassel.cs.kde.trias.model.ContextIndex;
+import de.unikassel.cs.kde.trias.model.SupportReduction;
+import de.unikassel.cs.kde.trias.model.TripleStore;
+
+/**
+ * Mines a context with several worker processes, e.g., when one JVM does 
+ * not have enough heap or cores. The coordinator reduces the context (see 
+ * {@link SupportReduction}), saves its {@link ContextIndex} to a file and 
+ * splits the branches of the outer Close-by-One tree into disjoint ranges 
+ * of users (see {@link Trias#setOuterBranches(int, int)}). For each range 
+ * it starts a worker JVM (see {@link #main(String[])}), which loads the 
+ * index file and writes the tri-concepts of its branches with a 
+ * {@link BinaryTriasWriter}. The worker maps the file into memory, but only 
+ * as a fast way to load it: the index is not shared, each worker copies it 
+ * onto its own heap. 
+ * <p>
+ * Each range is mined exactly once, thus the results are disjoint and the 
+ * coordinator merges them by concatenation. A worker writes into a 
+ * temporary file which is only renamed when the worker succeeded; a failed 
+ * range is started again (up to {@link #setMaxAttempts(int)} times) 
+ * without touching the others. 
+ * 
+ */
+public class PartitionedTrias {
+
+	private static final Logger log = Logger.getLogger(PartitionedTrias.class);
+
+	private static final String INDEX_FILE_NAME = "context.index";
+
+	private final File workDirectory;
+
+	private int numberOfPartitions = 8;
+	private int numberOfWorkers = 2;
+	private int numberOfWorkerThreads = 1;
+	private int maxAttempts = 3;
+	private long workerTimeout = 24L * 60 * 60 * 1000;
+	private List<String> workerJvmOptions = Collections.emptyList();
+	private String javaCommand = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+	private String classPath = System.getProperty("java.class.path");
+
+	private final AtomicInteger numberOfFailedAttempts = new AtomicInteger();
+
+	/**
+	 * @param workDirectory - contains the index, the results and the logs of the workers
+	 */
+	public PartitionedTrias(final File workDirectory) {
+		super();
+		this.workDirectory = workDirectory;
+	}
+
+	/** Mines the context and writes its tri-concepts. The writer is closed 
+	 * afterwards.
+	 * 
+	 * @param tripleStore
+	 * @param numberOfItemsPerDimension
+	 * @param minSupportPerDimension
+	 * @param writer
+	 * @throws IOException - if a range of branches failed too often
+	 */
+	public void mine(final TripleStore tripleStore, final int[] numberOfItemsPerDimension, final int[] minSupportPerDimension, final TriasWriter writer) throws IOException {
+		numberOfFailedAttempts.set(0);
+		if (!workDirectory.isDirectory() && !workDirectory.mkdirs()) {
+			throw new IOException("could not create " + workDirectory);
+		}
+		/*
+		 * reduce the context once, instead of in each worker
+		 */
+		TripleStore triples = tripleStore;
+		int[] numberOfItems = numberOfItemsPerDimension;
+		TriasWriter mergeWriter = writer;
+		if (excludesEmptySets(minSupportPerDimension)) {
+			final SupportReduction reduction = new SupportReduction(tripleStore, numberOfItemsPerDimension, minSupportPerDimension);
+			log.info("support reduction removed " + reduction.getNumberOfRemovedTriples() + " of " + tripleStore.size() + " triples");
+			if (reduction.getTripleStore().size() == 0) {
+				writer.close();
+				return;
+			}
+			if (reduction.getNumberOfRemovedTriples() > 0) {
+				triples = reduction.getTripleStore();
+				numberOfItems = reduction.getNumberOfItemsPerDimension();
+				mergeWriter = new MappingTriasWriter(writer, reduction.getOriginalIds());
+			}
+		}
+		final ContextIndex index = new ContextIndex(triples, numberOfItems, numberOfWorkerThreads).distinct();
+		final File indexFile = new File(workDirectory, INDEX_FILE_NAME);
+		final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)));
+		try {
+			index.write(out);
+		} finally {
+			out.close();
+		}
+
+		/*
+		 * mine the ranges
+		 */
+		final int[][] partitions = getPartitions(index);
+		log.info("mining " + partitions.length + " ranges of branches with " + numberOfWorkers + " workers");
+		final ExecutorService executor = Executors.newFixedThreadPool(numberOfWorkers);
+		final File[] results = new File[partitions.length];
+		try {
+			final List<Future<File>> futures = new ArrayList<Future<File>>(partitions.length);
+			for (int k = 0; k < partitions.length; k++) {
+				final int partition = k;
+				futures.add(executor.submit(new Callable<File>() {
+					public File call() throws IOException {
+						return minePartition(partition, partitions[partition][0], partitions[partition][1], indexFile, minSupportPerDimension);
+					}
+				}));
+			}
+			for (int k = 0; k < partitions.length; k++) {
+				results[k] = futures.get(k).get();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while waiting for the workers");
+		} catch (final ExecutionException e) {
+			if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+			throw new RuntimeException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		/*
+		 * merge the (disjoint) results
+		 */
+		long numberOfConcepts = 0;
+		for (final File result: results) {
+			final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(result)));
+			try {
+				numberOfConcepts += BinaryTriasWriter.read(in, mergeWriter);
+			} finally {
+				in.close();
+			}
+		}
+		mergeWriter.close();
+		log.info("merged " + numberOfConcepts + " tri-concepts of " + results.length + " ranges of branches");
+
+		for (final File result: results) {
+			Files.delete(result.toPath());
+		}
+		Files.delete(indexFile.toPath());
+	}
+
+	private static boolean excludesEmptySets(final int[] minSupportPerDimension) {
+		for (final int minSupport: minSupportPerDimension) {
+			if (minSupport < 1) return false;
+		}
+		return true;
+	}
+
+	/*
+	 * splits the users into ranges with about the same number of triples; 
+	 * returns for each range its first and its last user
+	 */
+	private int[][] getPartitions(final ContextIndex index) {
+		final int[] uOffsets = index.getUOffsets();
+		final int numberOfUsers = uOffsets[0];
+		final int n = uOffsets[numberOfUsers + 1];
+		final int numberOfRanges = Math.max(1, Math.min(numberOfPartitions, numberOfUsers));
+		final int[][] partitions = new int[numberOfRanges][];
+		int from = 1;
+		for (int k = 0; k < numberOfRanges; k++) {
+			int to = from;
+			if (k == numberOfRanges - 1) {
+				to = Math.max(from, numberOfUsers);
+			} else {
+				// at least one user for each of the remaining ranges
+				final long end = (long) n * (k + 1) / numberOfRanges;
+				while (to < numberOfUsers - (numberOfRanges - k - 1) && uOffsets[to + 1] < end) to++;
+			}
+			partitions[k] = new int[]{from, to};
+			from = to + 1;
+		}
+		return partitions;
+	}
+
+	/*
+	 * runs workers for the range until one succeeds 
+	 */
+	private File minePartition(final int partition, final int from, final int to, final File indexFile, final int[] minSupportPerDimension) throws IOException {
+		final File result = new File(workDirectory, "part-" + partition + ".bin");
+		final File temporary = new File(workDirectory, "part-" + partition + ".bin.tmp");
+		final File workerLog = new File(workDirectory, "part-" + partition + ".log");
+		final List<String> command = new ArrayList<String>();
+		command.add(javaCommand);
+		command.addAll(workerJvmOptions);
+		command.addAll(Arrays.asList(
+				"-cp", classPath, PartitionedTrias.class.getName(), 
+				indexFile.getPath(), 
+				Integer.toString(from), Integer.toString(to), 
+				Integer.toString(minSupportPerDimension[0]), Integer.toString(minSupportPerDimension[1]), Integer.toString(minSupportPerDimension[2]), 
+				Integer.toString(numberOfWorkerThreads), 
+				temporary.getPath()));
+
+		for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+			Files.deleteIfExists(temporary.toPath());
+			log.debug("starting worker for users " + from + ".." + to + " (attempt " + attempt + ")");
+			final Process process = startWorker(partition, attempt, command, workerLog);
+			final Integer exitValue;
+			try {
+				exitValue = waitFor(process, workerTimeout);
+				if (exitValue == null) {
+					// hung: stop it, before the next attempt uses its files
+					process.destroy();
+					process.waitFor();
+				}
+			} catch (final InterruptedException e) {
+				process.destroy();
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("interrupted while waiting for the worker of users " + from + ".." + to);
+			}
+			if (exitValue != null && exitValue == 0 && temporary.isFile()) {
+				Files.move(temporary.toPath(), result.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				return result;
+			}
+			numberOfFailedAttempts.incrementAndGet();
+			log.warn("worker for users " + from + ".." + to + (exitValue == null ? " did not finish within " + workerTimeout + " ms" : " failed with exit value " + exitValue) + " (attempt " + attempt + " of " + maxAttempts + "), see " + workerLog);
+		}
+		throw new IOException("the users " + from + ".." + to + " could not be mined in " + maxAttempts + " attempts, see " + workerLog);
+	}
+
+	/*
+	 * waits until the process has finished, returns its exit value or null, 
+	 * if it did not finish within the timeout (0 waits without limit)
+	 */
+	private static Integer waitFor(final Process process, final long timeout) throws InterruptedException {
+		if (timeout <= 0) return process.waitFor();
+		final long deadline = System.currentTimeMillis() + timeout;
+		while (true) {
+			try {
+				return process.exitValue();
+			} catch (final IllegalThreadStateException running) {
+				final long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) return null;
+				Thread.sleep(Math.min(remaining, 100));
+			}
+		}
+	}
+
+	/** Starts a worker process. 
+	 * 
+	 * @param partition - the number of the range of branches
+	 * @param attempt - counts from 1
+	 * @param command - the command which runs the worker
+	 * @param workerLog - receives the output of the worker
+	 * @return The process of the worker.
+	 * @throws IOException
+	 */
+	protected Process startWorker(final int partition, final int attempt, final List<String> command, final File workerLog) throws IOException {
+		final ProcessBuilder builder = new ProcessBuilder(command);
+		builder.redirectErrorStream(true);
+		builder.redirectOutput(ProcessBuilder.Redirect.appendTo(workerLog));
+		return builder.start();
+	}
+
+	/** The worker: mines some branches of a context whose index was saved 
+	 * by the coordinator.
+	 * 
+	 * @param args - index file, first and last user of the branches, 
+	 * minimal supports of U, T, and R, number of threads, result file
+	 * @throws IOException
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (args.length != 8) {
+			System.err.println("usage: " + PartitionedTrias.class.getName() + " indexFile fromUser toUser minU minT minR threads resultFile");
+			System.exit(2);
+		}
+		final File indexFile = new File(args[0]);
+		final ContextIndex index;
+		final FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ);
+		try {
+			if (channel.size() <= Integer.MAX_VALUE) {
+				index = ContextIndex.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+			} else {
+				// too large for one mapping
+				index = ContextIndex.read(new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile))));
+			}
+		} finally {
+			channel.close();
+		}
+
+		final Trias trias = new Trias();
+		trias.setContextIndex(index);
+		trias.setOuterBranches(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+		trias.setMinSupportPerDimension(new int[]{Integer.parseInt(args[3]), Integer.parseInt(args[4]), Integer.parseInt(args[5])});
+		trias.setNumberOfThreads(Integer.parseInt(args[6]));
+		trias.setTriConceptWriter(new BinaryTriasWriter(new DataOutputStream(new BufferedOutputStream(new FileOutputStream(args[7])))));
+		trias.doWork();
+	}
+
+	/** Sets the number of ranges the branches are split into. More ranges 
+	 * than workers balance the load better, since the sizes of the 
+	 * branches can only be estimated (by the number of triples of their 
+	 * users). Default is 8.
+	 * 
+	 * @param numberOfPartitions
+	 */
+	public void setNumberOfPartitions(final int numberOfPartitions) {
+		this.numberOfPartitions = numberOfPartitions;
+	}
+
+	/** Sets the number of workers which run at the same time. Default is 2.
+	 * 
+	 * @param numberOfWorkers
+	 */
+	public void setNumberOfWorkers(final int numberOfWorkers) {
+		this.numberOfWorkers = numberOfWorkers;
+	}
+
+	/** Sets the number of threads each worker mines its branches with 
+	 * (see {@link Trias#setNumberOfThreads(int)}). Default is 1.
+	 * 
+	 * @param numberOfWorkerThreads
+	 */
+	public void setNumberOfWorkerThreads(final int numberOfWorkerThreads) {
+		this.numberOfWorkerThreads = numberOfWorkerThreads;
+	}
+
+	/** Sets how often a range of branches is started, before mining fails. 
+	 * Default is 3.
+	 * 
+	 * @param maxAttempts
+	 */
+	public void setMaxAttempts(final int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+	}
+
+	/** Sets the time in milliseconds a worker may run. A worker which 
+	 * takes longer is considered hung: it is stopped and its range is 
+	 * started again (as long as attempts are left). 0 waits without limit. 
+	 * Default is one day.
+	 * 
+	 * @param workerTimeout
+	 */
+	public void setWorkerTimeout(final long workerTimeout) {
+		this.workerTimeout = workerTimeout;
+	}
+
+	/** Sets options for the worker JVMs, e.g., <code>-Xmx8g</code>.
+	 * 
+	 * @param workerJvmOptions
+	 */
+	public void setWorkerJvmOptions(final List<String> workerJvmOptions) {
+		this.workerJvmOptions = workerJvmOptions;
+	}
+
+	/** Sets the java executable for the workers. Default is the one of 
+	 * this JVM.
+	 * 
+	 * @param javaCommand
+	 */
+	public void setJavaCommand(final String javaCommand) {
+		this.javaCommand = javaCommand;
+	}
+
+	/** Sets the class path of the workers. Default is the one of this JVM.
+	 * 
+	 * @param classPath
+	 */
+	public void setClassPath(final String classPath) {
+		this.classPath = classPath;
+	}
+
+	/**
+	 * @return The directory with the index, the results and the logs of the workers.
+	 */
+	public File getWorkDirectory() {
+		return workDirectory;
+	}
+
+	/**
+	 * @return The number of workers of the last run which failed (and were started again).
+	 */
+	public int getNumberOfFailedAttempts() {
+		return numberOfFailedAttempts.get();
+	}
+
+}
@@ -0,0 +1,107 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+
+/**
+ * Caches the derivations of the prefixes of the current set of a NEXT 
+ * CLOSURE loop. NEXT CLOSURE derives A+i = (A &cap; {1, ..., i-1}) &cup; {i}, 
+ * i.e., a prefix of A plus one object. With the derivation of the prefix at 
+ * hand, (A+i)' is computed by intersecting it with {i}' only, instead of 
+ * intersecting the derivations of all objects of A+i.
+ * 
+ * The derivation of the prefix of length k is computed (lazily) from that 
+ * of length k-1. When the loop accepts the closure of A+i as its new set, 
+ * the prefixes up to A+i stay the same, and the derivation of A+i just 
+ * computed becomes the derivation of the prefix of length |A+i|.
+ * 
+ * The arrays grow on demand and are reused by {@link #reset(Derivation, Scratch)}.
+ * 
+ */
+final class PrefixDerivations {
+
+	private static final int[] EMPTY_SET = new int[]{0};
+
+	private Derivation derivation;
+	private int[][] levels = new int[16][]; // levels[k] = derivation of the first k objects of the set
+	private int valid;                      // levels[0] ... levels[valid - 1] are valid
+
+	/**
+	 * Starts with a new derivation and an empty set.
+	 * 
+	 * @param derivation
+	 * @param scratch
+	 */
+	void reset(final Derivation derivation, final Scratch scratch) {
+		this.derivation = derivation;
+		derivation.primeOfObjects(EMPTY_SET, level(0, derivation.numberOfAttributes() + 1), scratch);
+		this.valid = 1;
+	}
+
+	/**
+	 * Computes the derivation of the first k objects of set plus the given 
+	 * object.
+	 * 
+	 * @param set - the current set of the loop
+	 * @param k - length of the prefix of set
+	 * @param object
+	 * @param result - must have room for {@link Derivation#numberOfAttributes()} + 1 elements
+	 * @return result
+	 */
+	int[] primeOfPrefixPlus(final int[] set, final int k, final int object, final int[] result) {
+		while (valid <= k) {
+			final int[] previous = levels[valid - 1];
+			derivation.intersectPrimeOfObject(previous, set[valid], level(valid, previous[0] + 1));
+			valid++;
+		}
+		return derivation.intersectPrimeOfObject(levels[k], object, result);
+	}
+
+	/**
+	 * Tells that the loop continues with a new set, which begins with the 
+	 * first k objects of the old set followed by the object given to 
+	 * {@link #primeOfPrefixPlus(int[], int, int, int[])}.
+	 * 
+	 * @param k
+	 * @param prime - the result of {@link #primeOfPrefixPlus(int[], int, int, int[])}
+	 */
+	void accept(final int k, final int[] prime) {
+		System.arraycopy(prime, 0, level(k + 1, prime[0] + 1), 0, prime[0] + 1);
+		valid = k + 2;
+	}
+
+	private int[] level(final int k, final int length) {
+		if (k >= levels.length) {
+			final int[][] larger = new int[2 * k][];
+			System.arraycopy(levels, 0, larger, 0, levels.length);
+			levels = larger;
+		}
+		if (levels[k] == null || levels[k].length < length) {
+			levels[k] = new int[Math.max(length, levels[k] == null ? 0 : 2 * levels[k].length)];
+		}
+		return levels[k];
+	}
+
+}
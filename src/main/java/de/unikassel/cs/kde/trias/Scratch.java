@@ -0,0 +1,156 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+
+/**
+ * Temporary arrays of one thread, which are reused by the hot paths of 
+ * Trias (derivation, checking the triadic condition, writing concepts) 
+ * instead of allocating fresh arrays for each step. The arrays grow on 
+ * demand, thus after a short warm-up no further arrays are allocated. 
+ * 
+ * Each array belongs to exactly one purpose, such that callers never 
+ * overwrite each others buffers. A scratch space must only be used by the 
+ * thread which owns it.
+ * 
+ */
+final class Scratch {
+
+	/*
+	 * output arrays up to this length are pooled; longer ones are allocated
+	 */
+	static final int MAX_POOLED_LENGTH = 1 << 12;
+
+	private long[] sizeKeys;   // orderBySize()
+	private int[] sizeOrder;   // orderBySize()
+	private int[] primeResult; // allocating derivations
+	private int[] bxc;         // checkCondition(): B x C
+	private int[] bxcPrime;    // checkCondition(): (B x C)'
+	private int[] distinct;    // innerNextClosure(): items of the projection
+	private final PrefixDerivations prefixes = new PrefixDerivations(); // innerNextClosure()
+
+	/*
+	 * for each dimension a rank (new id) per item, all zero between uses
+	 */
+	private final int[][] rank;
+
+	/*
+	 * output arrays for the writer, by dimension and exact length
+	 */
+	private final int[][][] output;
+	private final int[][] concept;
+
+	/**
+	 * @param initialLength - initial length of the buffers (e.g., the largest number of items of a dimension)
+	 * @param numberOfDimensions
+	 */
+	Scratch(final int initialLength, final int numberOfDimensions) {
+		final int length = Math.max(initialLength, 1) + 1;
+		this.sizeKeys = new long[length];
+		this.sizeOrder = new int[length];
+		this.primeResult = new int[length];
+		this.bxc = new int[length];
+		this.bxcPrime = new int[length];
+		this.distinct = new int[length];
+		this.rank = new int[numberOfDimensions][length];
+		this.output = new int[numberOfDimensions][MAX_POOLED_LENGTH + 1][];
+		this.concept = new int[numberOfDimensions][];
+	}
+
+	long[] sizeKeys(final int length) {
+		if (sizeKeys.length < length) sizeKeys = new long[grow(sizeKeys.length, length)];
+		return sizeKeys;
+	}
+
+	int[] sizeOrder(final int length) {
+		if (sizeOrder.length < length) sizeOrder = new int[grow(sizeOrder.length, length)];
+		return sizeOrder;
+	}
+
+	int[] primeResult(final int length) {
+		if (primeResult.length < length) primeResult = new int[grow(primeResult.length, length)];
+		return primeResult;
+	}
+
+	int[] bxc(final int length) {
+		if (bxc.length < length) bxc = new int[grow(bxc.length, length)];
+		return bxc;
+	}
+
+	int[] bxcPrime(final int length) {
+		if (bxcPrime.length < length) bxcPrime = new int[grow(bxcPrime.length, length)];
+		return bxcPrime;
+	}
+
+	int[] distinct(final int length) {
+		if (distinct.length < length) distinct = new int[grow(distinct.length, length)];
+		return distinct;
+	}
+
+	/**
+	 * @return The prefix derivations for the inner next closure.
+	 */
+	PrefixDerivations prefixes() {
+		return prefixes;
+	}
+
+	/**
+	 * @param dimension
+	 * @param length
+	 * @return An array to map the items of the given dimension to new ids; 
+	 * callers must reset all entries they set to zero.
+	 */
+	int[] rank(final int dimension, final int length) {
+		if (rank[dimension].length < length) rank[dimension] = new int[grow(rank[dimension].length, length)];
+		return rank[dimension];
+	}
+
+	/**
+	 * @param dimension
+	 * @param length
+	 * @return An array of exactly the given length for the given dimension 
+	 * of a concept; only valid until the next call with the same arguments.
+	 */
+	int[] output(final int dimension, final int length) {
+		if (length > MAX_POOLED_LENGTH) return new int[length];
+		int[] array = output[dimension][length];
+		if (array == null) {
+			array = new int[length];
+			output[dimension][length] = array;
+		}
+		return array;
+	}
+
+	/**
+	 * @return The array which holds the sets of a concept for the writer.
+	 */
+	int[][] concept() {
+		return concept;
+	}
+
+	private static int grow(final int length, final int minLength) {
+		return (int) Math.min(Integer.MAX_VALUE - 8, Math.max((long) minLength, 2L * length));
+	}
+}
@@ -0,0 +1,224 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+
+/**
+ * Intersection of two sorted sets of triple positions, as needed by the 
+ * derivation operators of Trias. 
+ * 
+ * The first set A is given as in {@link Trias}, i.e., as an array whose 
+ * first element contains its size, the second set B as a range 
+ * order[startB] ... order[endB] of an order table. Both are sorted 
+ * according to the given comparator. The intersection is written back 
+ * into A and contains the positions from B.
+ * 
+ * Depending on the ratio of the sizes of A and B, {@link #intersect(int[], int[][], int[], int, int, TriasComparator)} 
+ * uses 
+ * <ul>
+ * <li>a linear merge for sets of similar size,</li>
+ * <li>a merge which skips blocks of the larger set for moderately 
+ *     different sizes, and</li>
+ * <li>galloping (exponential and then binary search) in the larger set 
+ *     for very different sizes.</li>
+ * </ul>
+ * The thresholds were determined with SetIntersectionBenchmark (in the 
+ * test sources).
+ * 
+ */
+final class SetIntersection {
+
+	/**
+	 * Larger set at least this many times larger than the smaller set: skip 
+	 * blocks of the larger set.
+	 */
+	static final int BLOCK_RATIO = 4;
+	/**
+	 * Larger set at least this many times larger than the smaller set: 
+	 * gallop through the larger set.
+	 */
+	static final int GALLOP_RATIO = 256;
+
+	/*
+	 * number of elements skipped at once by the block merge
+	 */
+	private static final int BLOCK_SIZE = 8;
+
+	private SetIntersection() {
+		// static methods only
+	}
+
+	/**
+	 * Intersects A and B with the method which fits the sizes of A and B 
+	 * best.
+	 * 
+	 * @param result - the set A, receives A &cap; B
+	 * @param values - the columns of the list of triples
+	 * @param order - contains the set B
+	 * @param startB - first position of B in order
+	 * @param endB - last position of B in order
+	 * @param comparator - the order of A and B
+	 */
+	static void intersect(final int[] result, final int[][] values, final int[] order, final int startB, final int endB, final TriasComparator comparator) {
+		final long sizeA = result[0];
+		final long sizeB = endB - startB + 1;
+		if (sizeB >= GALLOP_RATIO * sizeA) {
+			gallopB(result, values, order, startB, endB, comparator);
+		} else if (sizeA >= GALLOP_RATIO * sizeB) {
+			gallopA(result, values, order, startB, endB, comparator);
+		} else if (sizeB >= BLOCK_RATIO * sizeA) {
+			blockMerge(result, values, order, startB, endB, comparator);
+		} else {
+			merge(result, values, order, startB, endB, comparator);
+		}
+	}
+
+	/**
+	 * Linear merge of A and B.
+	 * 
+	 * @see #intersect(int[], int[][], int[], int, int, TriasComparator)
+	 */
+	static void merge(final int[] result, final int[][] values, final int[] order, final int startB, final int endB, final TriasComparator comparator) {
+		final int iMax = result[0]; // end of A
+		int i = 1;                  // start of A
+		int j = startB;             // start of B
+		int k = 0;                  // size of the intersection
+		while (i <= iMax && j <= endB) { // iterate until the end of one set is reached
+			final int comp = comparator.compare(values, result[i], order[j]);
+			if (comp < 0) {
+				i++;
+			} else if (comp > 0) {
+				j++;
+			} else {
+				// equal --> remember position from B (k < i, thus A is not overwritten too early)
+				result[++k] = order[j];
+				i++;
+				j++;
+			}
+		}
+		result[0] = k;
+	}
+
+	/**
+	 * Merge of A and B which skips whole blocks of B as long as their last 
+	 * element is smaller than the current element of A. 
+	 * 
+	 * @see #intersect(int[], int[][], int[], int, int, TriasComparator)
+	 */
+	static void blockMerge(final int[] result, final int[][] values, final int[] order, final int startB, final int endB, final TriasComparator comparator) {
+		final int iMax = result[0];
+		int j = startB;
+		int k = 0;
+		for (int i = 1; i <= iMax; i++) {
+			final int a = result[i];
+			// skip blocks
+			while (j + BLOCK_SIZE - 1 <= endB && comparator.compare(values, a, order[j + BLOCK_SIZE - 1]) > 0) {
+				j += BLOCK_SIZE;
+			}
+			// then elements
+			while (j <= endB && comparator.compare(values, a, order[j]) > 0) {
+				j++;
+			}
+			if (j > endB) break;
+			if (comparator.compare(values, a, order[j]) == 0) {
+				result[++k] = order[j];
+				j++;
+			}
+		}
+		result[0] = k;
+	}
+
+	/**
+	 * Searches each element of A in B by galloping, i.e., by doubling the 
+	 * step width until an element which is not smaller has been passed and 
+	 * then searching binary in the last step. Fast, if B is much larger 
+	 * than A. 
+	 * 
+	 * @see #intersect(int[], int[][], int[], int, int, TriasComparator)
+	 */
+	static void gallopB(final int[] result, final int[][] values, final int[] order, final int startB, final int endB, final TriasComparator comparator) {
+		final int iMax = result[0];
+		int j = startB;
+		int k = 0;
+		for (int i = 1; i <= iMax && j <= endB; i++) {
+			final int a = result[i];
+			j = gallop(values, a, order, j, endB, comparator);
+			if (j <= endB && comparator.compare(values, a, order[j]) == 0) {
+				result[++k] = order[j];
+				j++;
+			}
+		}
+		result[0] = k;
+	}
+
+	/**
+	 * Searches each element of B in A by galloping. Fast, if A is much 
+	 * larger than B.
+	 * 
+	 * @see #gallopB(int[], int[][], int[], int, int, TriasComparator)
+	 */
+	static void gallopA(final int[] result, final int[][] values, final int[] order, final int startB, final int endB, final TriasComparator comparator) {
+		final int iMax = result[0];
+		int i = 1;
+		int k = 0;
+		for (int j = startB; j <= endB && i <= iMax; j++) {
+			final int b = order[j];
+			i = gallop(values, b, result, i, iMax, comparator);
+			if (i <= iMax && comparator.compare(values, b, result[i]) == 0) {
+				// k < i, thus A is not overwritten too early
+				result[++k] = b;
+				i++;
+			}
+		}
+		result[0] = k;
+	}
+
+	/**
+	 * @return The first position p in from ... to with set[p] not smaller 
+	 * than x, or to + 1, if there is no such position.
+	 */
+	private static int gallop(final int[][] values, final int x, final int[] set, final int from, final int to, final TriasComparator comparator) {
+		if (comparator.compare(values, x, set[from]) <= 0) return from;
+		// set[lo] < x 
+		int lo = from;
+		int step = 1;
+		while (lo + step <= to && comparator.compare(values, x, set[lo + step]) > 0) {
+			lo += step;
+			step <<= 1;
+		}
+		int hi = Math.min(lo + step, to + 1);
+		// set[lo] < x <= set[hi] (with set[to + 1] = infinity)
+		while (hi - lo > 1) {
+			final int mid = (lo + hi) >>> 1;
+			if (comparator.compare(values, x, set[mid]) > 0) {
+				lo = mid;
+			} else {
+				hi = mid;
+			}
+		}
+		return hi;
+	}
+
+}
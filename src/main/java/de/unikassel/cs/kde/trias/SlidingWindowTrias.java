@@ -0,0 +1,216 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import de.unikassel.cs.kde.trias.io.TriasWriter;
+import de.unikassel.cs.kde.trias.model.ContextIndex;
+import de.unikassel.cs.kde.trias.model.TripleStore;
+import de.unikassel.cs.kde.trias.util.Dimension;
+
+/**
+ * Maintains the frequent tri-concepts of the triples of a sliding time 
+ * window, e.g., of the tag assignments of the last 30 days. Each call of 
+ * {@link #advance(long, TripleStore, long[], Iterable, TriasWriter, TriasWriter)} 
+ * moves the end of the window, adds the triples which entered it and removes 
+ * the triples which expired. The index of the context (see {@link ContextIndex}) 
+ * is updated by merging instead of sorting it again, and only the 
+ * tri-concepts which are affected by the changed triples are mined again 
+ * (see {@link IncrementalTrias}).
+ * <p>
+ * A triple stays in the window as long as its latest time stamp does. 
+ * Time stamps can be given in any unit (e.g., milliseconds or days), as 
+ * long as the window length has the same one. 
+ * 
+ */
+public class SlidingWindowTrias {
+
+	private final static int U = Dimension.U.intValue();
+	private final static int T = Dimension.T.intValue();
+	private final static int R = Dimension.R.intValue();
+
+	private final long windowLength;
+	private final IncrementalTrias incrementalTrias;
+
+	/*
+	 * the latest time stamp of each triple of the index and the end of the window
+	 */
+	private long[] timestamps;
+	private long end;
+
+	/** Starts with an empty window.
+	 * 
+	 * @param windowLength - the window contains the triples with a time stamp in (end - windowLength, end]
+	 * @param minSupportPerDimension - the minimal supports of the tri-concepts, at least 1
+	 */
+	public SlidingWindowTrias(final long windowLength, final int[] minSupportPerDimension) {
+		this(windowLength, minSupportPerDimension, new ContextIndex(new TripleStore(), new int[Dimension.noOfDimensions]), new long[0], Long.MIN_VALUE);
+	}
+
+	/** Continues with a window of a previous run (see {@link #getContextIndex()}, 
+	 * {@link #getTimestamps()} and {@link #getEnd()}).
+	 * 
+	 * @param windowLength - the window contains the triples with a time stamp in (end - windowLength, end]
+	 * @param minSupportPerDimension - the minimal supports of the tri-concepts, at least 1
+	 * @param index - the index of the triples in the window
+	 * @param timestamps - the latest time stamp of each triple of the index
+	 * @param end - the end of the window
+	 */
+	public SlidingWindowTrias(final long windowLength, final int[] minSupportPerDimension, final ContextIndex index, final long[] timestamps, final long end) {
+		super();
+		if (windowLength <= 0) {
+			throw new IllegalArgumentException("the window length must be positive");
+		}
+		if (timestamps.length != index.getTripleStore().size()) {
+			throw new IllegalArgumentException("got " + timestamps.length + " time stamps for " + index.getTripleStore().size() + " triples");
+		}
+		this.windowLength = windowLength;
+		this.incrementalTrias = new IncrementalTrias(index, minSupportPerDimension);
+		this.timestamps = timestamps;
+		this.end = end;
+	}
+
+	/** Moves the end of the window and writes the changes of the tri-concepts. 
+	 * Triples with a time stamp outside of the new window are ignored. Both 
+	 * writers are closed afterwards.
+	 * 
+	 * @param newEnd - the new end of the window, not before the current one
+	 * @param triples - the triples since the last call
+	 * @param tripleTimestamps - the time stamp of each triple
+	 * @param previousConcepts - the tri-concepts of the current window
+	 * @param addedConcepts - receives the tri-concepts which are new
+	 * @param removedConcepts - receives the tri-concepts of the current window which no longer are tri-concepts
+	 * @throws IOException
+	 */
+	public void advance(final long newEnd, final TripleStore triples, final long[] tripleTimestamps, final Iterable<int[][]> previousConcepts, final TriasWriter addedConcepts, final TriasWriter removedConcepts) throws IOException {
+		if (newEnd < end) {
+			throw new IllegalArgumentException("the window can't move backwards (from " + end + " to " + newEnd + ")");
+		}
+		if (tripleTimestamps.length != triples.size()) {
+			throw new IllegalArgumentException("got " + tripleTimestamps.length + " time stamps for " + triples.size() + " triples");
+		}
+		final long start = newEnd - windowLength; // exclusive
+		final ContextIndex index = incrementalTrias.getContextIndex();
+
+		/*
+		 * the triples in the window; for duplicates the latest time stamp counts
+		 */
+		final TripleStore inWindow = new TripleStore();
+		final long[] inWindowTimestamps = new long[triples.size()];
+		final int[][] columns = triples.getColumns();
+		final int[] numberOfItemsPerDimension = index.getNumberOfItemsPerDimension().clone();
+		for (int triple = 0; triple < triples.size(); triple++) {
+			if (tripleTimestamps[triple] <= start || tripleTimestamps[triple] > newEnd) continue;
+			inWindowTimestamps[inWindow.size()] = tripleTimestamps[triple];
+			inWindow.add(columns[U][triple], columns[T][triple], columns[R][triple]);
+			for (int dim = 0; dim < numberOfItemsPerDimension.length; dim++) {
+				numberOfItemsPerDimension[dim] = Math.max(numberOfItemsPerDimension[dim], columns[dim][triple]);
+			}
+		}
+		/*
+		 * refresh the time stamps of the triples which are in the window, 
+		 * collect the others sorted by (U, T, R), as IncrementalTrias 
+		 * appends them to the index
+		 */
+		final int[][] inWindowColumns = inWindow.getColumns();
+		final int[] order = new ContextIndex(inWindow, numberOfItemsPerDimension).getUOrder();
+		final TripleStore newTriples = new TripleStore(order.length);
+		final long[] newTimestamps = new long[order.length];
+		for (int p = 0; p < order.length; p++) {
+			final int triple = order[p];
+			final int u = inWindowColumns[U][triple];
+			final int t = inWindowColumns[T][triple];
+			final int r = inWindowColumns[R][triple];
+			final long timestamp = inWindowTimestamps[triple];
+			final int last = newTriples.size() - 1;
+			if (last >= 0 && newTriples.get(last, U) == u && newTriples.get(last, T) == t && newTriples.get(last, R) == r) {
+				newTimestamps[last] = Math.max(newTimestamps[last], timestamp);
+				continue;
+			}
+			final int position = index.find(u, t, r);
+			if (position >= 0) {
+				timestamps[position] = Math.max(timestamps[position], timestamp);
+			} else {
+				newTimestamps[newTriples.size()] = timestamp;
+				newTriples.add(u, t, r);
+			}
+		}
+		/*
+		 * expire the triples which left the window
+		 */
+		final boolean[] expired = new boolean[timestamps.length];
+		int kept = 0;
+		for (int triple = 0; triple < timestamps.length; triple++) {
+			expired[triple] = timestamps[triple] <= start;
+			if (!expired[triple]) kept++;
+		}
+
+		incrementalTrias.update(expired, newTriples, previousConcepts, addedConcepts, removedConcepts);
+
+		/*
+		 * the kept triples keep their order, the new ones follow
+		 */
+		final long[] updatedTimestamps = new long[kept + newTriples.size()];
+		kept = 0;
+		for (int triple = 0; triple < timestamps.length; triple++) {
+			if (!expired[triple]) updatedTimestamps[kept++] = timestamps[triple];
+		}
+		System.arraycopy(newTimestamps, 0, updatedTimestamps, kept, newTriples.size());
+		timestamps = updatedTimestamps;
+		end = newEnd;
+	}
+
+	/**
+	 * @return The index of the triples in the window.
+	 */
+	public ContextIndex getContextIndex() {
+		return incrementalTrias.getContextIndex();
+	}
+
+	/**
+	 * @return The latest time stamp of each triple of {@link #getContextIndex()}.
+	 */
+	public long[] getTimestamps() {
+		return Arrays.copyOf(timestamps, timestamps.length);
+	}
+
+	/**
+	 * @return The end of the window.
+	 */
+	public long getEnd() {
+		return end;
+	}
+
+	/**
+	 * @return The maintenance of the tri-concepts, e.g., to get the 
+	 * statistics of the last step.
+	 */
+	public IncrementalTrias getIncrementalTrias() {
+		return incrementalTrias;
+	}
+
+}
@@ -24,21 +24,35 @@
 
 package de.unikassel.cs.kde.trias;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 
+import de.unikassel.cs.kde.trias.io.CheckpointTriasWriter;
+import de.unikassel.cs.kde.trias.io.PermutingTriasWriter;
+import de.unikassel.cs.kde.trias.io.SynchronizedTriasWriter;
 import de.unikassel.cs.kde.trias.io.TriasWriter;
+import de.unikassel.cs.kde.trias.model.ContextIndex;
+import de.unikassel.cs.kde.trias.model.SupportReduction;
+import de.unikassel.cs.kde.trias.model.TripleStore;
 import de.unikassel.cs.kde.trias.progress.DummyProgressLogger;
 import de.unikassel.cs.kde.trias.progress.ProgressLogger;
 import de.unikassel.cs.kde.trias.progress.ProgressStep;
+import de.unikassel.cs.kde.trias.util.ClosureEngine;
+import de.unikassel.cs.kde.trias.util.DerivationEngine;
 import de.unikassel.cs.kde.trias.util.Dimension;
+import de.unikassel.cs.kde.trias.util.IntArrays;
 import de.unikassel.cs.kde.trias.util.TriasConfigurator;
+import de.unikassel.cs.kde.trias.util.TupleIndex;
 
 /**
  * @author rja
@@ -67,22 +81,126 @@ public class Trias {
 
 	private ProgressLogger pl = new DummyProgressLogger();
 
+	/*
+	 * number of threads used for the outer loop; 1 runs the sequential next closure
+	 */
+	private int numberOfThreads = 1;
+
+	/*
+	 * how the derivation operators are computed
+	 */
+	private DerivationEngine derivationEngine = DerivationEngine.LIST;
+
+	/*
+	 * how the closed sets are enumerated
+	 */
+	private ClosureEngine closureEngine = ClosureEngine.NEXT_CLOSURE;
+
+	/*
+	 * if true, the dimensions are assigned to the outer and inner loop by the DimensionPlanner
+	 */
+	private boolean dimensionPlanning = false;
+
+	/*
+	 * if true, items which can not be part of a frequent tri-concept are removed before mining
+	 */
+	private boolean supportReduction = true;
+
+	/*
+	 * projected relations with at most this many (t,r) pairs and at least 
+	 * this density are mined with the BitMatrixMiner
+	 */
+	private int bitMatrixMaxPairs = 4096;
+	private double bitMatrixMinDensity = 0.05;
+
+	/*
+	 * number of threads for the inner loop (used with the sequential outer loop); 
+	 * 1 runs the inner next closure synchronously
+	 */
+	private int numberOfInnerThreads = 1;
+	private int innerQueueDepth = -1;    // number of waiting inner jobs; -1 = 4 * numberOfInnerThreads
+	private boolean orderedOutput = true; // write concepts in the same order as the sequential algorithm
+
 	/*
 	 * the triples Trias is working on
 	 */
-	private int[][] itemList; // the triples of the context (i.e. Y)
+	private TripleStore tripleStore; // the triples of the context (i.e. Y)
+	private int[][] columns;         // the columns of the distinct triples of tripleStore: columns[dimension][triple]
+	private int[][] originalIds;     // for each dimension and id of tripleStore the id to write, if the items were re-numbered (otherwise null)
+
+	/*
+	 * the index of tripleStore, if it was built outside (see setContextIndex())
+	 */
+	private ContextIndex contextIndex = null;
+
+	/*
+	 * only the branches of the outer Close-by-One tree below these users 
+	 * are mined (see setOuterBranches())
+	 */
+	private int outerBranchesFrom = 1;
+	private int outerBranchesTo = Integer.MAX_VALUE;
+
+	/*
+	 * the state of the outer next closure is saved to this file every 
+	 * checkpointInterval milliseconds (see setCheckpointFile())
+	 */
+	private File checkpointFile = null;
+	private long checkpointInterval = 10 * 60 * 1000;
+	private CheckpointTriasWriter checkpointWriter; // the writer given by setTriConceptWriter()
 
 	/*
 	 * data variables
 	 */
-	private Integer[] uOrder;
+	private int[] uOrder;
 	private int[] uOffsets;
 	private int[] uRemember;
 
-	private Integer[] trOrder;
+	private int[] trOrder;
 	private int[] trOffsets;
 	private int[] trRemember;
 
+	private Derivation outerDerivation; // derivation operators of (U, TxR, \tilde{Y})
+
+	/*
+	 * temporary arrays of each thread
+	 */
+	private final ThreadLocal<Scratch> scratch = new ThreadLocal<Scratch>() {
+		@Override
+		protected Scratch initialValue() {
+			int max = 0;
+			for (final int numberOfItems: numberOfItemsPerDimension) {
+				max = Math.max(max, numberOfItems);
+			}
+			return new Scratch(max, Dimension.noOfDimensions);
+		}
+	};
+
+	/*
+	 * counts the bytes allocated by the inner next closure loop (see setAllocationCheck())
+	 */
+	private AllocationCounter innerLoopAllocation = null;
+
+	/*
+	 * inner concepts of the projected relations (see setInnerConceptCacheSize())
+	 */
+	private long innerConceptCacheSize = 0;
+	private InnerConceptCache innerConceptCache = null;
+
+	/*
+	 * number of candidates which were skipped, because their support is too small
+	 */
+	private final AtomicLong prunedOuterCandidates = new AtomicLong();
+	private final AtomicLong prunedInnerCandidates = new AtomicLong();
+
+	/*
+	 * if true, the inner loop enumerates resources instead of tags, when 
+	 * the projected relation has fewer resources than tags; the counters 
+	 * tell how often each was enumerated
+	 */
+	private boolean innerTransposition = true;
+	private final AtomicLong innerLoopsOverTags = new AtomicLong();
+	private final AtomicLong innerLoopsOverResources = new AtomicLong();
+
 	/*
 	 * comparators
 	 */
@@ -91,6 +209,14 @@ public class Trias {
 	private final TriasComparator rComparator  = new OneDimensionComparator(Dimension.R);   // compares R
 	private final TriasComparator trComparator = new TwoDimensionComparator(Dimension.T,Dimension.R); // compares TxR
 
+	/*
+	 * the miners for the inner loop (see InnerMiner)
+	 */
+	private final InnerMiner nextClosureInnerMiner    = new NextClosureInnerMiner();
+	private final InnerMiner fastCloseByOneInnerMiner = new FastCloseByOneInnerMiner();
+	private final InnerMiner lcmInnerMiner            = new LcmInnerMiner();
+	private final InnerMiner bitMatrixInnerMiner      = new BitMatrixInnerMiner();
+
 
 	public Trias() {
 		super();
@@ -113,35 +239,211 @@ public class Trias {
 	 * 
 	 * with
 	 *   x ... data
+	 * 
+	 * The tri-concept writer is closed at the end, also if mining fails.
 	 */
 	public void doWork() throws IOException {
-		/* ************************************************************************
-		 * Initialize permutations
-		 * Those permutations are used to access utrListe in sorted order.
-		 */
-		initializePermutations();
+		try {
+			reduceAndMine();
+		} catch (final Throwable e) {
+			/*
+			 * close the writer anyway, such that, e.g., the thread of an 
+			 * AsyncTriasWriter ends
+			 */
+			try {
+				triConceptWriter.close();
+			} catch (final Throwable closeFailure) {
+				e.addSuppressed(closeFailure);
+			}
+			throw e;
+		}
+	}
 
-		/* ************************************************************************
-		 * sort by U and TxR
-		 */
-		sortByUandTxR();
+	/*
+	 * reduces and permutes the context, if requested, and mines it
+	 */
+	private void reduceAndMine() throws IOException {
+		checkpointWriter = checkpointFile != null ? getCheckpointWriter() : null;
+		if (!(supportReduction || dimensionPlanning) || !excludesEmptySets() || hasOuterBranches()) {
+			mine();
+			return;
+		}
+		final TripleStore originalTripleStore = tripleStore;
+		final int[] originalNumberOfItemsPerDimension = numberOfItemsPerDimension;
+		final int[] originalMinSupportPerDimension = minSupportPerDimension;
+		final TriasWriter originalWriter = triConceptWriter;
+		try {
+			if (supportReduction) {
+				/*
+				 * remove the items which can not be part of a frequent 
+				 * tri-concept and map the ids of the concepts back (in 
+				 * writeTriples(), into the reused output arrays)
+				 */
+				final SupportReduction reduction = new SupportReduction(tripleStore, numberOfItemsPerDimension, minSupportPerDimension);
+				log.info("support reduction removed " + reduction.getNumberOfRemovedTriples() + " of " + tripleStore.size() + " triples");
+				if (reduction.getTripleStore().size() == 0) {
+					if (checkpointWriter != null) checkpointWriter.resume(0);
+					triConceptWriter.close();
+					return;
+				}
+				if (reduction.getNumberOfRemovedTriples() > 0) {
+					tripleStore = reduction.getTripleStore();
+					numberOfItemsPerDimension = reduction.getNumberOfItemsPerDimension();
+					originalIds = reduction.getOriginalIds();
+				}
+			}
+			if (dimensionPlanning) {
+				final DimensionPlanner planner = new DimensionPlanner(tripleStore, numberOfItemsPerDimension, minSupportPerDimension);
+				log.info("estimated costs of the dimension permutations:\n" + planner.getReport());
+				final int[] permutation = planner.getBestPlan().getPermutation();
+				if (!planner.getBestPlan().isIdentity()) {
+					/*
+					 * mine the permuted context and permute the concepts back
+					 */
+					tripleStore = new TripleStore(tripleStore.getColumn(permutation[U]), tripleStore.getColumn(permutation[T]), tripleStore.getColumn(permutation[R]));
+					numberOfItemsPerDimension = permute(numberOfItemsPerDimension, permutation);
+					minSupportPerDimension = permute(minSupportPerDimension, permutation);
+					if (originalIds != null) originalIds = permute(originalIds, permutation);
+					triConceptWriter = new PermutingTriasWriter(triConceptWriter, permutation);
+				}
+			}
+			mine();
+		} finally {
+			tripleStore = originalTripleStore;
+			numberOfItemsPerDimension = originalNumberOfItemsPerDimension;
+			minSupportPerDimension = originalMinSupportPerDimension;
+			triConceptWriter = originalWriter;
+			originalIds = null;
+		}
+	}
+
+	/*
+	 * Tri-concepts with an empty set are not symmetric in Trias: their empty 
+	 * set is completed by the items of the projected relation of the outer 
+	 * concept only. Also, they may contain items which are not frequent. 
+	 * Thus the context may only be reduced or its dimensions permuted, if 
+	 * such concepts are excluded by the minimal supports.
+	 */
+	private boolean excludesEmptySets() {
+		for (final int minSupport: minSupportPerDimension) {
+			if (minSupport < 1) {
+				log.debug("no support reduction or dimension planning, since tri-concepts with empty sets depend on the whole context");
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Only the sequential outer next closure has a single position which 
+	 * can be saved, and only the writer given by the user knows its offset 
+	 * (the others just pass the concepts on).
+	 */
+	private CheckpointTriasWriter getCheckpointWriter() {
+		if (numberOfThreads > 1 || numberOfInnerThreads > 1 || closureEngine == ClosureEngine.FCBO || hasOuterBranches()) {
+			throw new IllegalStateException("checkpoints are only supported by the sequential outer next closure with one inner thread");
+		}
+		if (!(triConceptWriter instanceof CheckpointTriasWriter)) {
+			throw new IllegalStateException("checkpoints need a " + CheckpointTriasWriter.class.getSimpleName() + " to resume the output");
+		}
+		return (CheckpointTriasWriter) triConceptWriter;
+	}
+
+	/*
+	 * The ids of the users of the branches must not change, thus a context 
+	 * which is partitioned by its branches is neither reduced nor permuted.
+	 */
+	private boolean hasOuterBranches() {
+		return outerBranchesFrom > 1 || outerBranchesTo < Integer.MAX_VALUE;
+	}
+
+	/*
+	 * returns for each role the value of the dimension which plays it
+	 */
+	private static int[] permute(final int[] values, final int[] permutation) {
+		final int[] permuted = new int[permutation.length];
+		for (int k = 0; k < permutation.length; k++) {
+			permuted[k] = values[permutation[k]];
+		}
+		return permuted;
+	}
 
+	private static int[][] permute(final int[][] values, final int[] permutation) {
+		final int[][] permuted = new int[permutation.length][];
+		for (int k = 0; k < permutation.length; k++) {
+			permuted[k] = values[permutation[k]];
+		}
+		return permuted;
+	}
+
+	private void mine() throws IOException {
+		if (innerLoopAllocation != null) innerLoopAllocation.reset();
+		innerConceptCache = innerConceptCacheSize > 0 ? new InnerConceptCache(innerConceptCacheSize) : null;
+		prunedOuterCandidates.set(0);
+		prunedInnerCandidates.set(0);
+		innerLoopsOverTags.set(0);
+		innerLoopsOverResources.set(0);
 		/* ************************************************************************
-		 * build appropriate offset tables
+		 * sort by U and TxR and build appropriate offset tables
+		 * The permutations are used to access utrListe in sorted order.
+		 * Repeated triples are dropped, see ContextIndex.distinct().
 		 */
-		buildOffsetTables();
+		final ContextIndex index = (contextIndex != null && contextIndex.getTripleStore() == tripleStore ? contextIndex : new ContextIndex(tripleStore, numberOfItemsPerDimension, numberOfThreads)).distinct();
+		if (index.getTripleStore() != tripleStore) log.info("mining " + index.getTripleStore().size() + " distinct of " + tripleStore.size() + " triples");
+		columns = index.getTripleStore().getColumns();
+		uOrder     = index.getUOrder();
+		uOffsets   = index.getUOffsets();
+		uRemember  = index.getURemember();
+		trOrder    = index.getTROrder();
+		trOffsets  = index.getTROffsets();
+		trRemember = index.getTRRemember();
+
+		outerDerivation = createDerivation(columns, uOrder, uOffsets, uRemember, trOrder, trOffsets, trRemember, uComparator, trComparator);
 
 		/* ************************************************************************
 		 * run actual computation
 		 */
-		trias();
+		if (numberOfThreads > 1 || hasOuterBranches()) {
+			triasParallel();
+		} else {
+			trias();
+		}
+
+		if (innerConceptCache != null) log.debug("inner concept cache: " + innerConceptCache.getHits() + " hits, " + innerConceptCache.getMisses() + " misses");
+		log.debug("pruned candidates: " + prunedOuterCandidates.get() + " outer, " + prunedInnerCandidates.get() + " inner");
+		log.debug("inner loops: " + innerLoopsOverTags.get() + " over tags, " + innerLoopsOverResources.get() + " over resources");
 
 		triConceptWriter.close();
+		if (checkpointWriter != null && checkpointFile.exists() && !checkpointFile.delete()) {
+			log.warn("could not delete the checkpoint " + checkpointFile + " of the finished run");
+		}
 	}
 
 
 	private void trias() throws IOException {
+		/*
+		 * runs the inner next closure concurrently, if requested
+		 */
+		final InnerClosureExecutor innerExecutor;
+		if (numberOfInnerThreads > 1) {
+			log.debug("running inner next closure on " + numberOfInnerThreads + " threads");
+			innerExecutor = new InnerClosureExecutor(triConceptWriter, numberOfInnerThreads, innerQueueDepth < 0 ? 4 * numberOfInnerThreads : innerQueueDepth, orderedOutput);
+		} else {
+			innerExecutor = null;
+		}
+		try {
+			if (closureEngine == ClosureEngine.FCBO) {
+				outerFastCloseByOne(innerExecutor);
+			} else {
+				outerNextClosure(innerExecutor);
+			}
+			if (innerExecutor != null) innerExecutor.finish();
+		} finally {
+			if (innerExecutor != null) innerExecutor.shutdown();
+		}
+	}
 
+	private void outerNextClosure(final InnerClosureExecutor innerExecutor) throws IOException {
 		/* ************************************************************************
 		 * outer Next Closure
 		 */
@@ -155,34 +457,61 @@ public class Trias {
 		/*
 		 * The outer next closure computes concepts (A,I) in (U, TxR, \tilde{Y}).
 		 * 
-		 * Extent of a triconcept. Both sets are, in general, oversized.
+		 * Extent of a triconcept. The sets are, in general, oversized and 
+		 * reused in each step (extent and closure are swapped when a new 
+		 * hull is found).
 		 */
-		int[] extent      = new int[numberOfItemsPerDimension[U] + 1]; // A
-		int[] outerIntent = new int[numberOfItemsPerDimension[U] + 1]; // I
+		final Scratch scratch = this.scratch.get();
+		int[] extent      = new int[outerDerivation.numberOfObjects() + 1];    // A
+		int[] closure     = new int[outerDerivation.numberOfObjects() + 1];    // (A+i)''
+		int[] outerIntent = new int[outerDerivation.numberOfAttributes() + 1]; // I
 
-		int[] aPlusI; // A + i (stored values are positions in utrListe!)
+		final int[] aPlusI = new int[outerDerivation.numberOfObjects() + 2]; // A + i (stored values are positions in utrListe!)
+		final PrefixDerivations prefixes = new PrefixDerivations();          // derivations of the prefixes of A
+		prefixes.reset(outerDerivation, scratch);
 
 
-		extent[0] = 0;          // we start with the empty set
-		int i = uOrder[uOffsets[numberOfItemsPerDimension[U]]]; // we start with the largest user (pick one triple position of largest user) 
+		int i;
+		/*
+		 * Used to track changes of i. If i did not change, then i = lastI at the 
+		 * beginning of the next loop.
+		 */
+		int lastI;
 		pl.setMax(numberOfItemsPerDimension[U]);
+		pl.logStep(ProgressStep.START);
 
 		/*
-		 *  Compute the hull of the empty set.
+		 * continue from the last checkpoint, if there is one (the prefix 
+		 * derivations of the restored extent are computed lazily)
 		 */
-		log.debug("computing the hull of the empty set");
-		pl.logStep(ProgressStep.START);
-		if (minSupportPerDimension[U] == 0 && trOffsets.length < numberOfItemsPerDimension[T] * numberOfItemsPerDimension[R]) {
-			// special case for tri-concept ({}, T, R)
-			writeTriples(new int[0][0], extent, new int[]{numberOfItemsPerDimension[T]}, new int[]{numberOfItemsPerDimension[R]});
-		}
-		outerIntent = prime(itemList, uOrder, uOffsets, trOrder, trOffsets, uRemember, extent, trComparator);      // {}'
-		extent      = prime(itemList, trOrder, trOffsets, uOrder, uOffsets, trRemember, outerIntent, uComparator); // {}''
+		final long fingerprint = checkpointWriter != null ? OuterCheckpoint.fingerprint(columns, numberOfItemsPerDimension, minSupportPerDimension) : 0;
+		final OuterCheckpoint resumed = checkpointWriter != null ? OuterCheckpoint.read(checkpointFile, fingerprint) : null;
+		if (resumed != null) {
+			log.info("resuming from checkpoint " + checkpointFile + " at output offset " + resumed.getOffset());
+			checkpointWriter.resume(resumed.getOffset());
+			System.arraycopy(resumed.getExtent(), 0, extent, 0, resumed.getExtent()[0] + 1);
+			i = resumed.getI();
+			lastI = resumed.getLastI();
+		} else {
+			if (checkpointWriter != null) checkpointWriter.resume(0);
 
-//		System.err.println("A'' = " + getUSetFromArray(itemList, extent) + "   A' = " + getTrSetFromArray(itemList, outerIntent));
+			extent[0] = 0;          // we start with the empty set
+			i = uOrder[uOffsets[numberOfItemsPerDimension[U]]]; // we start with the largest user (pick one triple position of largest user) 
 
-		if (extent[0] >= minSupportPerDimension[U]) {
-			innerNextClosure(extent, outerIntent);
+			/*
+			 *  Compute the hull of the empty set.
+			 */
+			log.debug("computing the hull of the empty set");
+			writeConceptWithEmptyExtent(triConceptWriter, scratch);
+			outerDerivation.primeOfObjects(extent, outerIntent, scratch);      // {}'
+			outerDerivation.primeOfAttributes(outerIntent, extent, scratch);   // {}''
+
+//			System.err.println("A'' = " + getUSetFromArray(columns, extent) + "   A' = " + getTrSetFromArray(columns, outerIntent));
+
+			if (extent[0] >= minSupportPerDimension[U]) {
+				startInnerNextClosure(innerExecutor, extent, outerIntent);
+			}
+			lastI = i + 1; // TODO: workaround to terminate
 		}
 
 
@@ -191,12 +520,23 @@ public class Trias {
 		 * stop, when extent contains all elements (uOffsets[0]) or when i does not change any more
 		 */
 		log.debug("starting outer next closure loop");
-		/*
-		 * Used to track changes of i. If i did not change, then i = lastI at the 
-		 * beginning of the next loop.
-		 */
-		int lastI = i + 1; // TODO: workaround to terminate
+		final int minOuterIntent = minSupportPerDimension[T] * minSupportPerDimension[R];
+		long pruned = 0; // candidates skipped by their support
+		long lastCheckpoint = System.currentTimeMillis();
 		while (extent[0] < uOffsets[0] && lastI != i) {
+			/*
+			 * all concepts of the extents before A have been written
+			 */
+			if (checkpointWriter != null && System.currentTimeMillis() - lastCheckpoint >= checkpointInterval) {
+				new OuterCheckpoint(fingerprint, extent, i, lastI, checkpointWriter.checkpoint()).write(checkpointFile);
+				lastCheckpoint = System.currentTimeMillis();
+			}
+			// skip users with too few (t,r) pairs, since (A+i)' is contained in {i}'
+			while (uRemember[i] > 1 && support(uOffsets, uRemember, i) < minOuterIntent) {
+				pruned++;
+				i = uOrder[uOffsets[uRemember[i] - 1]]; // decrement i
+				i = getNextI(columns, uOrder, uOffsets, uRemember, U, extent, i);
+			}
 			pl.logStep(ProgressStep.OUTER);
 
 			//log.debug("i = " + uRemember[i] + ", lastI = " + uRemember[lastI]);
@@ -206,26 +546,29 @@ public class Trias {
 			 * for given A and i, calculate A+i
 			 */
 			// calculate A+i
-			aPlusI = aPlusI(uOrder, trOrder, itemList, U, uOffsets, trOffsets, uRemember, trRemember, trComparator, uComparator, extent, i);
-			//			pl.logExtent(itemList[extent[1]][U]);
-			pl.logExtent(itemList[aPlusI[1]][U]);
+			aPlusI(uOrder, trOrder, columns, U, uOffsets, trOffsets, uRemember, trRemember, trComparator, uComparator, extent, i, aPlusI);
+			//			pl.logExtent(columns[U][extent[1]]);
+			pl.logExtent(columns[U][aPlusI[1]]);
 
-			// calculate (A+i)'
-			outerIntent = prime(itemList, uOrder, uOffsets, trOrder, trOffsets, uRemember, aPlusI, trComparator);
+			// calculate (A+i)' from the derivation of A+i without i
+			prefixes.primeOfPrefixPlus(extent, aPlusI[0] - 1, i, outerIntent);
 
 			/*
 			 * check minsupport for product (TODO: do this on projections!)
 			 */
 			if (outerIntent[0] >= minSupportPerDimension[T] * minSupportPerDimension[R]) {
 				// calculate A'' 
-				aPlusI = prime(itemList, trOrder, trOffsets, uOrder, uOffsets, trRemember, outerIntent, uComparator);
+				outerDerivation.primeOfAttributes(outerIntent, closure, scratch);
 
 				// check, if i is smallest NEW element in A+i
-				if (aLtI (itemList, U, extent, aPlusI, i)) {
+				if (aLtI (columns, U, extent, closure, i)) {
 
 					// yes, i is smallest new element in A+i
 					// new hull found!
-					extent = aPlusI;
+					final int[] previous = extent;
+					extent  = closure;
+					closure = previous;
+					prefixes.accept(aPlusI[0] - 1, outerIntent);
 
 					/*
 					 * check minsupport for u
@@ -237,7 +580,7 @@ public class Trias {
 						 * inner NEXT CLOSURE
 						 */
 						if (log.isDebugEnabled()) log.debug("starting inner next closure with extent " + toString(extent));
-						innerNextClosure(extent, outerIntent);
+						startInnerNextClosure(innerExecutor, extent, outerIntent);
 
 					} // uminsup if 
 					i = uOrder[uOffsets[numberOfItemsPerDimension[U]]]; // re-start with largest element
@@ -251,121 +594,288 @@ public class Trias {
 				if (uRemember[i] > 1) i = uOrder[uOffsets[uRemember[i] - 1]]; // decrement i
 			}
 			// decrement i until it is not any longer contained in aSet
-			i = getNextI(itemList, uOrder, uOffsets, uRemember, U, extent, i);
+			i = getNextI(columns, uOrder, uOffsets, uRemember, U, extent, i);
 		} // outer next closure loop
+		prunedOuterCandidates.addAndGet(pruned);
 		pl.logStep(ProgressStep.STOP);
 	}
 
+	/**
+	 * Outer loop with Fast Close-by-One (see {@link FastCloseByOne}) instead
+	 * of NEXT CLOSURE. 
+	 */
+	private void outerFastCloseByOne(final InnerClosureExecutor innerExecutor) throws IOException {
+		log.debug("-------------- FAST CLOSE BY ONE -------------- " + 
+				minSupportPerDimension[U] + " " + 
+				minSupportPerDimension[T] + " " + 
+				minSupportPerDimension[R]);
+
+		pl.setMax(numberOfItemsPerDimension[U]);
+		pl.logStep(ProgressStep.START);
+		writeConceptWithEmptyExtent(triConceptWriter, scratch.get());
+		createOuterClosureEngine().run(new FastCloseByOne.ConceptHandler() {
+			public void handle(final int[] extent, final int[] outerIntent) throws IOException {
+				pl.logStep(ProgressStep.OUTER);
+				if (extent[0] >= minSupportPerDimension[U]) {
+					pl.logStep(ProgressStep.OUTER_SUCCESS);
+					startInnerNextClosure(innerExecutor, extent, outerIntent);
+				}
+			}
+		});
+		pl.logStep(ProgressStep.STOP);
+	}
+
+	/**
+	 * Fast Close-by-One on (U, TxR, \tilde{Y}); the minimal support of 
+	 * the outer intents is the product of the minimal supports of T and R.
+	 */
+	private FastCloseByOne createOuterClosureEngine() {
+		return new FastCloseByOne(outerDerivation, uOrder, uOffsets, uRemember, minSupportPerDimension[T] * minSupportPerDimension[R]);
+	}
+
+	/**
+	 * Writes the tri-concept ({}, T, R), if it exists (i.e., if not all
+	 * (t,r) are used) and is requested. 
+	 */
+	private void writeConceptWithEmptyExtent(final TriasWriter writer, final Scratch scratch) throws IOException {
+		if (minSupportPerDimension[U] == 0 && trOffsets.length < numberOfItemsPerDimension[T] * numberOfItemsPerDimension[R]) {
+			// special case for tri-concept ({}, T, R)
+			writeTriples(writer, new int[3][0], new int[]{0}, new int[]{numberOfItemsPerDimension[T]}, new int[]{numberOfItemsPerDimension[R]}, scratch);
+		}
+	}
+
+	/**
+	 * Runs the inner next closure for the concept (extent, relationI) - either 
+	 * directly or, if given, by handing it to the executor.
+	 */
+	private void startInnerNextClosure(final InnerClosureExecutor executor, final int[] extent, final int[] relationI) throws IOException {
+		if (executor == null) {
+			innerNextClosure(extent, relationI, triConceptWriter);
+		} else {
+			/*
+			 * the outer loop reuses its arrays, thus the job needs copies
+			 */
+			final int[] extentCopy = Arrays.copyOf(extent, extent[0] + 1);
+			final int[] relationICopy = Arrays.copyOf(relationI, relationI[0] + 1);
+			executor.submit(new InnerClosureExecutor.Job() {
+				public void run(final TriasWriter writer) throws IOException {
+					innerNextClosure(extentCopy, relationICopy, writer);
+				}
+			});
+		}
+	}
+
+	/** 
+	 * Parallel version of the outer loop. Instead of walking through the 
+	 * extents in lectic order, the search space is split into the branches 
+	 * of the Close-by-One tree: each closed extent A which was generated by 
+	 * adding user y has as children the closures of A+j for all j > y, j 
+	 * not in A, which pass the canonicity test (A+j)'' \cap {1,...,j-1} = 
+	 * A \cap {1,...,j-1}. Every closed extent is generated exactly once, 
+	 * thus the result contains the same tri-concepts as {@link #trias()}, 
+	 * although in a different order. 
+	 * 
+	 * The branches are independent and mined on a {@link ForkJoinPool} 
+	 * with {@link #numberOfThreads} threads. 
+	 * 
+	 * @throws IOException
+	 */
+	private void triasParallel() throws IOException {
+		log.debug("-------------- PARALLEL CLOSE BY ONE -------------- " + 
+				minSupportPerDimension[U] + " " + 
+				minSupportPerDimension[T] + " " + 
+				minSupportPerDimension[R] + " with " + numberOfThreads + " threads");
+
+		final TriasWriter writer = new SynchronizedTriasWriter(triConceptWriter);
+
+		pl.setMax(numberOfItemsPerDimension[U]);
+		pl.logStep(ProgressStep.START);
+		if (outerBranchesFrom <= 1) writeConceptWithEmptyExtent(writer, scratch.get());
+		final ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+		try {
+			if (closureEngine == ClosureEngine.FCBO && !hasOuterBranches()) {
+				createOuterClosureEngine().run(new FastCloseByOne.ConceptHandler() {
+					public void handle(final int[] extent, final int[] outerIntent) throws IOException {
+						if (extent[0] >= minSupportPerDimension[U]) {
+							pl.logStep(ProgressStep.OUTER_SUCCESS);
+							innerNextClosure(extent, outerIntent, writer);
+						}
+					}
+				}, pool);
+			} else {
+				/*
+				 * the root of the tree is the hull of the empty set
+				 */
+				final int[] outerIntent = outerDerivation.primeOfObjects(new int[]{0}); // {}'
+				final int[] extent      = outerDerivation.primeOfAttributes(outerIntent); // {}''
+				pool.invoke(new OuterClosureTask(extent, outerIntent, 0, writer));
+			}
+		} catch (final RuntimeException e) {
+			/*
+			 * tasks wrap IOExceptions of the writer - unwrap them again
+			 */
+			for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+				if (cause instanceof IOException) throw (IOException) cause;
+			}
+			throw e;
+		} finally {
+			pool.shutdown();
+		}
+		pl.logStep(ProgressStep.STOP);
+	}
+
+	/**
+	 * One branch of the parallel outer loop: runs the inner next closure for
+	 * the concept (extent, outerIntent) and forks one task for each canonical 
+	 * child.
+	 */
+	private class OuterClosureTask extends RecursiveAction {
+		private static final long serialVersionUID = 5370231455937823384L;
+
+		private final int[] extent;
+		private final int[] outerIntent;
+		private final int generator; // the user which was added to get this extent (0 for the root)
+		private final TriasWriter writer;
+
+		public OuterClosureTask(final int[] extent, final int[] outerIntent, final int generator, final TriasWriter writer) {
+			this.extent = extent;
+			this.outerIntent = outerIntent;
+			this.generator = generator;
+			this.writer = writer;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				// the root belongs to the first range of branches
+				if (extent[0] >= minSupportPerDimension[U] && (generator > 0 || outerBranchesFrom <= 1)) {
+					if (generator > 0) pl.logStep(ProgressStep.OUTER_SUCCESS);
+					innerNextClosure(extent, outerIntent, writer);
+				}
+			} catch (final IOException e) {
+				throw new RuntimeException(e);
+			}
+
+			final List<OuterClosureTask> children = new LinkedList<OuterClosureTask>();
+			final int minOuterIntent = minSupportPerDimension[T] * minSupportPerDimension[R];
+			long pruned = 0;
+			final int from = generator > 0 ? generator + 1 : Math.max(1, outerBranchesFrom);
+			final int to = generator > 0 ? numberOfItemsPerDimension[U] : Math.min(numberOfItemsPerDimension[U], outerBranchesTo);
+			for (int j = from; j <= to; j++) {
+				final int i = uOrder[uOffsets[j]]; // position of one triple of user j
+				if (isContainedIn(i, extent, columns, U)) continue;
+				// (A+j)' is contained in {j}'
+				if (support(uOffsets, uRemember, i) < minOuterIntent) {
+					pruned++;
+					continue;
+				}
+
+				// (A+j)' = A' \cap {j}'
+				final int[] intent = outerDerivation.intersectPrimeOfObject(outerIntent, i, new int[outerIntent[0] + 1]);
+
+				/*
+				 * check minsupport for product (all descendants have smaller intents)
+				 */
+				if (intent[0] >= minSupportPerDimension[T] * minSupportPerDimension[R]) {
+					final int[] closure = outerDerivation.primeOfAttributes(intent);
+					if (isCanonical(extent, closure, j)) {
+						children.add(new OuterClosureTask(closure, intent, j, writer));
+					}
+				}
+			}
+			prunedOuterCandidates.addAndGet(pruned);
+			invokeAll(children);
+		}
+	}
+
+	/**
+	 * Canonicity test of Close-by-One: the closure of A+j must not contain 
+	 * users smaller than j which are not already contained in A. Since A is 
+	 * contained in its closure, it suffices to count those users.
+	 */
+	private boolean isCanonical(final int[] aSet, final int[] closure, final int j) {
+		int aCtr = 0;
+		for (int k = 1; k <= aSet[0] && columns[U][aSet[k]] < j; k++) aCtr++;
+		int closureCtr = 0;
+		for (int k = 1; k <= closure[0] && columns[U][closure[k]] < j; k++) closureCtr++;
+		return aCtr == closureCtr;
+	}
+
 	/** Inner next closure loop.
 	 * 
 	 * @param extent
 	 * @param relationI
+	 * @param writer - receives the found tri-concepts
 	 * @throws IOException
 	 */
-	private void innerNextClosure(int[] extent, int[] relationI) throws IOException {
+	private void innerNextClosure(final int[] extent, final int[] relationI, final TriasWriter writer) throws IOException {
 		if (log.isDebugEnabled()) log.debug("inner next closure for concept (" + toString(extent) + ", " + relationToString(relationI) + ")");
 		/* *******************************************************************************
 		 * pre-processing
 		 */
-		// map extent to something similar like utrListe TODO: minimize size of arrays!
-		final int[][] trListe  = new int[relationI[0]][3];   // stores context as list 
-		final Integer[] tOrder = new Integer[relationI[0]];  // sorting by T
-		final Integer[] rOrder = new Integer[relationI[0]];  // sorting by R
-		final TreeSet<Integer> tSet = new TreeSet<Integer>();
-		final TreeSet<Integer> rSet = new TreeSet<Integer>();
-		final Map<Integer,Integer> tMap = new HashMap<Integer,Integer>();
-		final Map<Integer,Integer> rMap = new HashMap<Integer,Integer>();
-		final Map<Tupel, Integer> tupelMap = new HashMap<Tupel, Integer>();
-
-		// put all t and r into set
-		for (int j = 1; j <= relationI[0]; j++) {
-			tSet.add(itemList[relationI[j]][T]);
-			rSet.add(itemList[relationI[j]][R]);
-		}
+		/*
+		 * relationI is sorted by T and then by R (it is a subset of trOrder), 
+		 * thus re-numbering the t's and r's in increasing order leaves it 
+		 * sorted by T and R, i.e., the T order is the identity and the R order 
+		 * just needs a (stable) counting sort.
+		 */
+		final Scratch scratch = this.scratch.get();
+		final int n = relationI[0];
+		final int[][] trListe = new int[3][n]; // stores context as list (one column per dimension)
+		final int[] tRank = scratch.rank(T, numberOfItemsPerDimension[T] + 1);
+		final int[] rRank = scratch.rank(R, numberOfItemsPerDimension[R] + 1);
 
 		/*
 		 * re-number all t and r
 		 */
-		// re-number all t
-		int tCtr = 1;
-		for (int t:tSet) {
-			tMap.put(t, tCtr++);
+		// re-number all t (relationI is sorted by T)
+		int tCtr = 0;
+		for (int j = 1; j <= n; j++) {
+			final int t = columns[T][relationI[j]];
+			if (tRank[t] == 0) tRank[t] = ++tCtr;
+		}
+		// collect all r and re-number them in increasing order
+		final int[] rItems = scratch.distinct(n);
+		int rCtr = 0;
+		for (int j = 1; j <= n; j++) {
+			final int r = columns[R][relationI[j]];
+			if (rRank[r] == 0) {
+				rRank[r] = -1;
+				rItems[rCtr++] = r;
+			}
+		}
+		if (rCtr < numberOfItemsPerDimension[R] / (32 - Integer.numberOfLeadingZeros(rCtr + 1))) {
+			Arrays.sort(rItems, 0, rCtr);
+		} else {
+			// many r's - collect them by scanning all r's 
+			int k = 0;
+			for (int r = 1; k < rCtr; r++) {
+				if (rRank[r] != 0) rItems[k++] = r;
+			}
 		}
-		// re-number all r
-		int rCtr = 1;
-		for (int r:rSet) {
-			rMap.put(r, rCtr++);
+		for (int k = 0; k < rCtr; k++) {
+			rRank[rItems[k]] = k + 1;
 		}
 
-		for (int j = 1; j <= relationI[0]; j++) {
-			int t = tMap.get(itemList[relationI[j]][T]);
-			int r = rMap.get(itemList[relationI[j]][R]);
-			tupelMap.put(new Tupel(t, r), relationI[j]); /* to build BxC later, we need to get the position in utrListe
+		final TupleIndex tupelMap = new TupleIndex(tCtr, rCtr, n);
+		for (int j = 1; j <= n; j++) {
+			final int t = tRank[columns[T][relationI[j]]];
+			final int r = rRank[columns[R][relationI[j]]];
+			tupelMap.put(t, r, relationI[j]); /* to build BxC later, we need to get the position in utrListe
 				this could also be done by search first for t and then for r in trListe - because trListe contains position in
 				utrListe in first column */
-			trListe[j-1][0] = relationI[j]; // remember position in utrListe
-			trListe[j-1][T] = t;          // j-1 because trListe starts with zero
-			trListe[j-1][R] = r;          
-			tOrder[j-1] = j-1;
-			rOrder[j-1] = j-1;
-		}
-		tCtr--; // then tCtr contains number of t's
-		rCtr--; // then rCtr contains number of r's
-
-		// sort by T
-		final int[] tPermutation = {T,R,0};
-		Arrays.sort(tOrder, new IntArrayComparator(trListe, tPermutation));
-		// build offset table
-		final int[] tOffsets  = new int[tCtr + 2]; // first element to store actual size, last element to store max. offset
-		final int[] tRemember = new int[trListe.length];  
-		{
-			int tOff = 0; // position in tOrder list
-			for (int t = 1; t <= tCtr; t++) {
-				tOffsets[t] = tOff;
-				while (trListe[tOrder[tOff]][T] == t && tOff < trListe.length - 1) {
-					// skip equal elements
-					tOff++;
-				}
-			}
-			tOffsets [tCtr + 1] = ++tOff; // set pointer after last element
-			tOffsets [0] = tCtr; // remember size
-			// build tRemember ( = copy of T column)
-			for (int j = 0; j < trListe.length; j++) {
-				tRemember[j] = trListe[j][T];
-			}
+			trListe[0][j-1] = relationI[j]; // remember position in utrListe
+			trListe[T][j-1] = t;          // j-1 because trListe starts with zero
+			trListe[R][j-1] = r;          
 		}
 
-		// sort by R 
-		int[] rPermutation = {R,T,0};
-		Arrays.sort(rOrder, new IntArrayComparator(trListe, rPermutation));
-		// build offset table
-		int[] rOffsets  = new int[rCtr + 2]; // first element to store actual size, last element to store max. offset
-		int[] rRemember = new int[trListe.length];  
-		{
-			int rOff = 0; // position in tOrder list
-			for (int r = 1; r <= rCtr; r++) {
-				rOffsets[r] = rOff;
-				while (trListe[rOrder[rOff]][R] == r && rOff < trListe.length - 1) {
-					// skip equal elements
-					rOff++;
-				}
-			}
-			rOffsets [rCtr + 1] = ++rOff; // set pointer after last element
-			rOffsets [0] = rCtr; // remember size
-			// build rRemember ( = copy of R column)
-			for (int j = 0; j < trListe.length; j++) {
-				rRemember[j] = trListe[j][R];
-			}
+		// reset the ranks for the next call
+		for (int j = 1; j <= n; j++) {
+			tRank[columns[T][relationI[j]]] = 0;
+		}
+		for (int k = 0; k < rCtr; k++) {
+			rRank[rItems[k]] = 0;
 		}
-
-		log.debug("inner next closure finished preprocessing, really starts now");
-		/* ********************************************************************************
-		 * inner next closure starts here
-		 */
-		int[] intent = new int[numberOfItemsPerDimension[T] + 1];
-		int[] aPlusI;
-		int[] modus;
-		final int off = tOffsets[tCtr];
 
 		/*
 		 * handle empty relation and complete extent 
@@ -373,74 +883,309 @@ public class Trias {
 		 * TODO: check if this is always correct
 		 */
 		if (relationI[0] == 0 && extent[0] == numberOfItemsPerDimension[U]) {
-			innerNextClosureForEmptyI(extent, tupelMap);
+			innerNextClosureForEmptyI(extent, tupelMap, writer, scratch);
 			return;
 		}
 
+		/*
+		 * known relation: just check the inner concepts from the cache 
+		 */
+		final InnerConceptCache.Key cacheKey = innerConceptCache != null ? InnerConceptCache.key(trListe, tCtr, rCtr) : null;
+		if (cacheKey != null) {
+			final int[][] cached = innerConceptCache.get(cacheKey);
+			if (cached != null) {
+				// the same progress steps as if the relation was mined
+				for (int c = 0; c < cached[0][0]; c++) {
+					pl.logStep(ProgressStep.INNER);
+				}
+				for (int c = 1; c < cached.length; c += 2) {
+					if (checkCondition(extent, cached[c], cached[c + 1], trListe, tupelMap, scratch)) {
+						pl.logStep(ProgressStep.INNER_SUCCESS);
+						writeTriples(writer, trListe, extent, cached[c], cached[c + 1], scratch);
+					}
+				}
+				return;
+			}
+		}
+		// collects the inner concepts (and counts all) for the cache
+		final List<int[]> found = cacheKey != null ? new ArrayList<int[]>() : null;
+		final int[] numberOfConcepts = cacheKey != null ? new int[1] : null;
+
+		final FastCloseByOne.ConceptHandler handler = new FastCloseByOne.ConceptHandler() {
+			public void handle(final int[] intent, final int[] modus) throws IOException {
+				pl.logStep(ProgressStep.INNER);
+				if (numberOfConcepts != null) numberOfConcepts[0]++;
+				if (modus[0] >= minSupportPerDimension[R] && intent[0] >= minSupportPerDimension[T]) {
+					if (found != null) InnerConceptCache.add(found, intent, modus);
+					if (checkCondition(extent, intent, modus, trListe, tupelMap, scratch)) {
+						pl.logStep(ProgressStep.INNER_SUCCESS);
+						if (log.isDebugEnabled()) log.debug("   outer concept: " + Trias.this.toString(extent, intent, modus, trListe));
+						writeTriples(writer, trListe, extent, intent, modus, scratch);
+					}
+				}
+			}
+		};
+
+		/*
+		 * small relations are mined on a bit matrix, without building the offset tables
+		 */
+		final InnerMiner miner = isBitMatrixCandidate(n, tCtr, rCtr) ? bitMatrixInnerMiner : innerMiner();
+		if (innerTransposition && rCtr < tCtr) {
+			/*
+			 * fewer resources than tags: enumerate the closed sets of 
+			 * resources on the transposed relation and swap them back
+			 */
+			innerLoopsOverResources.incrementAndGet();
+			final int[] origin = new int[n]; // for each position of rtListe its position in trListe
+			final int[][] rtListe = transpose(trListe, rCtr, origin);
+			final int[] intent = new int[tCtr + 1];
+			final int[] modus  = new int[rCtr + 1];
+			miner.mine(rtListe, rCtr, tCtr, minSupportPerDimension[T], new FastCloseByOne.ConceptHandler() {
+				public void handle(final int[] resources, final int[] tags) throws IOException {
+					handler.handle(mapPositions(tags, origin, intent), mapPositions(resources, origin, modus));
+				}
+			});
+		} else {
+			innerLoopsOverTags.incrementAndGet();
+			miner.mine(trListe, tCtr, rCtr, minSupportPerDimension[R], handler);
+		}
+		if (found != null) innerConceptCache.put(cacheKey, numberOfConcepts[0], found);
+	}
+
+	/*
+	 * returns the projected relation with the roles of tags and resources 
+	 * swapped, sorted by resource and tag (a stable counting sort by 
+	 * resource, since trListe is sorted by tag and resource)
+	 */
+	private static int[][] transpose(final int[][] trListe, final int rCtr, final int[] origin) {
+		final int n = origin.length;
+		final int[] rStart = new int[rCtr + 2];
+		for (int j = 0; j < n; j++) {
+			rStart[trListe[R][j] + 1]++;
+		}
+		for (int r = 2; r <= rCtr; r++) {
+			rStart[r] += rStart[r - 1];
+		}
+		for (int j = 0; j < n; j++) {
+			origin[rStart[trListe[R][j]]++] = j;
+		}
+		final int[][] rtListe = new int[3][n];
+		for (int k = 0; k < n; k++) {
+			rtListe[0][k] = trListe[0][origin[k]];
+			rtListe[T][k] = trListe[R][origin[k]];
+			rtListe[R][k] = trListe[T][origin[k]];
+		}
+		return rtListe;
+	}
 
-		intent[0] = 0; // start with empty set
+	/*
+	 * maps a set of positions of the transposed relation to positions of trListe
+	 */
+	private static int[] mapPositions(final int[] set, final int[] origin, final int[] result) {
+		result[0] = set[0];
+		for (int k = 1; k <= set[0]; k++) {
+			result[k] = origin[set[k]];
+		}
+		return result;
+	}
 
-		// hull of the empty set
-		modus = prime(trListe, tOrder, tOffsets, rOrder, rOffsets, tRemember, intent, rComparator);   // {}'
-		if (modus[0] >= minSupportPerDimension[R]) { // FIXME, always true, because prime returns all elements on empty set!
-			intent = prime (trListe, rOrder, rOffsets, tOrder, tOffsets, rRemember, modus, tComparator);  // {}''
+	/**
+	 * Enumerates the inner concepts of a projected relation, i.e., the 
+	 * closed sets of tags (intents) together with their resources (modi). 
+	 * The relation is given as trListe: for each position its triple in 
+	 * columns (trListe[0]), its tag (trListe[T]), and its resource 
+	 * (trListe[R]), with tags and resources re-numbered densely and the 
+	 * positions sorted by tag and resource. 
+	 * <p>
+	 * Implementations must be thread-safe; the triadic condition is 
+	 * checked by the handler.
+	 */
+	interface InnerMiner {
+		/**
+		 * @param trListe - the projected relation
+		 * @param tCtr - the number of tags
+		 * @param rCtr - the number of resources
+		 * @param minModus - intents with fewer resources (and their 
+		 * descendants, which have even fewer resources) may be skipped
+		 * @param handler - receives intent and modus as sets of positions 
+		 * of trListe (which are only valid during the call)
+		 * @throws IOException
+		 */
+		public void mine(final int[][] trListe, final int tCtr, final int rCtr, final int minModus, final FastCloseByOne.ConceptHandler handler) throws IOException;
+	}
 
-			if (intent[0] >= minSupportPerDimension[T] && checkCondition(extent, intent, modus, trListe, tupelMap)) {
-				if (log.isDebugEnabled()) log.debug("   empty set hull: " + toString(extent, intent, modus, trListe));
-				writeTriples(trListe, extent, intent, modus);
+	/**
+	 * The sorted orders, offset tables, and derivation operators of a 
+	 * projected relation (see {@link InnerMiner}), as needed for next 
+	 * closure and FCbO. 
+	 */
+	private final class ProjectedRelation {
+		final int[] tOrder;
+		final int[] tOffsets;
+		final int[] tRemember;
+		final int[] rOrder;
+		final int[] rOffsets;
+		final int[] rRemember;
+		final Derivation derivation;
+
+		ProjectedRelation(final int[][] trListe, final int tCtr, final int rCtr) {
+			final int n = trListe[T].length;
+			// sorted by T (and R)
+			tOrder = IntArrays.identity(n);
+			// build offset table
+			tOffsets  = new int[tCtr + 2]; // first element to store actual size, last element to store max. offset
+			for (int j = n - 1; j >= 0; j--) {
+				tOffsets[trListe[T][j]] = j;
+			}
+			tOffsets [tCtr + 1] = n; // set pointer after last element
+			tOffsets [0] = tCtr; // remember size
+			tRemember = trListe[T];  // for each position its t
+
+			// sort by R (counting sort - stable, thus the order by T is kept within each r)
+			rOrder = new int[n];
+			// build offset table
+			rOffsets  = new int[rCtr + 2]; // first element to store actual size, last element to store max. offset
+			for (int j = 0; j < n; j++) {
+				rOffsets[trListe[R][j]]++;
+			}
+			for (int r = 2; r <= rCtr; r++) {
+				rOffsets[r] += rOffsets[r - 1]; // end of r
 			}
+			for (int j = n - 1; j >= 0; j--) {
+				rOrder[--rOffsets[trListe[R][j]]] = j; // becomes start of r
+			}
+			rOffsets [rCtr + 1] = n; // set pointer after last element
+			rOffsets [0] = rCtr; // remember size
+			rRemember = trListe[R];  // for each position its r
+
+			derivation = createDerivation(trListe, tOrder, tOffsets, tRemember, rOrder, rOffsets, rRemember, tComparator, rComparator);
 		}
+	}
 
-		int j = tOrder[off]; // get largest tag
-		int lastJ = j + 1;
-		while (intent[0] < tOffsets[0] && lastJ != j) { // stop, if intent contains all elements from T (e.g. B == T)
-			pl.logStep(ProgressStep.INNER);
-			lastJ = j;
-			log.debug("   j = " + tRemember[j] + ", lastJ = " + tRemember[lastJ]);
+	/**
+	 * The inner loop on a bit matrix (see {@link BitMatrixMiner}).
+	 */
+	private final class BitMatrixInnerMiner implements InnerMiner {
+		public void mine(final int[][] trListe, final int tCtr, final int rCtr, final int minModus, final FastCloseByOne.ConceptHandler handler) throws IOException {
+			new BitMatrixMiner(trListe[T], trListe[R], trListe[T].length, tCtr, rCtr, minModus).run(handler);
+		}
+	}
 
-			// build next hull
-			aPlusI = aPlusI (tOrder, rOrder, trListe, T, tOffsets, rOffsets, tRemember, rRemember, rComparator, tComparator, intent, j);
-			// B' (= C)
-			modus = prime(trListe, tOrder, tOffsets, rOrder, rOffsets, tRemember, aPlusI, rComparator);
+	/**
+	 * The inner loop with Fast Close-by-One (see {@link FastCloseByOne}).
+	 */
+	private final class FastCloseByOneInnerMiner implements InnerMiner {
+		public void mine(final int[][] trListe, final int tCtr, final int rCtr, final int minModus, final FastCloseByOne.ConceptHandler handler) throws IOException {
+			final ProjectedRelation relation = new ProjectedRelation(trListe, tCtr, rCtr);
+			new FastCloseByOne(relation.derivation, relation.tOrder, relation.tOffsets, relation.tRemember, minModus).run(handler);
+		}
+	}
 
-			// check minsup for r
-			if (modus[0] >= minSupportPerDimension[R]) {
-				// B'' (= C')
-				aPlusI = prime(trListe, rOrder, rOffsets, tOrder, tOffsets, rRemember, modus, tComparator);
+	/**
+	 * The inner loop with NEXT CLOSURE.
+	 */
+	private final class NextClosureInnerMiner implements InnerMiner {
+		public void mine(final int[][] trListe, final int tCtr, final int rCtr, final int minModus, final FastCloseByOne.ConceptHandler handler) throws IOException {
+			final Scratch scratch = Trias.this.scratch.get();
+			final ProjectedRelation relation = new ProjectedRelation(trListe, tCtr, rCtr);
+			final int[] tOrder    = relation.tOrder;
+			final int[] tOffsets  = relation.tOffsets;
+			final int[] tRemember = relation.tRemember;
+			final Derivation innerDerivation = relation.derivation;
+
+			log.debug("inner next closure finished preprocessing, really starts now");
+			/* ********************************************************************************
+			 * inner next closure starts here
+			 */
+			/*
+			 * the sets are allocated once and reused in each step (intent and 
+			 * closure are swapped when a new hull is found)
+			 */
+			int[] intent        = new int[tCtr + 1];
+			int[] closure       = new int[tCtr + 1];
+			final int[] aPlusI  = new int[tCtr + 2];
+			final int[] modus   = new int[rCtr + 1];
+			final int off = tOffsets[tCtr];
+
+			intent[0] = 0; // start with empty set
+
+			// hull of the empty set
+			innerDerivation.primeOfObjects(intent, modus, scratch);   // {}'
+			if (modus[0] >= minModus) { // FIXME, always true, because prime returns all elements on empty set!
+				innerDerivation.primeOfAttributes(modus, intent, scratch);  // {}''
+				if (log.isDebugEnabled()) log.debug("   empty set hull: (" + Trias.this.toString(intent, trListe, true) + ", " + Trias.this.toString(modus, trListe, false) + ")");
+				handler.handle(intent, modus);
+			}
 
-				if (log.isDebugEnabled()) log.debug("   before aPlusI check: " + toString(extent, intent, modus, trListe));
-				if (log.isDebugEnabled()) log.debug("   before aPlusI check: " + toString(extent, aPlusI, modus, trListe));
+			final PrefixDerivations prefixes = scratch.prefixes(); // derivations of the prefixes of B
+			prefixes.reset(innerDerivation, scratch);
+
+			int j = tOrder[off]; // get largest tag
+			int lastJ = j + 1;
+			long pruned = 0; // candidates skipped by their support
+			final long allocationStart = innerLoopAllocation != null ? innerLoopAllocation.start() : 0;
+			while (intent[0] < tOffsets[0] && lastJ != j) { // stop, if intent contains all elements from T (e.g. B == T)
+				// skip tags with too few resources, since (B+j)' is contained in {j}'
+				while (tRemember[j] > 1 && support(tOffsets, tRemember, j) < minModus) {
+					pruned++;
+					j = tOrder[tOffsets[tRemember[j] - 1]]; // decrement j
+					j = getNextI(trListe, tOrder, tOffsets, tRemember, T, intent, j);
+				}
+				lastJ = j;
+				if (log.isDebugEnabled()) log.debug("   j = " + tRemember[j] + ", lastJ = " + tRemember[lastJ]);
 
+				// build next hull
+				aPlusI (tOrder, relation.rOrder, trListe, T, tOffsets, relation.rOffsets, tRemember, relation.rRemember, rComparator, tComparator, intent, j, aPlusI);
+				// B' (= C) from the derivation of B+j without j
+				prefixes.primeOfPrefixPlus(intent, aPlusI[0] - 1, j, modus);
 
-				if (aLtI (trListe, T, intent, aPlusI, j)) {
-					// new hull found
-					intent = aPlusI;
+				// check minsup for r
+				if (modus[0] >= minModus) {
+					// B'' (= C')
+					innerDerivation.primeOfAttributes(modus, closure, scratch);
 
-					// check minsup for t
-					if (intent[0] >= minSupportPerDimension[T] && checkCondition(extent, intent, modus, trListe, tupelMap)) {
+					if (log.isDebugEnabled()) log.debug("   before aPlusI check: " + Trias.this.toString(intent, trListe, true) + ", " + Trias.this.toString(closure, trListe, true));
 
-						pl.logStep(ProgressStep.INNER_SUCCESS);
+					if (aLtI (trListe, T, intent, closure, j)) {
+						// new hull found
+						final int[] previous = intent;
+						intent  = closure;
+						closure = previous;
+						prefixes.accept(aPlusI[0] - 1, modus);
 
-						if (log.isDebugEnabled()) log.debug("   inner concept: (" + toString(intent, trListe, true) + ", " + toString(modus, trListe, false) + ")");
+						if (log.isDebugEnabled()) log.debug("   inner concept: (" + Trias.this.toString(intent, trListe, true) + ", " + Trias.this.toString(modus, trListe, false) + ")");
+						handler.handle(intent, modus);
 
-						if (log.isDebugEnabled()) log.debug("   outer concept: " + toString(extent, intent, modus, trListe));
+						j = tOrder[off]; // re-start with largest element
+					} else {
+						if (tRemember[j] > 1) j = tOrder[tOffsets[tRemember[j] - 1]]; // decrement j
 
-						writeTriples(trListe, extent, intent, modus);
 					}
-
-					j = tOrder[off]; // re-start with largest element
 				} else {
 					if (tRemember[j] > 1) j = tOrder[tOffsets[tRemember[j] - 1]]; // decrement j
 
 				}
-			} else {
-				if (tRemember[j] > 1) j = tOrder[tOffsets[tRemember[j] - 1]]; // decrement j
 
-			}
+				j = getNextI(trListe, tOrder, tOffsets, tRemember, T, intent, j);
 
-			j = getNextI(trListe, tOrder, tOffsets, tRemember, T, intent, j);
+			} // inner next closure loop 
+			if (innerLoopAllocation != null) innerLoopAllocation.stop(allocationStart);
+			prunedInnerCandidates.addAndGet(pruned);
+		}
+	}
 
-		} // inner next closure loop 
+	/*
+	 * returns the miner for the inner loop, as configured by the closure engine
+	 */
+	private InnerMiner innerMiner() {
+		switch (closureEngine) {
+		case FCBO:
+			return fastCloseByOneInnerMiner;
+		case LCM:
+			return lcmInnerMiner;
+		default:
+			return nextClosureInnerMiner;
+		}
 	}
 
 	/**
@@ -449,12 +1194,14 @@ public class Trias {
 	 * 
 	 * @param extent
 	 * @param tupelMap
+	 * @param writer
+	 * @param scratch
 	 * @throws IOException
 	 */
-	private void innerNextClosureForEmptyI(int[] extent, final Map<Tupel, Integer> tupelMap) throws IOException {
+	private void innerNextClosureForEmptyI(int[] extent, final TupleIndex tupelMap, final TriasWriter writer, final Scratch scratch) throws IOException {
 		final int[] modus = new int[numberOfItemsPerDimension[R] + 1];
 		final int[] intent = new int[numberOfItemsPerDimension[T] + 1];
-		final int[][] emptyI = new int[][]{};
+		final int[][] emptyI = new int[3][0];
 		// start with empty set
 		intent[0] = 0;
 		// hull contains then all elements
@@ -463,9 +1210,9 @@ public class Trias {
 			modus[r] = r;
 		}
 		// check and print
-		if (intent[0] >= minSupportPerDimension[T] && checkCondition(extent, intent, modus, emptyI, tupelMap)) {
+		if (intent[0] >= minSupportPerDimension[T] && checkCondition(extent, intent, modus, emptyI, tupelMap, scratch)) {
 			if (log.isDebugEnabled()) log.debug("   empty set hull: " + toString(extent, intent, modus, emptyI));
-			writeTriples(emptyI, extent, intent, modus);
+			writeTriples(writer, emptyI, extent, intent, modus, scratch);
 		}
 		// now the same with the reverse: modus is empty ...
 		modus[0] = 0;
@@ -475,100 +1222,12 @@ public class Trias {
 			intent[t] = t;
 		}
 		// check and print
-		if (modus[0] >= minSupportPerDimension[R] && checkCondition(extent, intent, modus, emptyI, tupelMap)) {
+		if (modus[0] >= minSupportPerDimension[R] && checkCondition(extent, intent, modus, emptyI, tupelMap, scratch)) {
 			if (log.isDebugEnabled()) log.debug("   empty set hull: " + toString(extent, intent, modus, emptyI));
-			writeTriples(emptyI, extent, intent, modus);
-		}
-	}
-
-	private void buildOffsetTables() {
-		trOffsets  = new int[itemList.length+2]; // TODO: too big
-		trRemember = new int[itemList.length]; // stores for each triple its position in trOffsets
-
-		int trOff = 0;
-		int trOffsetCtr  = 1;
-		Map<Tupel,Integer> map = new HashMap<Tupel,Integer>(itemList.length);
-		// iterate over all TAS
-		while (trOff < itemList.length) {
-			// new element
-			int t = itemList[trOrder[trOff]][T];
-			int r = itemList[trOrder[trOff]][R];
-			map.put(new Tupel (t, r), trOffsetCtr);
-			trOffsets[trOffsetCtr] = trOff;
-			trOffsetCtr++;		
-			while (trOff < itemList.length && 
-					t == itemList[trOrder[trOff]][T] && 
-					r == itemList[trOrder[trOff]][R]) {
-				// skip equal elements
-				trOff++;
-			}
-
-		}
-		if (trOffsetCtr > itemList.length + 1) {
-			log.fatal("trOffsetCtr should never be larger than N+1");
-			throw new RuntimeException("trOffsetCtr should never be larger than N+1");
-		}
-		trOffsets[trOffsetCtr] = itemList.length;     // sets offset after last value
-		trOffsets[0] = trOffsetCtr - 1; 
-		// iterate over triples, store for each triple its position in trRemember
-		for (int i = 0; i < itemList.length; i++) {
-			trRemember[i] = map.get(new Tupel (itemList[i][T], itemList[i][R]));
-		}
-
-	}
-
-	private void sortByUandTxR() {
-		/* ************************************************************************
-		 * sort by U
-		 */
-		int[] uPermutation = {U,T,R};
-		Arrays.sort(uOrder, new IntArrayComparator(itemList, uPermutation));
-
-		/* ******************************
-		 * build appropriate offset table
-		 */
-		uOffsets  = new int[numberOfItemsPerDimension[0]+2]; // first element to store actual size, last element to store max. offset
-		/*
-		 * stores for each triple, where its position in uOffsets is 
-		 * (since it's always u, this is the U column of the TAS table 
-		 * ... TODO: uRemember not neccessary)
-		 */
-		uRemember = new int[itemList.length]; 
-
-		int uOff = 0; // position in uOrder list
-		for (int u = 1; u <= numberOfItemsPerDimension[U]; u++) {
-			uOffsets[u] = uOff;
-			while (itemList[uOrder[uOff]][U] == u && uOff < itemList.length - 1) { // TODO: a single user at the end might fail!
-				// skip equal elements
-				uOff++;
-			}
-		}
-		uOffsets [numberOfItemsPerDimension[U] + 1] = ++uOff; // set pointer after last element
-		uOffsets [0] = numberOfItemsPerDimension[U]; // remember size
-		// build uRemember ( = copy of U column)
-		for (int i = 0; i < itemList.length; i++) {
-			uRemember[i] = itemList[i][U];
+			writeTriples(writer, emptyI, extent, intent, modus, scratch);
 		}
-
-
-		/* ************************************************************************
-		 * sort by TxR 
-		 */
-		int[] trPermutation = {T,R,U};
-		Arrays.sort(trOrder, new IntArrayComparator(itemList, trPermutation));
-
-		log.debug("sorted by U and by TxR");
 	}
 
-	private void initializePermutations() {
-		uOrder  = new Integer[itemList.length];
-		trOrder = new Integer[itemList.length];
-		for (int i = 0; i < itemList.length; i++) {
-			uOrder[i]  = i; 
-			trOrder[i] = i; 
-		}
-		log.debug("initialized permutations");
-	}
 
 
 
@@ -576,54 +1235,93 @@ public class Trias {
 
 	/**
 	 * Checks, if the central condition A = (BxC)^{\tilde{Y}} is fulfilled.
+	 * 
+	 * Since A x B x C is contained in Y, A is contained in the user set of 
+	 * every (t,r) in BxC, thus A = (BxC)' holds iff |(BxC)'| = |A|. We 
+	 * intersect the user sets of the pairs (smallest first) and stop as 
+	 * soon as the intersection has shrunk to |A|.
 	 */
-	private boolean checkCondition(final int[] extent, final int[] intent, final int[] modus, final int[][] trListe, Map<Tupel, Integer> tupelMap) throws IOException {
-		int[] setBxC      = getBxC(trListe, tupelMap, intent, modus);
-		int[] setBxCPrime = prime(itemList, trOrder, trOffsets, uOrder, uOffsets, trRemember, setBxC, uComparator); 
+	private boolean checkCondition(final int[] extent, final int[] intent, final int[] modus, final int[][] trListe, TupleIndex tupelMap, final Scratch scratch) throws IOException {
+		final int[] setBxC = getBxC(trListe, tupelMap, intent, modus, scratch.bxc(intent[0] * modus[0] + 1));
 
-		boolean isAContainedInBxC = isContainedIn(itemList, extent, setBxCPrime, U); // trivially holds
-		boolean isBxCContainedInA = isContainedIn(itemList, setBxCPrime, extent, U); // to check
+		if (setBxC[0] == 0) {
+			// (BxC)' contains all users
+			return extent[0] == uOffsets[0];
+		}
 
-		if (isBxCContainedInA) {
-			if (! isAContainedInBxC) { 
-				log.fatal("################ GROSSER FEHLER!");
-				throw new RuntimeException("################ GROSSER FEHLER!");
-			}
-			return true;
+		// order pairs by the size of their user sets
+		final int[] pairsOrdered = orderBySize(setBxC, trOffsets, trRemember, scratch);
+
+		// start with the users of the smallest pair
+		final int[] result = scratch.bxcPrime(outerDerivation.numberOfObjects() + 1);
+		final int first = trRemember[setBxC[pairsOrdered[0]]];
+		result[0] = trOffsets[first + 1] - trOffsets[first];
+		System.arraycopy(trOrder, trOffsets[first], result, 1, result[0]);
+
+		for (int k = 1; result[0] > extent[0] && k < setBxC[0]; k++) {
+			final int pair = trRemember[setBxC[pairsOrdered[k]]];
+			SetIntersection.intersect(result, columns, trOrder, trOffsets[pair], trOffsets[pair + 1] - 1, uComparator);
 		}
-		return false;
+
+		if (result[0] < extent[0]) { 
+			// A is not contained in (BxC)' 
+			log.fatal("################ GROSSER FEHLER!");
+			throw new RuntimeException("################ GROSSER FEHLER!");
+		}
+		return result[0] == extent[0];
 	}
 
 	/* return a String representation of a triadic concept
 	 *  
 	 * note that this depends entirely on the correct structure of utrListe and trListe
 	 */
-	private void writeTriples(final int[][] trListe, final int[] extent, final int[] intent, final int[] modus) throws IOException {
-		log.debug("found concept " + toString(extent, intent, modus, trListe));
+	private void writeTriples(final TriasWriter writer, final int[][] trListe, final int[] extent, final int[] intent, final int[] modus, final Scratch scratch) throws IOException {
+		if (log.isDebugEnabled()) log.debug("found concept " + toString(extent, intent, modus, trListe));
+
+		final int[] mappedExtent = scratch.output(U, extent[0]); for (int k=1; k<=extent[0]; k++) mappedExtent[k-1] = columns[U][extent[k]];
+		final int[] mappedIntent = scratch.output(T, intent[0]); for (int k=1; k<=intent[0]; k++) mappedIntent[k-1] = trListe[0].length != 0 ? columns[T][trListe[0][intent[k]]] : k; 
+		final int[] mappedModus  = scratch.output(R, modus[0]);  for (int k=1; k<=modus[0];  k++) mappedModus[k-1]  = trListe[0].length != 0 ? columns[R][trListe[0][modus[k]]] : k;
+		if (originalIds != null) {
+			mapIds(originalIds[U], mappedExtent);
+			mapIds(originalIds[T], mappedIntent);
+			mapIds(originalIds[R], mappedModus);
+		}
+		/*
+		 * the arrays are reused, the writer must not keep them (see TriasWriter)
+		 */
+		final int[][] concept = scratch.concept();
+		concept[U] = mappedExtent;
+		concept[T] = mappedIntent;
+		concept[R] = mappedModus;
+		writer.write(concept);
+	}
 
-		final int[] mappedExtent = new int[extent[0]]; for (int k=1; k<=extent[0]; k++) mappedExtent[k-1] = itemList[extent[k]][U];
-		final int[] mappedIntent = new int[intent[0]]; for (int k=1; k<=intent[0]; k++) mappedIntent[k-1] = trListe.length != 0 ? itemList[trListe[intent[k]][0]][T] : k; 
-		final int[] mappedModus  = new int[modus[0]];  for (int k=1; k<=modus[0];  k++) mappedModus[k-1]  = trListe.length != 0 ? itemList[trListe[modus[k]][0]][R] : k;
-		triConceptWriter.write(new int[][] {mappedExtent, mappedIntent, mappedModus});
+	/*
+	 * replaces each id of the set by its original id
+	 */
+	private static void mapIds(final int[] ids, final int[] set) {
+		for (int k = 0; k < set.length; k++) {
+			set[k] = ids[set[k]];
+		}
 	}
 
 	private String toString (int[] extent, int[] intent, int[] modus, int[][] trListe) {
 		final StringBuffer buf = new StringBuffer ("({");
 
 		for (int k=1; k<=extent[0]; k++)  {
-			buf.append(itemList[extent[k]][U]);
+			buf.append(columns[U][extent[k]]);
 			if (k < extent[0]) buf.append(", ");
 		}
 		buf.append("}, {");
 
 		for (int k=1; k<=intent[0]; k++)  {
-			buf.append(trListe.length != 0 ? itemList[trListe[intent[k]][0]][T] : k);
+			buf.append(trListe[0].length != 0 ? columns[T][trListe[0][intent[k]]] : k);
 			if (k < intent[0]) buf.append(", ");
 		}
 		buf.append("}, {");
 
 		for (int k=1; k<=modus[0]; k++)  {
-			buf.append(trListe.length != 0 ? itemList[trListe[modus[k]][0]][R] : k);
+			buf.append(trListe[0].length != 0 ? columns[R][trListe[0][modus[k]]] : k);
 			if (k < modus[0]) buf.append(", ");
 		}
 		buf.append("})");
@@ -637,7 +1335,7 @@ public class Trias {
 		final StringBuffer buf = new StringBuffer("{");
 
 		for (int j = 1; j <= relationI[0]; j++) {
-			buf.append("(" + itemList[relationI[j]][T] + "," + itemList[relationI[j]][R] + ")");
+			buf.append("(" + columns[T][relationI[j]] + "," + columns[R][relationI[j]] + ")");
 			if (j < relationI[0]) buf.append(", ");
 		}
 
@@ -656,7 +1354,7 @@ public class Trias {
 		final int column = isIntent ? T : R;
 		final StringBuffer buf = new StringBuffer ("{");
 		for (int k=1; k<=intentOrModus[0]; k++)  {
-			buf.append(itemList[trListe[intentOrModus[k]][0]][column]);
+			buf.append(columns[column][trListe[0][intentOrModus[k]]]);
 			if (k < intentOrModus[0]) buf.append(", ");
 		}
 		buf.append("}");
@@ -666,7 +1364,7 @@ public class Trias {
 	private String toString (int[] extent) {
 		final StringBuffer buf = new StringBuffer("{");
 		for (int i = 1; i <= extent[0]; i++) {
-			buf.append(itemList[extent[i]][U]);
+			buf.append(columns[U][extent[i]]);
 			if (i < extent[0]) {
 				buf.append(", ");
 			}
@@ -678,39 +1376,19 @@ public class Trias {
 	 * 
 	 * note that this depends entirely on the correct structure of trListe and tupelMap
 	 */
-	private int[] getBxC(int[][] trListe, Map<Tupel, Integer> tupelMap, int[] bSet, int[] cSet) {
+	private int[] getBxC(int[][] trListe, TupleIndex tupelMap, int[] bSet, int[] cSet, final int[] setBxC) {
 		// B x C bauen (also: bSet x bUmfang)
-		int[] setBxC = new int[bSet[0] * cSet[0] + 1];
 		setBxC[0]    = bSet[0] * cSet[0]; // set size
 		// TODO: this loop could (but not should!) be rewritten using only bTimesCCtr and div/mod for getting tt and rr 
 		int bTimesCCtr = 1;
 		for (int tt = 1; tt <= bSet[0]; tt++) {
 			for (int rr = 1; rr <= cSet[0]; rr++) {
-				setBxC[bTimesCCtr++] = tupelMap.get(new Tupel(trListe[bSet[tt]][T], trListe[cSet[rr]][R]));
+				setBxC[bTimesCCtr++] = tupelMap.get(trListe[T][bSet[tt]], trListe[R][cSet[rr]]);
 			}
 		}
 		return setBxC;
 	}
 
-	/* checks if a is contained in b
-	 * 
-	 * a and b contain rows of utrListe, column says on which column we should do the comparison
-	 */
-	private boolean isContainedIn(int[][] utrListe, int[] aSet, int[] bSet, int column) {
-		// check, if aSet is contained in bSet ... TODO: do this with binary search (or a better method - i.e. merging (are a and b sorted?)
-		boolean aContainedInB = true;
-		for (int k = 1; k <= aSet[0] && aContainedInB; k++) {
-			aContainedInB = false;
-			for (int l = 1; l <= bSet[0]; l++) {
-				if (utrListe[aSet[k]][column] == utrListe[bSet[l]][column]) {
-					aContainedInB = true; 
-				}
-			}
-		}
-		return aContainedInB;
-	}
-
-
 	/* returns true, if i is the smallest element (and is contained in b), in which the (ordered) sets a and b differ
 	 * 
 	 */
@@ -723,7 +1401,7 @@ public class Trias {
 	private boolean aLtI (int[][] utrListe, int column, int[] a, int[] b, int i) {
 		int j = 1;
 		// skip equal elements (TODO: this works faster with binary search!)
-		while (j <= a[0] && j <= b[0] && utrListe[a[j]][column] == utrListe[b[j]][column]) {j++;}
+		while (j <= a[0] && j <= b[0] && utrListe[column][a[j]] == utrListe[column][b[j]]) {j++;}
 
 		/*
 		 * now the following cases are possible :
@@ -732,14 +1410,30 @@ public class Trias {
 		 *   - otherwise: FALSE
 		 */
 		return ((j <= b[0]) && 
-				(utrListe[b[j]][column] == utrListe[i][column]) &&
-				(j > a[0] || utrListe[b[j]][column] < utrListe[a[j]][column])); 
+				(utrListe[column][b[j]] == utrListe[column][i]) &&
+				(j > a[0] || utrListe[column][b[j]] < utrListe[column][a[j]])); 
+	}
+
+	/*
+	 * returns true, if the projected relation with n pairs of tCtr tags and 
+	 * rCtr resources is small and dense enough for the BitMatrixMiner
+	 */
+	private boolean isBitMatrixCandidate(final int n, final int tCtr, final int rCtr) {
+		return n > 0 && n <= bitMatrixMaxPairs && n >= bitMatrixMinDensity * tCtr * rCtr;
+	}
+
+	/*
+	 * returns the number of triples of the item of triple i, which is an 
+	 * upper bound for the size of the derivation of every set with this item
+	 */
+	private static int support(final int[] offsets, final int[] remember, final int i) {
+		return offsets[remember[i] + 1] - offsets[remember[i]];
 	}
 
 	/*
 	 * searches for i in the set (which is sorted by utrListe)
 	 */
-	private int getNextI(int[][] utrListe, Integer[] uOrder, int[] uOffsets, int[] uRemember, int column, int[] set, int i) {
+	private int getNextI(int[][] utrListe, int[] uOrder, int[] uOffsets, int[] uRemember, int column, int[] set, int i) {
 		/*
 		 * we might have to decrement i further, if neccessary
 		 */
@@ -764,10 +1458,10 @@ public class Trias {
 		int m = 0;      // mid
 		while (u >= l) {
 			m = (l + u) / 2; // Java rounds to zero, i.e. downwards, if l and u are positive
-			if (liste[i][column] < liste[set[m]][column]) {
+			if (liste[column][i] < liste[column][set[m]]) {
 				// search lower half; 
 				u = m - 1;
-			} else if(liste[i][column] > liste[set[m]][column]) {
+			} else if(liste[column][i] > liste[column][set[m]]) {
 				// search upper half
 				l = m + 1;
 			} else {
@@ -781,14 +1475,14 @@ public class Trias {
 
 
 	// computes A+i according to definition of NEXT CLOSURE (WITHOUT doing the hull!)
-	private int[] aPlusI(Integer[] uOrder, Integer[] trOrder, int[][] liste, int column, int[] uOffsets, int[] trOffsets, int[] uRemember, int[] trRemember, TriasComparator trComparator, TriasComparator uComparator, int[] aSet, int i) {
-		int[] menge = new int[aSet[0] + 2];
+	// (menge receives the result and must have room for aSet[0] + 2 elements)
+	private int[] aPlusI(int[] uOrder, int[] trOrder, int[][] liste, int column, int[] uOffsets, int[] trOffsets, int[] uRemember, int[] trRemember, TriasComparator trComparator, TriasComparator uComparator, int[] aSet, int i, final int[] menge) {
 		menge[0]    = 0; // initialize element-count
 
 		// intersect with {1,2,...,i-1}
 		for (int j=1; j<=aSet[0]; j++) { // TODO: this can be further restricted!?
 			// copy those elements of A, which are smaller than i
-			if (liste[aSet[j]][column] < liste[i][column]) {
+			if (liste[column][aSet[j]] < liste[column][i]) {
 				// copy
 				menge[j] = aSet[j]; 
 				menge[0] = j; // remember number of elements
@@ -808,51 +1502,46 @@ public class Trias {
 		  return temp; */
 	}
 
-	// puts for every x \in menge the value of toBeSorted[x][U] in a set and returns this  
+	// puts for every x \in menge the value of toBeSorted[U][x] in a set and returns this  
 	private TreeSet<Integer> getUSetFromArray (int[][] toBeSorted, int[] menge) {
 		TreeSet<Integer> result = new TreeSet<Integer>();
 		for (int i = 1; i <= menge[0]; i++) {
-			result.add(toBeSorted[menge[i]][U]);
+			result.add(toBeSorted[U][menge[i]]);
 		}
 		return result;
 	}
 	private TreeSet<Integer> getTSetFromArray (int[][] toBeSorted, int[] menge) {
 		TreeSet<Integer> result = new TreeSet<Integer>();
 		for (int i = 1; i <= menge[0]; i++) {
-			result.add(toBeSorted[menge[i]][T]);
+			result.add(toBeSorted[T][menge[i]]);
 		}
 		return result;
 	}
 	private TreeSet<Integer> getRSetFromArray (int[][] toBeSorted, int[] menge) {
 		TreeSet<Integer> result = new TreeSet<Integer>();
 		for (int i = 1; i <= menge[0]; i++) {
-			result.add(toBeSorted[menge[i]][R]);
+			result.add(toBeSorted[R][menge[i]]);
 		}
 		return result;
 	}
-	// puts for every x \in menge the value of (toBeSorted[x][T],toBeSorted[x][R]) in a set returns this
+	// puts for every x \in menge the value of (toBeSorted[T][x],toBeSorted[R][x]) in a set returns this
 	private TreeSet<Tupel> getTrSetFromArray(int[][] toBeSorted, int[] menge) {
 		TreeSet <Tupel> result = new TreeSet<Tupel>();
 		for (int i = 1; i <= menge[0]; i++) {
-			Tupel t = new Tupel (toBeSorted[menge[i]][T], toBeSorted[menge[i]][R]);
+			Tupel t = new Tupel (toBeSorted[T][menge[i]], toBeSorted[R][menge[i]]);
 			result.add(t);
 		}
 		return result;
 	}
 
 
-	// interface for comparison of certain columns in a utrListe
-	private interface TriasComparator {
-		public int compare (int[] a, int[] b);
-	}
-
 	private class OneDimensionComparator implements TriasComparator {
 		private final int dim;
 		public OneDimensionComparator (final Dimension dim) {
 			this.dim = dim.intValue();
 		}
-		public int compare (int[] a, int[] b) {
-			return a[dim] - b[dim];
+		public int compare (int[][] values, int a, int b) {
+			return values[dim][a] - values[dim][b];
 		}
 	}
 
@@ -872,13 +1561,14 @@ public class Trias {
 			this.dim2 = dim2.intValue();
 		}
 
-		public int compare (int[] a, int[] b) {
-			if (a[dim1] < b[dim1]) {
+		public int compare (int[][] values, int a, int b) {
+			final int[] column1 = values[dim1];
+			if (column1[a] < column1[b]) {
 				return -1;
-			} else if (a[dim1] > b[dim1]) {
+			} else if (column1[a] > column1[b]) {
 				return +1;
 			}
-			return a[dim2] - b[dim2];
+			return values[dim2][a] - values[dim2][b];
 		}
 	}
 
@@ -889,11 +1579,10 @@ public class Trias {
 	 * TODO: * Vorsortierung der Elemente von menge nach Größe (kleinste zu erst) um Schnitt zu beschleunigen
 	 *       * leere Menge korrekt verarbeiten (gesamte Menge zurückgeben) oder Exception werfen?
 	 */
-	private int[] prime (final int[][] values, final Integer[] order, final int[] offsets, final Integer[] xOrder, final int[] xOffsets, final int[] remember, final int[] menge, final TriasComparator comparator) {
+	private int[] prime (final int[][] values, final int[] order, final int[] offsets, final int[] xOrder, final int[] xOffsets, final int[] remember, final int[] menge, final TriasComparator comparator, final int[] result, final Scratch scratch) {
 
 
 		if (menge[0] == 0) { // empty set --> return all elements
-			int[] result = new int[xOffsets.length]; // hat die Größe von xOffsets
 			for (int i = 1; i <= xOffsets[0]; i++) {
 				result[i] = xOrder[xOffsets[i]]; 
 			}
@@ -904,12 +1593,11 @@ public class Trias {
 			// TODO: preprocessing: order values in menge by offsets[i + 1] - offsets[i] (i.e. by size, smallest first, to speed up intersection)
 
 			// order menge by size
-			Integer[] mengeOrdered = orderBySize(menge, offsets, remember);
+			int[] mengeOrdered = orderBySize(menge, offsets, remember, scratch);
 			
-			// copy first column to result
+			// copy first column to result (result is large enough, since more elements are not possible)
 			int u0 = menge[mengeOrdered[0]]; // smallest set
-			int[] result = new int[offsets[remember[u0] + 1] - offsets[remember[u0]] + 1]; // mehr Elemente können es nicht werden
-			result[0] = offsets[remember[u0] + 1] - offsets[remember[u0]]; // how many objects? // TODO: = result.length - 1
+			result[0] = offsets[remember[u0] + 1] - offsets[remember[u0]]; // how many objects?
 			for (int i = 0; i < result[0]; i++) {
 				int l = order[offsets[remember[u0]] + i];
 				result[i + 1] =  l; 
@@ -917,19 +1605,8 @@ public class Trias {
 			/*
 			 * intersection of result with all other sets (offsets[])
 			 */ 
-			for (int i = 1; i < mengeOrdered.length; i++) {
-				/*
-				 * gute Schnittfunktion auswählen
-				 */
-				//final int rate = 2;
-				//if (result[0] / (offsets[remember[menge[i]] + 1] - offsets[remember[menge[i]]]) < rate && 
-				//	result[0] / (offsets[remember[menge[i]] + 1] - offsets[remember[menge[i]]]) > 1/rate) {
-				// ungefähr gleich groß (0.5 < |A| / |B| < 2)
-				s2intersection (result, values, order, offsets[remember[menge[mengeOrdered[i]]]], offsets[remember[menge[mengeOrdered[i]]] + 1] - 1, comparator);
-				//} else {
-				// unterschiedlich große Mengen: binäre Suche effektiver
-				//	intersection (result, values, order, offsets[remember[menge[i]]], offsets[remember[menge[i]] + 1] - 1, comparator);
-				//}
+			for (int i = 1; i < menge[0] && result[0] > 0; i++) {
+				SetIntersection.intersect(result, values, order, offsets[remember[menge[mengeOrdered[i]]]], offsets[remember[menge[mengeOrdered[i]]] + 1] - 1, comparator);
 			}
 			return result;
 		}
@@ -938,13 +1615,107 @@ public class Trias {
 
 
 
-	private Integer[] orderBySize (int[] menge, int[] offsets, int[] remember) {
-		// initialize order array to: 1..menge[0] 
-		Integer[] order = new Integer[menge[0]];
-		for (int i = 0; i < order.length; i++) {
-			order[i] = i + 1;
+	/**
+	 * Creates the derivation operators for the context whose objects and 
+	 * attributes are given by the orders and offset tables, using the 
+	 * configured {@link DerivationEngine}.
+	 */
+	private Derivation createDerivation(final int[][] values, final int[] objectOrder, final int[] objectOffsets, final int[] objectRemember, final int[] attributeOrder, final int[] attributeOffsets, final int[] attributeRemember, final TriasComparator objectComparator, final TriasComparator attributeComparator) {
+		switch (derivationEngine) {
+		case BITSET:
+			return new BitSetDerivation(objectOrder, objectOffsets, objectRemember, attributeOrder, attributeOffsets, attributeRemember);
+		default:
+			return new ListDerivation(values, objectOrder, objectOffsets, objectRemember, attributeOrder, attributeOffsets, attributeRemember, objectComparator, attributeComparator);
+		}
+	}
+
+	/**
+	 * Computes the derivation operators with {@link Trias#prime(int[][], int[], int[], int[], int[], int[], int[], TriasComparator, int[], Scratch)},
+	 * i.e., by intersecting the sorted lists of triple positions.
+	 */
+	private class ListDerivation implements Derivation {
+		private final int[][] values;
+		private final int[] objectOrder;
+		private final int[] objectOffsets;
+		private final int[] objectRemember;
+		private final int[] attributeOrder;
+		private final int[] attributeOffsets;
+		private final int[] attributeRemember;
+		private final TriasComparator objectComparator;
+		private final TriasComparator attributeComparator;
+
+		public ListDerivation(final int[][] values, final int[] objectOrder, final int[] objectOffsets, final int[] objectRemember, final int[] attributeOrder, final int[] attributeOffsets, final int[] attributeRemember, final TriasComparator objectComparator, final TriasComparator attributeComparator) {
+			this.values = values;
+			this.objectOrder = objectOrder;
+			this.objectOffsets = objectOffsets;
+			this.objectRemember = objectRemember;
+			this.attributeOrder = attributeOrder;
+			this.attributeOffsets = attributeOffsets;
+			this.attributeRemember = attributeRemember;
+			this.objectComparator = objectComparator;
+			this.attributeComparator = attributeComparator;
+		}
+
+		public int[] primeOfObjects(final int[] objects) {
+			final Scratch scratch = Trias.this.scratch.get();
+			return copy(primeOfObjects(objects, scratch.primeResult(numberOfAttributes() + 1), scratch));
+		}
+
+		public int[] primeOfAttributes(final int[] attributes) {
+			final Scratch scratch = Trias.this.scratch.get();
+			return copy(primeOfAttributes(attributes, scratch.primeResult(numberOfObjects() + 1), scratch));
+		}
+
+		public int[] primeOfObjects(final int[] objects, final int[] result, final Scratch scratch) {
+			return prime(values, objectOrder, objectOffsets, attributeOrder, attributeOffsets, objectRemember, objects, attributeComparator, result, scratch);
+		}
+
+		public int[] primeOfAttributes(final int[] attributes, final int[] result, final Scratch scratch) {
+			return prime(values, attributeOrder, attributeOffsets, objectOrder, objectOffsets, attributeRemember, attributes, objectComparator, result, scratch);
+		}
+
+		public int[] intersectPrimeOfObject(final int[] attributes, final int object, final int[] result) {
+			System.arraycopy(attributes, 0, result, 0, attributes[0] + 1);
+			final int item = objectRemember[object];
+			SetIntersection.intersect(result, values, objectOrder, objectOffsets[item], objectOffsets[item + 1] - 1, attributeComparator);
+			return result;
+		}
+
+		public int numberOfObjects() {
+			return objectOffsets[0];
+		}
+
+		public int numberOfAttributes() {
+			return attributeOffsets[0];
+		}
+
+		private int[] copy(final int[] set) {
+			return Arrays.copyOf(set, set[0] + 1);
+		}
+	}
+
+	/*
+	 * returns the positions 1..menge[0] of menge (in the first menge[0] 
+	 * elements of a scratch array), ordered by the size of the elements' 
+	 * extents (or intents), smallest first; equal sizes keep their position 
+	 * order
+	 */
+	private int[] orderBySize (int[] menge, int[] offsets, int[] remember, final Scratch scratch) {
+		final int length = menge[0];
+		/*
+		 * pack (size, position) into one long, such that a primitive sort 
+		 * orders by size first and by position second
+		 */
+		final long[] keys = scratch.sizeKeys(length);
+		for (int i = 0; i < length; i++) {
+			final int size = offsets[remember[menge[i + 1]] + 1] - offsets[remember[menge[i + 1]]];
+			keys[i] = ((long) size << 32) | (i + 1);
+		}
+		Arrays.sort(keys, 0, length);
+		final int[] order = scratch.sizeOrder(length);
+		for (int i = 0; i < length; i++) {
+			order[i] = (int) keys[i];
 		}
-		Arrays.sort(order,new IntArraySizeComparator(menge, offsets, remember));
 		return order;
 	}
 
@@ -994,190 +1765,96 @@ public class Trias {
 		}
 	}
 
-	/* fast set intersection (theoretically fast but complicated ... thus not used)
+	/** Sets the number of items for each dimension.
 	 * 
-	 */ 
-	private void intersection (int[] result, int[][] values, Integer[] order, int startQ, int endQ, int startD, int endD) {
-		/* Strategie:
-		 * 
-		 * die Mitte des kleineren Feldes nehmen und dort ein Element suchen, welches im anderen enthalten ist
-		 * dieses dann festhalten und an dieser Stelle halbieren und verzweigen
-		 * 
-		 */
-		if (endQ < startQ || endD < startD) {
-			return;
-		}
-		// Felder tauschen, falls D kleiner als Q 
-		// dadurch enthält das Endergebnis Indizes verschiedener User!
-		if (endQ-startQ > endD-startD) {
-			// endQ <-> endD
-			int t = endQ;
-			endQ = endD;
-			endD = t;
-			// startQ <-> startD
-			t = startQ;
-			startQ = startD;
-			startD = t;
-		}
-		// Mitte von Q nehmen und in D suchen
-		int midPosQ = startQ + (endQ - startQ)/2;
-
-		//		System.out.println("searching for " + toString(values[order[midPosQ]]) + " in D");
-		//		System.out.println("startD = " + startD + ", endD = " + endD);
-
-		// do binary search
-		int l = startD; // lower bound
-		int u = endD;   // upper bound
-		int i = 0;      // mid
-		while (u >= l) {
-			i = (l + u) / 2; // Java rounds to zero, i.e. downwards, if l and u are positive
-			int comp = myComparator(values[order[midPosQ]], values[order[i]]); 
-			if (comp < 0) {
-				// search lower half; 
-				u = i - 1;
-			} else if(comp > 0) {
-				// search upper half
-				l = i + 1;
-			} else {
-				// gefunden!
-				result[result[0]] = i;
-				result[0] ++;
-				break;
-			}
-		}
-		if (u < l) {
-			// if not found, K[u] < X < K[l] holds			
-			//			System.out.println("not found, i = " + i);
-			intersection(result, values, order, startQ, midPosQ - 1, startD, u);
-			intersection(result, values, order, midPosQ + 1, endQ, l, endD);	
-		} else {
-			// found on pos i
-			intersection(result, values, order, startQ, midPosQ - 1, startD, i - 1);
-			intersection(result, values, order, midPosQ + 1, endQ, i + 1, endD);	
-		}
-	}
-	// vergleicht die Spalten 1 und 2 der Felder a und b
-	private int myComparator (int[] a, int[] b) {
-		if (a[1] < b[1]) {
-			return -1;
-		} else if (a[1] > b[1]) {
-			return +1;
-		}
-		return a[2] - b[2];
-	}	
-
-
-	/* Diese Routine berechnet den Schnitt zwischen der Menge result und der Menge, die von order[startB] bis order[endB] steht 
-	 * Eingabe:
-	 *   result: ein Feld, welches die Menge A enthält, diese ist nach values() (für entsprechendes c) sortiert, 
-	 *           d.h. es gilt stets: comp(values[result[i]], values[result[i+1]]) == -1 (gleiches gilt für die Menge B 
-	 *           result[0] enthält stets die ANZAHL der Elemente der Menge! (d.h. von 1 bis result[0] iterieren)
-	 */
-	private void s2intersection (int[] result, int[][] values, Integer[] order, int startB, int endB, TriasComparator comparator) {
-		int i = 1;             // Start der Menge A
-		int i_max = result[0]; // Ende  der Menge A 
-		result[0] = 0;
-		int j = startB;        // Start der Menge B
-		int comp;              // speichert Vergleichsergebnis
-		while (i <= i_max && j <= endB) { // iterieren, bis Ende einer Menge erreicht
-			comp = comparator.compare(values[result[i]], values[order[j]]);
-			if (comp < 0) {
-				// kleiner
-				i++;
-			} else if (comp > 0) {
-				// größer
-				j++;
-			} else {
-				// gleich --> Wert merken!
-				result[0] ++;                 // ein Element mehr in der Ergebnis-Menge
-				result[result[0]] = order[j]; // Position in order-Tabelle merken
-				i++;
-				j++;
-			}
-		}
+	 * @param numberOfItemsPerDimension
+	 */
+	public void setNumberOfItemsPerDimension(int[] numberOfItemsPerDimension) {
+		this.numberOfItemsPerDimension = numberOfItemsPerDimension;
 	}
 
-	/* neccessary to sort utrListe by different column permutations
-	 * benötigt zum Sortieren der utrListe nach verschiedenen Spaltenpermutationen
+	/** Sets the minimal support values for each dimension.
 	 * 
+	 * @param minSupportPerDimension
 	 */
-	private class IntArrayComparator implements Comparator<Integer> {
-
-		private final int[][] _ints;
-		private final int[] _permutation;
-
-		public IntArrayComparator(int[][] ints, int[] permutation) { 
-			_ints = ints; 
-			_permutation = permutation;
-		}
-
-		public int compare(Integer arg0, Integer arg1) {
-			for(int j = 0; j<_permutation.length; j++) {
-				if (_ints[arg0][_permutation[j]] < _ints[arg1][_permutation[j]]){
-					return -1;
-				}
-				if (_ints[arg0][_permutation[j]] > _ints[arg1][_permutation[j]]){
-					return 1;
-				}
-			}
-			return arg0 - arg1;
-		}		
+	public void setMinSupportPerDimension(int[] minSupportPerDimension) {
+		this.minSupportPerDimension = minSupportPerDimension;
 	}
 
-	/* neccessary to sort menge by size of the element extends (or intents)
-	 * benötigt zum Sortieren der menge nach Größe der Elementumfänge (bzw. -inhalte)
+	/** Sets the input data, an array of size {@link #numberOfTriples} times 4. 
+	 * The triples are copied into a {@link TripleStore}.
 	 * 
+	 * @param itemList
 	 */
-	private class IntArraySizeComparator implements Comparator<Integer> {
+	public void setItemList(int[][] itemList) {
+		setTripleStore(TripleStore.fromItemList(itemList));
+	}
 
-		private final int[] _menge;
-		private final int[] _offsets;
-		private final int[] _remember;	
+	/** Sets the input data. 
+	 * 
+	 * @param tripleStore
+	 */
+	public void setTripleStore(final TripleStore tripleStore) {
+		this.tripleStore = tripleStore;
+	}
 
-		public IntArraySizeComparator(int[] menge, int[] offsets, int[] remember) { 
-			_menge    = menge; 
-			_offsets  = offsets;
-			_remember = remember; 
-		}
 
-		public int compare(Integer arg0, Integer arg1) {
-			// erste Menge enthält weniger Elemente
-			if (_offsets[_remember[_menge[arg0]] + 1] - _offsets[_remember[_menge[arg0]]] < _offsets[_remember[_menge[arg1]] + 1] - _offsets[_remember[_menge[arg1]]]){
-				return -1;
-			}
-			// erste Menge enthält mehr Elemente
-			if (_offsets[_remember[_menge[arg0]] + 1] - _offsets[_remember[_menge[arg0]]] > _offsets[_remember[_menge[arg1]] + 1] - _offsets[_remember[_menge[arg1]]]){
-				return 1;
-			}	
-			return 0;
-		}		
+	/** Sets the index of the context, e.g., when it was built (or loaded, 
+	 * see {@link ContextIndex#read(java.nio.ByteBuffer)}) outside, together 
+	 * with its triples and numbers of items. Trias only uses the index, if 
+	 * it mines exactly these triples, i.e., if the context is not reduced 
+	 * or permuted.
+	 * 
+	 * @param contextIndex
+	 */
+	public void setContextIndex(final ContextIndex contextIndex) {
+		this.contextIndex = contextIndex;
+		this.tripleStore = contextIndex.getTripleStore();
+		this.numberOfItemsPerDimension = contextIndex.getNumberOfItemsPerDimension();
 	}
 
-	/** Sets the number of items for each dimension.
+	/** Mines only the branches of the outer Close-by-One tree which start 
+	 * with the users from..to, i.e., the tri-concepts whose extents were 
+	 * generated by adding one of these users to the closure of the empty 
+	 * set (which itself belongs to the branches starting at 1). Disjoint 
+	 * ranges of branches yield disjoint sets of tri-concepts, which 
+	 * together are the result of the whole context (see 
+	 * {@link PartitionedTrias}). The context is then neither reduced nor 
+	 * permuted, since the user ids must not change. 
 	 * 
-	 * @param numberOfItemsPerDimension
+	 * @param from - the first user
+	 * @param to - the last user
 	 */
-	public void setNumberOfItemsPerDimension(int[] numberOfItemsPerDimension) {
-		this.numberOfItemsPerDimension = numberOfItemsPerDimension;
+	public void setOuterBranches(final int from, final int to) {
+		this.outerBranchesFrom = from;
+		this.outerBranchesTo = to;
 	}
 
-	/** Sets the minimal support values for each dimension.
+	/** Saves the state of the outer next closure periodically to the 
+	 * file (see {@link #setCheckpointInterval(long)}). If the file exists 
+	 * when mining starts, Trias continues from the saved state, after the 
+	 * writer has discarded what was written since then. The result is the 
+	 * same as that of an uninterrupted run on the same triples with the 
+	 * same minimal supports. The file is deleted when mining has finished. 
 	 * 
-	 * @param minSupportPerDimension
+	 * Checkpoints need a {@link CheckpointTriasWriter} and are only 
+	 * supported by the sequential outer next closure with one inner 
+	 * thread.
+	 * 
+	 * @param checkpointFile
 	 */
-	public void setMinSupportPerDimension(int[] minSupportPerDimension) {
-		this.minSupportPerDimension = minSupportPerDimension;
+	public void setCheckpointFile(final File checkpointFile) {
+		this.checkpointFile = checkpointFile;
 	}
 
-	/** Sets the input data, an array of size {@link #numberOfTriples} times 4.
+	/** Sets the time between two checkpoints. Default is ten minutes.
 	 * 
-	 * @param itemList
+	 * @param checkpointInterval - in milliseconds
 	 */
-	public void setItemList(int[][] itemList) {
-		this.itemList = itemList;
+	public void setCheckpointInterval(final long checkpointInterval) {
+		this.checkpointInterval = checkpointInterval;
 	}
 
-
 	/** Sets the writer which writes the computed tri concepts.
 	 * 
 	 * @param triConceptWriter
@@ -1186,6 +1863,250 @@ public class Trias {
 		this.triConceptWriter = triConceptWriter;
 	}
 
+	/** Sets the number of threads used for mining. With more than one 
+	 * thread, the outer loop is split into independent branches which are 
+	 * mined on a {@link ForkJoinPool}. The order of the tri-concepts given
+	 * to the writer is then no longer deterministic. The threads are also 
+	 * used to sort the triples during preprocessing (see {@link ContextIndex}). 
+	 * 
+	 * @param numberOfThreads
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	/** Sets the number of threads which run the inner next closure 
+	 * concurrently, while the (sequential) outer loop continues. 
+	 * 
+	 * @param numberOfInnerThreads
+	 */
+	public void setNumberOfInnerThreads(int numberOfInnerThreads) {
+		this.numberOfInnerThreads = numberOfInnerThreads;
+	}
+
+	/** Sets the number of inner next closure jobs which may wait in addition
+	 * to the running ones. If the outer loop runs ahead, it blocks until a 
+	 * job is finished. Defaults to four times the number of inner threads.
+	 * 
+	 * @param innerQueueDepth
+	 */
+	public void setInnerQueueDepth(int innerQueueDepth) {
+		this.innerQueueDepth = innerQueueDepth;
+	}
+
+	/** If <code>true</code> (default), the results of the concurrent inner 
+	 * next closure are written in the same order as by the sequential 
+	 * algorithm. Otherwise, they're written as soon as they're found. 
+	 * 
+	 * @param orderedOutput
+	 */
+	public void setOrderedOutput(boolean orderedOutput) {
+		this.orderedOutput = orderedOutput;
+	}
+
+	/** Selects the data structures used to compute the derivation operators
+	 * in the outer and inner loop.
+	 * 
+	 * @param derivationEngine
+	 */
+	public void setDerivationEngine(DerivationEngine derivationEngine) {
+		this.derivationEngine = derivationEngine;
+	}
+
+	/** Selects the algorithm which enumerates the closed sets in the outer
+	 * and inner loop. With {@link ClosureEngine#FCBO} and more than one 
+	 * thread, the branches of the outer Fast Close-by-One tree are mined 
+	 * in parallel (see {@link #setNumberOfThreads(int)}).
+	 * 
+	 * @param closureEngine
+	 */
+	public void setClosureEngine(ClosureEngine closureEngine) {
+		this.closureEngine = closureEngine;
+	}
+
+	/** If <code>true</code>, a {@link DimensionPlanner} decides which 
+	 * dimension is enumerated in the outer loop and which in the inner 
+	 * loop. The columns are then permuted before mining and the sets of 
+	 * each tri-concept are put back into the original order before they 
+	 * reach the writer. Default is <code>false</code>, i.e., U is outer. 
+	 * The dimensions are only permuted, if all minimal supports are at 
+	 * least 1, since otherwise the tri-concepts with empty sets depend on
+	 * the order of the dimensions.
+	 * 
+	 * @param dimensionPlanning
+	 * @see #getDimensionPlanReport()
+	 */
+	public void setDimensionPlanning(final boolean dimensionPlanning) {
+		this.dimensionPlanning = dimensionPlanning;
+	}
+
+	/** If <code>true</code>, a {@link SupportReduction} removes the items 
+	 * which have too few triples to be part of a frequent tri-concept 
+	 * before mining. The remaining items are re-numbered and the 
+	 * tri-concepts are mapped back to the original ids before they reach 
+	 * the writer, thus the result does not change. Default is 
+	 * <code>true</code>. As for {@link #setDimensionPlanning(boolean)}, the 
+	 * context is only reduced, if all minimal supports are at least 1.
+	 * 
+	 * @param supportReduction
+	 */
+	public void setSupportReduction(final boolean supportReduction) {
+		this.supportReduction = supportReduction;
+	}
+
+	/** Projected relations of the inner loop with at most that many (t,r) 
+	 * pairs are mined with a {@link BitMatrixMiner}, which needs no offset 
+	 * tables (if they are dense enough, see 
+	 * {@link #setBitMatrixMinDensity(double)}). Default is 4096, 0 disables 
+	 * the bit matrix. 
+	 * 
+	 * @param bitMatrixMaxPairs
+	 */
+	public void setBitMatrixMaxPairs(final int bitMatrixMaxPairs) {
+		this.bitMatrixMaxPairs = bitMatrixMaxPairs;
+	}
+
+	/** Projected relations of the inner loop whose bit matrix would have 
+	 * a smaller fraction of set bits are not mined with a 
+	 * {@link BitMatrixMiner}. Default is 0.05. 
+	 * 
+	 * @param bitMatrixMinDensity
+	 * @see #setBitMatrixMaxPairs(int)
+	 */
+	public void setBitMatrixMinDensity(final double bitMatrixMinDensity) {
+		this.bitMatrixMinDensity = bitMatrixMinDensity;
+	}
+
+	/** Dry run of the dimension planning: estimates the costs of all 
+	 * permutations of the dimensions, without mining. As in 
+	 * {@link #doWork()}, the costs are estimated on the context after the 
+	 * support reduction (if it is enabled), and the dimensions are not 
+	 * permuted if a minimal support is 0 or the outer branches are 
+	 * restricted. 
+	 * 
+	 * @return A report of the estimated costs.
+	 * @see DimensionPlanner
+	 */
+	public String getDimensionPlanReport() {
+		if (!excludesEmptySets() || hasOuterBranches()) {
+			return "the dimensions are not permuted, since " + (hasOuterBranches() ? "the outer branches are restricted" : "a minimal support is 0") + "\n";
+		}
+		TripleStore triples = tripleStore;
+		int[] numberOfItems = numberOfItemsPerDimension;
+		if (supportReduction) {
+			final SupportReduction reduction = new SupportReduction(tripleStore, numberOfItemsPerDimension, minSupportPerDimension);
+			if (reduction.getTripleStore().size() == 0) {
+				return "the support reduction removed all triples, nothing is mined\n";
+			}
+			if (reduction.getNumberOfRemovedTriples() > 0) {
+				triples = reduction.getTripleStore();
+				numberOfItems = reduction.getNumberOfItemsPerDimension();
+			}
+		}
+		return new DimensionPlanner(triples, numberOfItems, minSupportPerDimension).getReport();
+	}
+
+	/** Enables counting the bytes allocated by the inner next closure loop 
+	 * (for testing). Once the temporary arrays of a thread have grown to 
+	 * their final size, the loop should not allocate anything, as long as 
+	 * debug logging is disabled and the list based derivation is used. 
+	 * 
+	 * @param allocationCheck
+	 * @throws UnsupportedOperationException - if the JVM can not count allocations per thread
+	 * @see #getInnerLoopAllocatedBytes()
+	 */
+	public void setAllocationCheck(final boolean allocationCheck) {
+		this.innerLoopAllocation = allocationCheck ? new AllocationCounter() : null;
+	}
+
+	/**
+	 * @return The bytes allocated by the inner next closure loop during the 
+	 * last run of {@link #doWork()}, or -1 if the check is not enabled.
+	 * @see #setAllocationCheck(boolean)
+	 */
+	public long getInnerLoopAllocatedBytes() {
+		return innerLoopAllocation != null ? innerLoopAllocation.getBytes() : -1;
+	}
+
+	/** Enables the cache for the inner concepts of projected relations: 
+	 * when different outer concepts lead to the same relation (up to an 
+	 * order preserving re-numbering of T and R), the inner concepts are 
+	 * taken from the cache and only the triadic condition is checked. 
+	 * 
+	 * @param innerConceptCacheSize - the maximal number of array elements 
+	 * (4 bytes each) the cache may hold; 0 (default) disables it
+	 * @see #getInnerConceptCacheHits()
+	 * @see #getInnerConceptCacheMisses()
+	 */
+	public void setInnerConceptCacheSize(final long innerConceptCacheSize) {
+		this.innerConceptCacheSize = innerConceptCacheSize;
+	}
+
+	/**
+	 * @return The number of projected relations whose inner concepts were 
+	 * found in the cache during the last run of {@link #doWork()}. 
+	 * @see #setInnerConceptCacheSize(long)
+	 */
+	public long getInnerConceptCacheHits() {
+		return innerConceptCache != null ? innerConceptCache.getHits() : 0;
+	}
+
+	/**
+	 * @return The number of projected relations whose inner concepts were 
+	 * not found in the cache during the last run of {@link #doWork()}.
+	 * @see #setInnerConceptCacheSize(long)
+	 */
+	public long getInnerConceptCacheMisses() {
+		return innerConceptCache != null ? innerConceptCache.getMisses() : 0;
+	}
+
+	/**
+	 * @return The number of users which were skipped during the last run of 
+	 * {@link #doWork()} without computing their closure, because they have 
+	 * fewer than minsup_T * minsup_R (t,r) pairs.
+	 */
+	public long getPrunedOuterCandidates() {
+		return prunedOuterCandidates.get();
+	}
+
+	/**
+	 * @return The number of tags which were skipped in the inner loops during 
+	 * the last run of {@link #doWork()} without computing their closure, 
+	 * because they have fewer than minsup_R resources in the projected relation.
+	 */
+	public long getPrunedInnerCandidates() {
+		return prunedInnerCandidates.get();
+	}
+
+	/** If <code>true</code> (default), the inner loop enumerates the closed 
+	 * sets of resources instead of tags for each projected relation which 
+	 * has fewer resources than tags. The tri-concepts are the same. 
+	 * 
+	 * @param innerTransposition
+	 * @see #getInnerLoopsOverTags()
+	 * @see #getInnerLoopsOverResources()
+	 */
+	public void setInnerTransposition(final boolean innerTransposition) {
+		this.innerTransposition = innerTransposition;
+	}
+
+	/**
+	 * @return The number of projected relations whose closed sets of tags 
+	 * were enumerated during the last run of {@link #doWork()}.
+	 */
+	public long getInnerLoopsOverTags() {
+		return innerLoopsOverTags.get();
+	}
+
+	/**
+	 * @return The number of projected relations whose closed sets of 
+	 * resources were enumerated during the last run of {@link #doWork()}.
+	 * @see #setInnerTransposition(boolean)
+	 */
+	public long getInnerLoopsOverResources() {
+		return innerLoopsOverResources.get();
+	}
+
 	public ProgressLogger getPl() {
 		return pl;
 	}
@@ -0,0 +1,339 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.io;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Wraps a {@link TriasWriter} and writes the tri-concepts in a thread of 
+ * its own, such that formatting and flushing does not stall the mining. 
+ * <p>
+ * The concepts are copied into a bounded ring buffer of ints (for each 
+ * concept the number of sets, and for each set its size and its items), 
+ * thus {@link #write(int[][])} does not allocate. The buffer has one 
+ * producer and one consumer and needs no locks: each side publishes its 
+ * position after each concept (and before it waits for the other side, 
+ * such that concepts larger than the buffer can pass). When the buffer is 
+ * full, the producer waits as given by its {@link Backpressure}. When it 
+ * is empty, the consumer parks until the producer wakes it up.
+ * <p>
+ * {@link #write(int[][])} must not be called by several threads at the 
+ * same time (wrap this writer into a {@link SynchronizedTriasWriter}, 
+ * if necessary). An exception of the wrapped writer is thrown by the next 
+ * call of {@link #write(int[][])} or by {@link #close()}, which waits 
+ * until all concepts have been written and closes the wrapped writer. 
+ * 
+ */
+public class AsyncTriasWriter implements TriasWriter {
+
+	private static final Logger log = Logger.getLogger(AsyncTriasWriter.class);
+
+	/**
+	 * How the producer waits, when the buffer is full.
+	 */
+	public enum Backpressure {
+		/**
+		 * busy waiting (lowest latency, occupies a core)
+		 */
+		SPIN,
+		/**
+		 * yields the processor between checks
+		 */
+		YIELD,
+		/**
+		 * parks the thread for a short time between checks (the default)
+		 */
+		PARK
+	}
+
+	private static final long PARK_NANOS = 10000;
+	/*
+	 * the longest time the idle consumer parks without being woken up
+	 */
+	private static final long MAX_IDLE_PARK_NANOS = 100000000;
+
+	private final TriasWriter writer;
+	private final Backpressure backpressure;
+	private final int[] buffer;
+	private final int mask;
+	private final Thread consumer;
+
+	/*
+	 * positions of producer and consumer (they only grow, the index in the 
+	 * buffer is position & mask)
+	 */
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong head = new AtomicLong();
+	private long producerTail = 0;    // not yet published position of the producer
+	private long producerLimit = 0;   // the producer may write until here without checking the head
+
+	private volatile boolean closed = false;
+	private volatile boolean sleeping = false; // the consumer parks, since the buffer is empty
+	private volatile Throwable error = null;
+
+	/*
+	 * statistics
+	 */
+	private long concepts = 0;        // written by the producer
+	private long waits = 0;           // times the producer found the buffer full
+	private long waitNanos = 0;       // time the producer waited
+	private final long start = System.nanoTime();
+	private volatile long stop = 0;
+
+	/**
+	 * Buffers up to 65536 ints and parks when the buffer is full.
+	 * 
+	 * @param writer - receives the tri-concepts in the writer thread
+	 */
+	public AsyncTriasWriter(final TriasWriter writer) {
+		this(writer, 1 << 16, Backpressure.PARK);
+	}
+
+	/**
+	 * @param writer - receives the tri-concepts in the writer thread
+	 * @param capacity - the size of the buffer in ints (rounded up to a power of two)
+	 * @param backpressure - how to wait, when the buffer is full
+	 */
+	public AsyncTriasWriter(final TriasWriter writer, final int capacity, final Backpressure backpressure) {
+		if (capacity < 1 || capacity > 1 << 30) throw new IllegalArgumentException("capacity must be between 1 and 2^30, but is " + capacity);
+		this.writer = writer;
+		this.backpressure = backpressure;
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) size <<= 1;
+		this.buffer = new int[size];
+		this.mask = buffer.length - 1;
+		this.consumer = new Thread(new Runnable() {
+			public void run() {
+				consume();
+			}
+		}, "trias-writer");
+		this.consumer.setDaemon(true);
+		this.consumer.start();
+	}
+
+	public void write(final int[][] concept) throws IOException {
+		if (closed) throw new IOException("writer is closed");
+		checkError();
+		put(concept.length);
+		for (final int[] set: concept) {
+			put(set.length);
+			for (final int item: set) {
+				put(item);
+			}
+		}
+		tail.lazySet(producerTail);
+		wakeUpConsumer();
+		concepts++;
+	}
+
+	/*
+	 * The producer publishes its position without a fence, thus it may 
+	 * miss that the consumer just started to sleep. Then the consumer 
+	 * wakes up by itself, after at most MAX_IDLE_PARK_NANOS.
+	 */
+	private void wakeUpConsumer() {
+		if (sleeping) LockSupport.unpark(consumer);
+	}
+
+	/*
+	 * appends one int to the buffer, waits if it is full
+	 */
+	private void put(final int value) throws IOException {
+		if (producerTail == producerLimit) {
+			producerLimit = head.get() + buffer.length;
+			if (producerTail == producerLimit) {
+				// full: publish what we have and wait for the consumer
+				tail.lazySet(producerTail);
+				wakeUpConsumer();
+				waits++;
+				final long waitStart = System.nanoTime();
+				do {
+					checkError();
+					pause(backpressure);
+					producerLimit = head.get() + buffer.length;
+				} while (producerTail == producerLimit);
+				waitNanos += System.nanoTime() - waitStart;
+			}
+		}
+		buffer[(int) (producerTail++ & mask)] = value;
+	}
+
+	private void checkError() throws IOException {
+		final Throwable e = error;
+		if (e != null) {
+			if (e instanceof IOException) throw (IOException) e;
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Waits until all tri-concepts have been written and closes the 
+	 * wrapped writer.
+	 * 
+	 * @throws IOException - if the wrapped writer failed
+	 */
+	public void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			LockSupport.unpark(consumer);
+			boolean interrupted = false;
+			while (consumer.isAlive()) {
+				try {
+					consumer.join();
+				} catch (final InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) Thread.currentThread().interrupt();
+			if (log.isInfoEnabled()) log.info(getStatistics());
+		}
+		checkError();
+	}
+
+	/*
+	 * the writer thread: decodes the concepts and writes them
+	 */
+	private void consume() {
+		long consumerHead = 0;
+		long available = 0; // published position of the producer
+		long idleParkNanos = PARK_NANOS;
+		boolean writing = true;
+		try {
+			while (true) {
+				/*
+				 * wait for the next concept
+				 */
+				if (consumerHead == available) {
+					available = tail.get();
+					if (consumerHead == available) {
+						if (closed) {
+							available = tail.get();
+							if (consumerHead == available) break;
+						} else {
+							/*
+							 * announce the sleep, check again and park until 
+							 * the producer wakes us up (with increasing 
+							 * timeouts, in case it missed the announcement)
+							 */
+							sleeping = true;
+							if (tail.get() == consumerHead && !closed) {
+								LockSupport.parkNanos(this, idleParkNanos);
+								idleParkNanos = Math.min(2 * idleParkNanos, MAX_IDLE_PARK_NANOS);
+							}
+							sleeping = false;
+						}
+						continue;
+					}
+				}
+				idleParkNanos = PARK_NANOS;
+				/*
+				 * read it (it might be published in parts)
+				 */
+				final int[][] concept = new int[buffer[(int) (consumerHead++ & mask)]][];
+				for (int k = 0; k < concept.length; k++) {
+					available = await(consumerHead, available);
+					concept[k] = new int[buffer[(int) (consumerHead++ & mask)]];
+					for (int i = 0; i < concept[k].length; i++) {
+						available = await(consumerHead, available);
+						concept[k][i] = buffer[(int) (consumerHead++ & mask)];
+					}
+				}
+				head.lazySet(consumerHead);
+				writer.write(concept);
+			}
+			writing = false;
+			writer.close();
+		} catch (final Throwable e) {
+			error = e;
+			// release the producer (its next write fails)
+			head.lazySet(Long.MAX_VALUE / 2);
+			if (writing) {
+				try {
+					writer.close();
+				} catch (final IOException ignored) {
+					// the first exception is reported
+				}
+			}
+		} finally {
+			stop = System.nanoTime();
+		}
+	}
+
+	/*
+	 * waits until the producer has published the given position, returns 
+	 * its published position
+	 */
+	private long await(final long position, long available) {
+		while (position == available) {
+			head.lazySet(position); // the producer might wait for space
+			pause(Backpressure.PARK);
+			available = tail.get();
+		}
+		return available;
+	}
+
+	private static void pause(final Backpressure backpressure) {
+		switch (backpressure) {
+		case SPIN:
+			break;
+		case YIELD:
+			Thread.yield();
+			break;
+		default:
+			LockSupport.parkNanos(PARK_NANOS);
+		}
+	}
+
+	/**
+	 * @return The number of tri-concepts given to {@link #write(int[][])}.
+	 */
+	public long getNumberOfConcepts() {
+		return concepts;
+	}
+
+	/**
+	 * @return How often the producer had to wait, because the buffer was full.
+	 */
+	public long getNumberOfWaits() {
+		return waits;
+	}
+
+	/**
+	 * @return The throughput and the waiting of the producer (complete 
+	 * after {@link #close()}). 
+	 */
+	public String getStatistics() {
+		final long end = stop != 0 ? stop : System.nanoTime();
+		final double seconds = (end - start) / 1e9;
+		return "async writer: " + concepts + " concepts in " + String.format("%.3f", seconds) + " s (" + 
+				(seconds > 0 ? Math.round(concepts / seconds) : 0) + " concepts/s), producer waited " + 
+				waits + " times for " + (waitNanos / 1000000) + " ms, buffer size " + buffer.length;
+	}
+
+}
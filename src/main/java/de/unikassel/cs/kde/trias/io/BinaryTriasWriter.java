@@ -0,0 +1,94 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.io;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Writes the tri-concepts as a stream of ints: for each concept the number 
+ * of its sets and then each set as its size followed by its items. On 
+ * {@link #close()} an end mark is written, such that 
+ * {@link #read(DataInputStream, TriasWriter)} can tell a complete result 
+ * from one whose writer did not finish.
+ * 
+ */
+public class BinaryTriasWriter implements TriasWriter {
+
+	private static final int END = -1;
+
+	private final DataOutputStream out;
+
+	public BinaryTriasWriter(final DataOutputStream out) {
+		this.out = out;
+	}
+
+	public void write(final int[][] concept) throws IOException {
+		out.writeInt(concept.length);
+		for (final int[] set: concept) {
+			out.writeInt(set.length);
+			for (final int item: set) {
+				out.writeInt(item);
+			}
+		}
+	}
+
+	public void close() throws IOException {
+		out.writeInt(END);
+		out.close();
+	}
+
+	/** Reads the tri-concepts written by a {@link BinaryTriasWriter} and 
+	 * passes them to the writer (which is not closed).
+	 * 
+	 * @param in
+	 * @param writer
+	 * @return The number of tri-concepts.
+	 * @throws IOException - if the stream ends before the end mark
+	 */
+	public static long read(final DataInputStream in, final TriasWriter writer) throws IOException {
+		long count = 0;
+		try {
+			int numberOfSets;
+			while ((numberOfSets = in.readInt()) != END) {
+				final int[][] concept = new int[numberOfSets][];
+				for (int k = 0; k < numberOfSets; k++) {
+					concept[k] = new int[in.readInt()];
+					for (int i = 0; i < concept[k].length; i++) {
+						concept[k][i] = in.readInt();
+					}
+				}
+				writer.write(concept);
+				count++;
+			}
+		} catch (final EOFException e) {
+			throw new IOException("incomplete tri-concepts: the stream ended after " + count + " concepts without end mark", e);
+		}
+		return count;
+	}
+
+}
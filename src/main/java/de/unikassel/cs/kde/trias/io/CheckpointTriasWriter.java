@@ -0,0 +1,53 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.io;
+
+import java.io.IOException;
+
+/**
+ * A writer whose output can be made durable and cut back, such that a 
+ * mining run which is restarted from a checkpoint continues the output 
+ * where the checkpoint was taken (see 
+ * {@link de.unikassel.cs.kde.trias.Trias#setCheckpointFile(java.io.File)}).
+ * 
+ */
+public interface CheckpointTriasWriter extends TriasWriter {
+
+	/** Forces the tri-concepts written so far to the disk.
+	 * 
+	 * @return The offset behind the last tri-concept.
+	 * @throws IOException
+	 */
+	public long checkpoint() throws IOException;
+
+	/** Discards everything that was written behind the offset and 
+	 * continues writing there.
+	 * 
+	 * @param offset - an offset returned by {@link #checkpoint()}, or 0 to start from scratch
+	 * @throws IOException
+	 */
+	public void resume(final long offset) throws IOException;
+
+}
@@ -0,0 +1,67 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.io;
+
+import java.io.IOException;
+
+/**
+ * Wraps a {@link TriasWriter} and maps the items of each tri-concept back 
+ * to their original ids, when Trias mined a context whose items were 
+ * re-numbered.
+ * 
+ */
+public class MappingTriasWriter implements TriasWriter {
+
+	private final TriasWriter writer;
+	private final int[][] originalIds;
+
+	/**
+	 * @param writer - receives the tri-concepts with the original ids
+	 * @param originalIds - for each dimension and each new id the original id
+	 */
+	public MappingTriasWriter(final TriasWriter writer, final int[][] originalIds) {
+		this.writer = writer;
+		this.originalIds = originalIds;
+	}
+
+	public void write(final int[][] concept) throws IOException {
+		final int[][] original = new int[concept.length][];
+		for (int k = 0; k < concept.length; k++) {
+			original[k] = concept[k].clone();
+			if (k < originalIds.length) {
+				final int[] ids = originalIds[k];
+				for (int i = 0; i < original[k].length; i++) {
+					original[k][i] = ids[original[k][i]];
+				}
+			}
+		}
+		writer.write(original);
+	}
+
+	public void close() throws IOException {
+		writer.close();
+	}
+
+}
@@ -35,6 +35,7 @@ import java.util.TreeMap;
 
 import de.unikassel.cs.kde.trias.model.Context;
 import de.unikassel.cs.kde.trias.model.TriConcept;
+import de.unikassel.cs.kde.trias.model.TripleStore;
 import de.unikassel.cs.kde.trias.model.Triple;
 import de.unikassel.cs.kde.trias.util.Dimension;
 
@@ -50,7 +51,7 @@ public class ModelReaderWriter<T extends Comparable<T>> implements TriasReader,
 	/**
 	 * The context this class is working on.
 	 */
-	private int[][] itemList;
+	private TripleStore tripleStore;
 	/**
 	 * The tri lattice of the context, as computed by trias.
 	 */
@@ -88,9 +89,9 @@ public class ModelReaderWriter<T extends Comparable<T>> implements TriasReader,
 		numberOfItemsPerDimension = new int[Dimension.noOfDimensions];
 		Arrays.fill(numberOfItemsPerDimension, 0);
 		/*
-		 * generate the item list
+		 * generate the triple store
 		 */
-		this.itemList = generateItemList(context);
+		this.tripleStore = generateTripleStore(context);
 		/*
 		 * stores the resulting triLattice
 		 */
@@ -101,15 +102,25 @@ public class ModelReaderWriter<T extends Comparable<T>> implements TriasReader,
 		return stringToInt;
 	}
 	
+	/** 
+	 * @return A copy of the triples as item list with one row per triple.
+	 */
 	public int[][] getItemlist() {
-		return itemList;
+		return tripleStore.toItemList();
+	}
+
+	public TripleStore getTripleStore() {
+		return tripleStore;
 	}
 
-	private int[][] generateItemList(final Context<T> context) {
+	private TripleStore generateTripleStore(final Context<T> context) {
 		/*
-		 * resulting itemlist
+		 * resulting triples
 		 */
-		itemList = new int[context.getRelation().length][Dimension.noOfDimensions + 1];
+		final int[] u = new int[context.getRelation().length];
+		final int[] t = new int[context.getRelation().length];
+		final int[] r = new int[context.getRelation().length];
+		final int[][] columns = new int[][]{u, t, r};
 		/*
 		 * numbering triples
 		 */
@@ -127,11 +138,11 @@ public class ModelReaderWriter<T extends Comparable<T>> implements TriasReader,
 				/*
 				 * add triple to list
 				 */
-				itemList[tripleCtr][dim] = stringToInt[dim].get(triple.getDimension(dim));
+				columns[dim][tripleCtr] = stringToInt[dim].get(triple.getDimension(dim));
 			}
 			tripleCtr++;
 		}
-		return itemList;
+		return new TripleStore(u, t, r);
 	}
 
 	public int[] getNumberOfItemsPerDimension() {
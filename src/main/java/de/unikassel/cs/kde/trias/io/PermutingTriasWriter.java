@@ -0,0 +1,66 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.io;
+
+import java.io.IOException;
+
+/**
+ * Wraps a {@link TriasWriter} and puts the sets of each tri-concept back 
+ * into the order of the original dimensions, when Trias mined a context 
+ * whose columns were permuted. The sets are only re-ordered, thus the 
+ * wrapped writer gets the arrays of the concept in one array which is 
+ * reused for each concept (Trias calls the writer from one thread at a 
+ * time).
+ * 
+ */
+public class PermutingTriasWriter implements TriasWriter {
+
+	private final TriasWriter writer;
+	private final int[] permutation;
+	private int[][] original;
+
+	/**
+	 * @param writer - receives the tri-concepts in the original order of the dimensions
+	 * @param permutation - for each position of the permuted context the original dimension
+	 */
+	public PermutingTriasWriter(final TriasWriter writer, final int[] permutation) {
+		this.writer = writer;
+		this.permutation = permutation.clone();
+		this.original = new int[permutation.length][];
+	}
+
+	public void write(final int[][] concept) throws IOException {
+		if (original.length != concept.length) original = new int[concept.length][];
+		for (int k = 0; k < concept.length; k++) {
+			original[k < permutation.length ? permutation[k] : k] = concept[k];
+		}
+		writer.write(original);
+	}
+
+	public void close() throws IOException {
+		writer.close();
+	}
+
+}
@@ -45,6 +45,7 @@ import com.hp.hpl.jena.rdf.model.StmtIterator;
 import de.unikassel.cs.kde.trias.model.Context;
 import de.unikassel.cs.kde.trias.model.TriConcept;
 import de.unikassel.cs.kde.trias.model.Triple;
+import de.unikassel.cs.kde.trias.model.TripleStore;
 
 /**
  * 
@@ -110,6 +111,10 @@ public class RDFReaderWriter implements TriasReader, TriasWriter {
 		return mrw.getItemlist();
 	}
 
+	public TripleStore getTripleStore() throws NumberFormatException, IOException {
+		return mrw.getTripleStore();
+	}
+
 	public void close() throws IOException {
 		writer.close();
 	}
@@ -0,0 +1,50 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.io;
+
+import java.io.IOException;
+
+/**
+ * Wraps a {@link TriasWriter} such that it can be used by several threads
+ * at the same time. 
+ * 
+ */
+public class SynchronizedTriasWriter implements TriasWriter {
+
+	private final TriasWriter writer;
+
+	public SynchronizedTriasWriter(final TriasWriter writer) {
+		this.writer = writer;
+	}
+
+	public synchronized void write(final int[][] concept) throws IOException {
+		writer.write(concept);
+	}
+
+	public synchronized void close() throws IOException {
+		writer.close();
+	}
+
+}
@@ -31,9 +31,11 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -97,6 +99,41 @@ public class TriConceptReader {
 		return triLattice;
 	}
 	
+	/** Reads tri-concepts as written by {@link TriasStandardWriter}, 
+	 * keeping the item ids (e.g., as previous result for 
+	 * {@link de.unikassel.cs.kde.trias.IncrementalTrias}).
+	 * 
+	 * @param reader
+	 * @return The tri-concepts, each as extent, intent, and modus.
+	 * @throws IOException
+	 */
+	public List<int[][]> getConcepts(final BufferedReader reader) throws IOException {
+		final List<int[][]> triConcepts = new ArrayList<int[][]>();
+		String line;
+		while ((line = reader.readLine()) != null) {
+			final Matcher m = concepts.matcher(line);
+			if (m.matches()) {
+				triConcepts.add(new int[][]{
+						parseInts(extractPart(m.group(1))),
+						parseInts(extractPart(m.group(2))),
+						parseInts(extractPart(m.group(3)))
+				});
+			} else {
+				throw new RuntimeException("could not find tri-concepts");
+			}
+		}
+		reader.close();
+		return triConcepts;
+	}
+
+	private int[] parseInts(final String[] parts) {
+		final int[] ints = new int[parts.length];
+		for (int i = 0; i < parts.length; i++) {
+			ints[i] = Integer.parseInt(parts[i]);
+		}
+		return ints;
+	}
+
 	private String[] map(final Map<Integer, String> map, final String[] parts) {
 		if (map != null) {
 			for (int i = 0; i < parts.length; i++) {
@@ -28,6 +28,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.HashMap;
 
+import de.unikassel.cs.kde.trias.model.TripleStore;
 import de.unikassel.cs.kde.trias.util.Dimension;
 
 /**
@@ -70,17 +71,18 @@ public class TriasHoleReader implements TriasReader {
 	}
 	
 	public int[][] getItemlist() throws NumberFormatException, IOException {
-		int[][] itemList = new int[numberOfItems][Dimension.noOfDimensions + 1];
-		int ctr = 0;
+		return getTripleStore().toItemList();
+	}
+
+	public TripleStore getTripleStore() throws NumberFormatException, IOException {
+		final TripleStore tripleStore = new TripleStore(numberOfItems);
 		while (reader.ready()) {
 			String[] parts = reader.readLine().split(delimiter);
-			for (int dim = 0; dim < Dimension.noOfDimensions; dim++) {
-				itemList[ctr][dim] = getMapping(parts, dim);	
-			}
-			ctr++;
+			tripleStore.add(getMapping(parts, 0), getMapping(parts, 1), getMapping(parts, 2));
 		}
 		reader.close();
-		return itemList;
+		tripleStore.trimToSize();
+		return tripleStore;
 	}
 	
 	
@@ -26,8 +26,26 @@ package de.unikassel.cs.kde.trias.io;
 
 import java.io.IOException;
 
+import de.unikassel.cs.kde.trias.model.TripleStore;
+
 public interface TriasReader {
 	
+	/** Reads the triples into an item list with one row per triple.
+	 * 
+	 * @return The triples.
+	 * @throws NumberFormatException
+	 * @throws IOException
+	 */
 	public int[][] getItemlist () throws NumberFormatException, IOException;
 
+	/** Reads the triples into a {@link TripleStore}, which needs much less 
+	 * memory than {@link #getItemlist()}. Readers which read from a stream 
+	 * can only be asked once, by either method. 
+	 * 
+	 * @return The triples.
+	 * @throws NumberFormatException
+	 * @throws IOException
+	 */
+	public TripleStore getTripleStore () throws NumberFormatException, IOException;
+
 }
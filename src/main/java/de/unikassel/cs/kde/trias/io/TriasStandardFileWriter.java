@@ -0,0 +1,78 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.io;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Writes the tri-concepts in the format of {@link TriasStandardWriter} to 
+ * a file which supports checkpoints. The file is appended to, thus 
+ * {@link #resume(long)} must be called before the first concept is 
+ * written (Trias does this when checkpoints are enabled).
+ * 
+ */
+public class TriasStandardFileWriter implements CheckpointTriasWriter {
+
+	private final FileOutputStream out;
+	private final FileChannel channel;
+	private final BufferedWriter buffer;
+	private final TriasStandardWriter writer;
+
+	public TriasStandardFileWriter(final File file, final Charset charset, final boolean writeScores) throws IOException {
+		this.out = new FileOutputStream(file, true);
+		this.channel = out.getChannel();
+		this.buffer = new BufferedWriter(new OutputStreamWriter(out, charset));
+		this.writer = new TriasStandardWriter(buffer, writeScores);
+	}
+
+	public void write(final int[][] concept) throws IOException {
+		writer.write(concept);
+	}
+
+	public long checkpoint() throws IOException {
+		buffer.flush();
+		channel.force(false);
+		return channel.size();
+	}
+
+	public void resume(final long offset) throws IOException {
+		buffer.flush();
+		if (offset > channel.size()) {
+			throw new IOException("can't resume at offset " + offset + ", since the file has only " + channel.size() + " bytes");
+		}
+		channel.truncate(offset);
+	}
+
+	public void close() throws IOException {
+		writer.close();
+	}
+
+}
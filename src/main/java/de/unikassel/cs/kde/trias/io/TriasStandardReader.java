@@ -27,7 +27,7 @@ package de.unikassel.cs.kde.trias.io;
 import java.io.BufferedReader;
 import java.io.IOException;
 
-import de.unikassel.cs.kde.trias.util.Dimension;
+import de.unikassel.cs.kde.trias.model.TripleStore;
 
 /**
  * @author rja
@@ -47,17 +47,18 @@ public class TriasStandardReader implements TriasReader {
 	}
 
 	public int[][] getItemlist() throws NumberFormatException, IOException {
-		int[][] utrListe = new int[numberOfItems][Dimension.noOfDimensions + 1];
-		int ctr = 0;
+		return getTripleStore().toItemList();
+	}
+
+	public TripleStore getTripleStore() throws NumberFormatException, IOException {
+		final TripleStore tripleStore = new TripleStore(numberOfItems);
 		while (reader.ready()) {
 			String[] parts = reader.readLine().split(delimiter);
-			for (int dim = 0; dim < Dimension.noOfDimensions; dim++) {
-				utrListe[ctr][dim] = Integer.parseInt(parts[dim]);	
-			}
-			ctr++;
+			tripleStore.add(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
 		}
 		reader.close();
-		return utrListe;
+		tripleStore.trimToSize();
+		return tripleStore;
 	}
 
 }
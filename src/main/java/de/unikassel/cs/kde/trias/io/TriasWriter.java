@@ -34,6 +34,14 @@ import java.io.IOException;
  */
 public interface TriasWriter {
 	
+	/** Writes a tri-concept. 
+	 * 
+	 * The arrays are only valid during the call: Trias reuses them for the 
+	 * next concept, thus writers which keep a concept must copy it.
+	 * 
+	 * @param concept - extent, intent, and modus (concept[0], concept[1], concept[2])
+	 * @throws IOException
+	 */
 	public void write (final int[][] concept) throws IOException;
 	
 	public void close() throws IOException;
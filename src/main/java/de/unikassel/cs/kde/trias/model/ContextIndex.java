@@ -0,0 +1,643 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+import de.unikassel.cs.kde.trias.util.Dimension;
+
+/**
+ * The sorted permutations and offset tables of a triadic context, as used 
+ * by the outer loop of Trias: the triples ordered by (U, T, R) and by 
+ * (T, R, U), the start of each user and of each (t, r) pair in these orders, 
+ * and for each triple the user and the (t, r) pair it belongs to.
+ * <p>
+ * Since the item ids of each dimension are dense (1..n), both orders are 
+ * built by least significant digit radix sort, i.e., by three stable 
+ * counting sort passes each. The passes can run in parallel: every thread 
+ * counts the keys of one chunk of the triples and then scatters its chunk 
+ * to the positions it got from the prefix sums over all chunks.
+ * <p>
+ * The format of the tables is the one Trias works with: <code>offsets[0]</code> 
+ * contains the number of keys, <code>offsets[k]</code> the position of the 
+ * first triple of key k in the order and <code>offsets[offsets[0] + 1]</code> 
+ * the number of triples.
+ * <p>
+ * An index can be saved with {@link #write(DataOutputStream)} and loaded 
+ * with {@link #read(DataInputStream)}, such that a later run (e.g., of 
+ * {@link de.unikassel.cs.kde.trias.IncrementalTrias}) need not sort the 
+ * context again.
+ * 
+ */
+public class ContextIndex {
+
+	private static final Logger log = Logger.getLogger(ContextIndex.class);
+
+	private final static int U = Dimension.U.intValue();
+	private final static int T = Dimension.T.intValue();
+	private final static int R = Dimension.R.intValue();
+
+	/*
+	 * chunks smaller than this are not worth an own thread
+	 */
+	private static final int MIN_CHUNK_SIZE = 1 << 16;
+
+	/*
+	 * first int of a saved index, followed by the format version
+	 */
+	private static final int MAGIC = 0x54524958;
+	private static final int VERSION = 1;
+
+	private final TripleStore tripleStore;
+	private final int[][] columns; // columns[dimension][triple] of tripleStore
+	private final int[] numberOfItemsPerDimension;
+
+	private final int[] uOrder;
+	private final int[] uOffsets;
+	private final int[] uRemember;
+
+	private final int[] trOrder;
+	private final int[] trOffsets;
+	private final int[] trRemember;
+
+	/*
+	 * used to run the passes in parallel; null for one thread
+	 */
+	private final ForkJoinPool pool;
+	private final int numberOfChunks;
+
+	/** Builds the index on one thread.
+	 * 
+	 * @param tripleStore - the triples, item ids of dimension d must be in 1..numberOfItemsPerDimension[d]
+	 * @param numberOfItemsPerDimension
+	 */
+	public ContextIndex(final TripleStore tripleStore, final int[] numberOfItemsPerDimension) {
+		this(tripleStore, numberOfItemsPerDimension, 1);
+	}
+
+	/** Builds the index.
+	 * 
+	 * @param tripleStore - the triples, item ids of dimension d must be in 1..numberOfItemsPerDimension[d]
+	 * @param numberOfItemsPerDimension
+	 * @param numberOfThreads - number of threads the sort passes are split on
+	 */
+	public ContextIndex(final TripleStore tripleStore, final int[] numberOfItemsPerDimension, final int numberOfThreads) {
+		super();
+		this.tripleStore = tripleStore;
+		this.columns = tripleStore.getColumns();
+		this.numberOfItemsPerDimension = numberOfItemsPerDimension;
+
+		final int n = tripleStore.size();
+		this.numberOfChunks = Math.max(1, Math.min(numberOfThreads, n / MIN_CHUNK_SIZE));
+		this.pool = numberOfChunks > 1 ? new ForkJoinPool(numberOfChunks) : null;
+
+		try {
+			this.uRemember  = new int[n];
+			this.trRemember = new int[n];
+			this.uOrder  = new int[n];
+			this.trOrder = new int[n];
+			final int[] temp = new int[n];
+
+			/*
+			 * sort by U (i.e., by R, then T, then U)
+			 */
+			identity(temp);
+			countingSort(R, temp, uOrder, null);
+			countingSort(T, uOrder, temp, null);
+			this.uOffsets = countingSort(U, temp, uOrder, uRemember);
+			log.debug("sorted by U");
+
+			/*
+			 * sort by TxR (i.e., by U, then R, then T)
+			 */
+			identity(temp);
+			countingSort(U, temp, trOrder, null);
+			countingSort(R, trOrder, temp, null);
+			countingSort(T, temp, trOrder, null);
+			this.trOffsets = buildPairOffsets(columns, trOrder, trRemember);
+			log.debug("sorted by TxR");
+		} finally {
+			if (pool != null) pool.shutdown();
+		}
+	}
+
+	/*
+	 * wraps the tables of a loaded index and computes the remember arrays
+	 */
+	private ContextIndex(final TripleStore tripleStore, final int[] numberOfItemsPerDimension, final int[] uOrder, final int[] uOffsets, final int[] trOrder, final int[] trOffsets) {
+		super();
+		this.tripleStore = tripleStore;
+		this.columns = tripleStore.getColumns();
+		this.numberOfItemsPerDimension = numberOfItemsPerDimension;
+		this.numberOfChunks = 1;
+		this.pool = null;
+		this.uOrder = uOrder;
+		this.uOffsets = uOffsets;
+		this.trOrder = trOrder;
+		this.trOffsets = trOffsets;
+		this.uRemember = remember(uOrder, uOffsets);
+		this.trRemember = remember(trOrder, trOffsets);
+	}
+
+	private static int[] remember(final int[] order, final int[] offsets) {
+		final int[] remember = new int[order.length];
+		for (int k = 1; k <= offsets[0]; k++) {
+			for (int p = offsets[k]; p < offsets[k + 1]; p++) {
+				remember[order[p]] = k;
+			}
+		}
+		return remember;
+	}
+
+	/*
+	 * stable counting sort of the triples in "in" by the given column into "out";
+	 * returns the offset table of the column and, if remember is not null, 
+	 * stores the key of each triple in remember
+	 */
+	private int[] countingSort(final int column, final int[] in, final int[] out, final int[] remember) {
+		final int numberOfKeys = numberOfItemsPerDimension[column];
+		final int[] keys = columns[column];
+		final int[][] counts = new int[numberOfChunks][numberOfKeys + 1];
+		/*
+		 * count keys per chunk
+		 */
+		run(new ChunkJob() {
+			public void run(final int chunk, final int from, final int to) {
+				final int[] count = counts[chunk];
+				for (int p = from; p < to; p++) {
+					final int key = keys[in[p]];
+					if (key < 1 || key > numberOfKeys) {
+						throw new IllegalArgumentException("item " + key + " of dimension " + column + " is not in 1.." + numberOfKeys);
+					}
+					count[key]++;
+					if (remember != null) remember[in[p]] = key;
+				}
+			}
+		});
+		/*
+		 * prefix sums: key by key, chunk by chunk; afterwards counts[c][k] 
+		 * is the position of the first triple of chunk c with key k
+		 */
+		final int[] offsets = new int[numberOfKeys + 2];
+		int position = 0;
+		for (int key = 1; key <= numberOfKeys; key++) {
+			offsets[key] = position;
+			for (int chunk = 0; chunk < numberOfChunks; chunk++) {
+				final int count = counts[chunk][key];
+				counts[chunk][key] = position;
+				position += count;
+			}
+		}
+		offsets[numberOfKeys + 1] = position; // set pointer after last element
+		offsets[0] = numberOfKeys;            // remember size
+		/*
+		 * scatter each chunk
+		 */
+		run(new ChunkJob() {
+			public void run(final int chunk, final int from, final int to) {
+				final int[] next = counts[chunk];
+				for (int p = from; p < to; p++) {
+					out[next[keys[in[p]]]++] = in[p];
+				}
+			}
+		});
+		return offsets;
+	}
+
+	/*
+	 * builds the offset table of the (t, r) pairs from trOrder and, if 
+	 * trRemember is not null, stores for each triple its position in that 
+	 * table in trRemember
+	 */
+	private static int[] buildPairOffsets(final int[][] columns, final int[] trOrder, final int[] trRemember) {
+		final int n = trOrder.length;
+		final int[] tColumn = columns[T];
+		final int[] rColumn = columns[R];
+		final int[] offsets = new int[n + 2]; // TODO: too big
+		int pairCtr = 0;
+		int t = 0;
+		int r = 0;
+		for (int p = 0; p < n; p++) {
+			final int triple = trOrder[p];
+			if (pairCtr == 0 || tColumn[triple] != t || rColumn[triple] != r) {
+				// new element
+				t = tColumn[triple];
+				r = rColumn[triple];
+				pairCtr++;
+				offsets[pairCtr] = p;
+			}
+			if (trRemember != null) trRemember[trOrder[p]] = pairCtr;
+		}
+		offsets[pairCtr + 1] = n; // sets offset after last value
+		offsets[0] = pairCtr;
+		return offsets;
+	}
+
+	private static void identity(final int[] a) {
+		for (int i = 0; i < a.length; i++) {
+			a[i] = i;
+		}
+	}
+
+	/*
+	 * work on the positions [from, to) of one chunk 
+	 */
+	private interface ChunkJob {
+		public void run(final int chunk, final int from, final int to);
+	}
+
+	/*
+	 * runs the job on all chunks, in parallel if we have a pool
+	 */
+	private void run(final ChunkJob job) {
+		final int n = tripleStore.size();
+		if (pool == null) {
+			job.run(0, 0, n);
+			return;
+		}
+		final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(numberOfChunks);
+		for (int c = 0; c < numberOfChunks; c++) {
+			final int chunk = c;
+			final int from = (int) ((long) n * c / numberOfChunks);
+			final int to   = (int) ((long) n * (c + 1) / numberOfChunks);
+			tasks.add(new Callable<Void>() {
+				public Void call() {
+					job.run(chunk, from, to);
+					return null;
+				}
+			});
+		}
+		for (final Future<Void> future: pool.invokeAll(tasks)) {
+			try {
+				future.get();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("interrupted while building the context index", e);
+			} catch (final ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+				throw new RuntimeException(e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * @return The triples of the context.
+	 */
+	public TripleStore getTripleStore() {
+		return tripleStore;
+	}
+
+	/**
+	 * @return The number of items for each dimension.
+	 */
+	public int[] getNumberOfItemsPerDimension() {
+		return numberOfItemsPerDimension;
+	}
+
+	/**
+	 * @return The positions of the triples, ordered by (U, T, R).
+	 */
+	public int[] getUOrder() {
+		return uOrder;
+	}
+
+	/**
+	 * @return For each user u, the position of its first triple in {@link #getUOrder()}.
+	 */
+	public int[] getUOffsets() {
+		return uOffsets;
+	}
+
+	/**
+	 * @return For each triple, its user (i.e., its position in {@link #getUOffsets()}).
+	 */
+	public int[] getURemember() {
+		return uRemember;
+	}
+
+	/**
+	 * @return The positions of the triples, ordered by (T, R, U).
+	 */
+	public int[] getTROrder() {
+		return trOrder;
+	}
+
+	/**
+	 * @return For the k-th (t, r) pair, the position of its first triple in {@link #getTROrder()}.
+	 */
+	public int[] getTROffsets() {
+		return trOffsets;
+	}
+
+	/**
+	 * @return For each triple, the number k of its (t, r) pair (i.e., its position in {@link #getTROffsets()}).
+	 */
+	public int[] getTRRemember() {
+		return trRemember;
+	}
+
+	/** Checks by binary search in the triples of user u, whether the 
+	 * context contains the triple (u, t, r).
+	 * 
+	 * @param u
+	 * @param t
+	 * @param r
+	 * @return <code>true</code> if (u, t, r) is a triple of the context.
+	 */
+	public boolean contains(final int u, final int t, final int r) {
+		return find(u, t, r) >= 0;
+	}
+
+	/** Finds the triple (u, t, r) by binary search in the triples of user u.
+	 * 
+	 * @param u
+	 * @param t
+	 * @param r
+	 * @return The position of the triple in {@link #getTripleStore()} or 
+	 * -1, if the context does not contain it.
+	 */
+	public int find(final int u, final int t, final int r) {
+		if (u < 1 || u > uOffsets[0]) return -1;
+		final int[] tColumn = columns[T];
+		final int[] rColumn = columns[R];
+		int low = uOffsets[u];
+		int high = uOffsets[u + 1] - 1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			final int triple = uOrder[mid];
+			final int cmp = tColumn[triple] != t ? tColumn[triple] - t : rColumn[triple] - r;
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return triple;
+			}
+		}
+		return -1;
+	}
+
+	/** Finds the number of the pair (t, r) by binary search in the 
+	 * (t, r) pairs.
+	 * 
+	 * @param t
+	 * @param r
+	 * @return The number k of the pair (i.e., its position in {@link #getTROffsets()}) 
+	 * or 0, if no triple contains the pair.
+	 */
+	public int getPair(final int t, final int r) {
+		final int[] tColumn = columns[T];
+		final int[] rColumn = columns[R];
+		int low = 1;
+		int high = trOffsets[0];
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			final int triple = trOrder[trOffsets[mid]];
+			final int cmp = tColumn[triple] != t ? tColumn[triple] - t : rColumn[triple] - r;
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return 0;
+	}
+
+	/** Returns the index of the distinct triples of the context. The 
+	 * readers accept repeated lines, but the outer loop of Trias needs each 
+	 * triple only once, since its temporary arrays are sized by the number 
+	 * of items of a dimension, while a block of an offset table holds one 
+	 * entry per triple. Repeated triples are adjacent in {@link #getUOrder()}, 
+	 * thus they are found in one pass.
+	 * 
+	 * @return This index, if the context contains each triple once. 
+	 * Otherwise, the index of a new triple store which contains each triple 
+	 * once, ordered by (U, T, R).
+	 */
+	public ContextIndex distinct() {
+		final int n = uOrder.length;
+		int duplicates = 0;
+		for (int p = 1; p < n; p++) {
+			if (compare(columns, uOrder[p - 1], uOrder[p], U, T, R) == 0) duplicates++;
+		}
+		if (duplicates == 0) return this;
+		final TripleStore triples = new TripleStore(n - duplicates);
+		for (int p = 0; p < n; p++) {
+			if (p > 0 && compare(columns, uOrder[p - 1], uOrder[p], U, T, R) == 0) continue;
+			triples.add(columns[U][uOrder[p]], columns[T][uOrder[p]], columns[R][uOrder[p]]);
+		}
+		log.debug("removed " + duplicates + " repeated triples");
+		return new ContextIndex(triples, numberOfItemsPerDimension, numberOfChunks);
+	}
+
+	/** Returns the index of the context without the removed triples and 
+	 * with the added ones. Instead of sorting the whole context again, the 
+	 * orders of the kept triples are merged with the (sorted) added triples.
+	 * <p>
+	 * The kept triples keep their order in the new triple store, the added 
+	 * triples follow in their order.
+	 * 
+	 * @param removed - for each triple of this index, whether it is removed; <code>null</code> to keep all
+	 * @param added - triples which are neither duplicates nor kept triples
+	 * @param numberOfItemsPerDimension - the number of items of the new context, at least the one of this index
+	 * @return The index of the new context.
+	 */
+	public ContextIndex update(final boolean[] removed, final TripleStore added, final int[] numberOfItemsPerDimension) {
+		final int n = tripleStore.size();
+		final TripleStore triples = new TripleStore(n + added.size());
+		final int[] position = new int[n]; // new position of each triple, -1 if removed
+		for (int triple = 0; triple < n; triple++) {
+			if (removed != null && removed[triple]) {
+				position[triple] = -1;
+			} else {
+				position[triple] = triples.size();
+				triples.add(columns[U][triple], columns[T][triple], columns[R][triple]);
+			}
+		}
+		final int kept = triples.size();
+		final int[][] addedColumns = added.getColumns();
+		for (int triple = 0; triple < added.size(); triple++) {
+			triples.add(addedColumns[U][triple], addedColumns[T][triple], addedColumns[R][triple]);
+		}
+		final int[][] newColumns = triples.getColumns();
+		final ContextIndex addedIndex = new ContextIndex(added, numberOfItemsPerDimension);
+
+		final int[] newUOrder = merge(newColumns, uOrder, position, addedIndex.getUOrder(), kept, U, T, R);
+		final int[] newTROrder = merge(newColumns, trOrder, position, addedIndex.getTROrder(), kept, T, R, U);
+		/*
+		 * the users are sorted, thus their offsets are the prefix sums of their numbers of triples
+		 */
+		final int numberOfUsers = numberOfItemsPerDimension[U];
+		final int[] newUOffsets = new int[numberOfUsers + 2];
+		for (int triple = 0; triple < triples.size(); triple++) {
+			newUOffsets[newColumns[U][triple] + 1]++;
+		}
+		for (int u = 1; u <= numberOfUsers + 1; u++) {
+			newUOffsets[u] += newUOffsets[u - 1];
+		}
+		newUOffsets[0] = numberOfUsers;
+		return new ContextIndex(triples, numberOfItemsPerDimension, newUOrder, newUOffsets, newTROrder, buildPairOffsets(newColumns, newTROrder, null));
+	}
+
+	/*
+	 * merges the kept triples of order (at their new positions) with the 
+	 * added triples (which follow the kept ones) by the given columns
+	 */
+	private static int[] merge(final int[][] columns, final int[] order, final int[] position, final int[] addedOrder, final int kept, final int... keys) {
+		final int[] merged = new int[kept + addedOrder.length];
+		int i = 0;
+		int j = 0;
+		for (int m = 0; m < merged.length; m++) {
+			while (i < order.length && position[order[i]] < 0) i++;
+			if (j == addedOrder.length || (i < order.length && compare(columns, position[order[i]], kept + addedOrder[j], keys) < 0)) {
+				merged[m] = position[order[i++]];
+			} else {
+				merged[m] = kept + addedOrder[j++];
+			}
+		}
+		return merged;
+	}
+
+	private static int compare(final int[][] columns, final int a, final int b, final int... keys) {
+		for (final int key: keys) {
+			if (columns[key][a] != columns[key][b]) return columns[key][a] < columns[key][b] ? -1 : 1;
+		}
+		return 0;
+	}
+
+	/** Saves the triples and the tables of the index.
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	public void write(final DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		writeArray(out, numberOfItemsPerDimension, numberOfItemsPerDimension.length);
+		for (final int[] column: columns) {
+			writeArray(out, column, tripleStore.size());
+		}
+		writeArray(out, uOrder, uOrder.length);
+		writeArray(out, uOffsets, uOffsets.length);
+		writeArray(out, trOrder, trOrder.length);
+		writeArray(out, trOffsets, trOffsets[0] + 2);
+		out.flush();
+	}
+
+	/** Loads an index which was saved with {@link #write(DataOutputStream)}.
+	 * 
+	 * @param in
+	 * @return The index.
+	 * @throws IOException - if the data is not a saved index
+	 */
+	public static ContextIndex read(final DataInputStream in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("not a saved context index");
+		}
+		final int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("unsupported version " + version + " of the context index");
+		}
+		final int[] numberOfItemsPerDimension = readArray(in);
+		final TripleStore tripleStore = new TripleStore(readArray(in), readArray(in), readArray(in));
+		final int[] uOrder = readArray(in);
+		final int[] uOffsets = readArray(in);
+		final int[] trOrder = readArray(in);
+		final int[] trOffsets = readArray(in);
+		return new ContextIndex(tripleStore, numberOfItemsPerDimension, uOrder, uOffsets, trOrder, trOffsets);
+	}
+
+	/** Loads an index which was saved with {@link #write(DataOutputStream)} 
+	 * from a buffer, e.g., from a file which is mapped into memory. The 
+	 * arrays are copied in bulk onto the heap, thus a mapping is only a 
+	 * fast way to load the index: processes which load the same file do 
+	 * not share the index.
+	 * 
+	 * @param buffer - in big endian order (the default), positioned at the start of the index
+	 * @return The index.
+	 * @throws IOException - if the data is not a saved index
+	 */
+	public static ContextIndex read(final ByteBuffer buffer) throws IOException {
+		final IntBuffer in = buffer.asIntBuffer();
+		if (in.get() != MAGIC) {
+			throw new IOException("not a saved context index");
+		}
+		final int version = in.get();
+		if (version != VERSION) {
+			throw new IOException("unsupported version " + version + " of the context index");
+		}
+		final int[] numberOfItemsPerDimension = readArray(in);
+		final TripleStore tripleStore = new TripleStore(readArray(in), readArray(in), readArray(in));
+		final int[] uOrder = readArray(in);
+		final int[] uOffsets = readArray(in);
+		final int[] trOrder = readArray(in);
+		final int[] trOffsets = readArray(in);
+		return new ContextIndex(tripleStore, numberOfItemsPerDimension, uOrder, uOffsets, trOrder, trOffsets);
+	}
+
+	private static int[] readArray(final IntBuffer in) throws IOException {
+		final int length = in.get();
+		if (length < 0 || length > in.remaining()) {
+			throw new IOException("invalid array length " + length);
+		}
+		final int[] a = new int[length];
+		in.get(a);
+		return a;
+	}
+
+	private static void writeArray(final DataOutputStream out, final int[] a, final int length) throws IOException {
+		out.writeInt(length);
+		for (int i = 0; i < length; i++) {
+			out.writeInt(a[i]);
+		}
+	}
+
+	private static int[] readArray(final DataInputStream in) throws IOException {
+		final int length = in.readInt();
+		if (length < 0) {
+			throw new IOException("negative array length " + length);
+		}
+		final int[] a = new int[length];
+		for (int i = 0; i < length; i++) {
+			a[i] = in.readInt();
+		}
+		return a;
+	}
+
+}
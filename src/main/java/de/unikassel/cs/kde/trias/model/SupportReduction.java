@@ -0,0 +1,208 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.model;
+
+import org.apache.log4j.Logger;
+
+import de.unikassel.cs.kde.trias.util.Dimension;
+
+/**
+ * Removes the items from a triadic context which can not occur in any 
+ * frequent tri-concept. 
+ * <p>
+ * If u is contained in the extent of a tri-concept (A, B, C), then u has 
+ * all triples A x B x C, thus at least |B| * |C| triples. Hence, a user 
+ * needs at least minsup_T * minsup_R triples, and the same holds for tags 
+ * and resources. Removing an item removes its triples, which may drop 
+ * further items below their threshold - thus items are removed until 
+ * nothing changes (like the k-core of a graph). Each triple is removed at 
+ * most once, thus this takes time linear in the number of triples. 
+ * <p>
+ * The remaining items are re-numbered densely (keeping their order), 
+ * {@link #getOriginalIds()} maps them back.
+ * 
+ */
+public class SupportReduction {
+
+	private static final Logger log = Logger.getLogger(SupportReduction.class);
+
+	private final static int DIMS = Dimension.noOfDimensions;
+
+	private final TripleStore tripleStore;
+	private final int[] numberOfItemsPerDimension;
+	private final int[][] originalIds;
+	private final int numberOfRemovedTriples;
+
+	/**
+	 * Reduces the context.
+	 * 
+	 * @param tripleStore - the context
+	 * @param numberOfItemsPerDimension
+	 * @param minSupportPerDimension
+	 */
+	public SupportReduction(final TripleStore tripleStore, final int[] numberOfItemsPerDimension, final int[] minSupportPerDimension) {
+		final int n = tripleStore.size();
+		final int[][] columns = tripleStore.getColumns();
+
+		/*
+		 * the minimal number of triples of an item of each dimension
+		 */
+		final long[] threshold = new long[DIMS];
+		for (int d = 0; d < DIMS; d++) {
+			threshold[d] = (long) minSupportPerDimension[(d + 1) % DIMS] * minSupportPerDimension[(d + 2) % DIMS];
+		}
+
+		/*
+		 * for each item its triples (offsets and triples ordered by item)
+		 */
+		final int[][] degree = new int[DIMS][];
+		final int[][] offsets = new int[DIMS][];
+		final int[][] triples = new int[DIMS][];
+		for (int d = 0; d < DIMS; d++) {
+			final int[] column = columns[d];
+			degree[d] = new int[numberOfItemsPerDimension[d] + 1];
+			for (int i = 0; i < n; i++) {
+				degree[d][column[i]]++;
+			}
+			offsets[d] = new int[numberOfItemsPerDimension[d] + 2];
+			for (int item = 1; item <= numberOfItemsPerDimension[d]; item++) {
+				offsets[d][item + 1] = offsets[d][item] + degree[d][item];
+			}
+			final int[] next = new int[numberOfItemsPerDimension[d] + 1];
+			System.arraycopy(offsets[d], 0, next, 0, next.length);
+			triples[d] = new int[n];
+			for (int i = 0; i < n; i++) {
+				triples[d][next[column[i]]++] = i;
+			}
+		}
+
+		/*
+		 * remove items below their threshold, until nothing changes
+		 */
+		final boolean[] removedTriple = new boolean[n];
+		int removedTriples = 0;
+		final int[] queue = new int[2 * (numberOfItemsPerDimension[0] + numberOfItemsPerDimension[1] + numberOfItemsPerDimension[2])]; // (dimension, item)
+		int head = 0;
+		int tail = 0;
+		for (int d = 0; d < DIMS; d++) {
+			for (int item = 1; item <= numberOfItemsPerDimension[d]; item++) {
+				if (degree[d][item] > 0 && degree[d][item] < threshold[d]) {
+					queue[tail++] = d;
+					queue[tail++] = item;
+				}
+			}
+		}
+		while (head < tail) {
+			final int d = queue[head++];
+			final int item = queue[head++];
+			for (int k = offsets[d][item]; k < offsets[d][item + 1]; k++) {
+				final int i = triples[d][k];
+				if (removedTriple[i]) continue;
+				removedTriple[i] = true;
+				removedTriples++;
+				for (int e = 0; e < DIMS; e++) {
+					final int other = columns[e][i];
+					/*
+					 * enqueue items when they drop below their threshold 
+					 * (exactly once; item itself is already below)
+					 */
+					if (degree[e][other]-- == threshold[e] && e != d) {
+						queue[tail++] = e;
+						queue[tail++] = other;
+					}
+				}
+			}
+		}
+		this.numberOfRemovedTriples = removedTriples;
+
+		/*
+		 * re-number the remaining items densely
+		 */
+		final int[][] newIds = new int[DIMS][];
+		this.originalIds = new int[DIMS][];
+		this.numberOfItemsPerDimension = new int[DIMS];
+		for (int d = 0; d < DIMS; d++) {
+			newIds[d] = new int[numberOfItemsPerDimension[d] + 1];
+			int count = 0;
+			for (int item = 1; item <= numberOfItemsPerDimension[d]; item++) {
+				if (degree[d][item] > 0) newIds[d][item] = ++count;
+			}
+			this.numberOfItemsPerDimension[d] = count;
+			originalIds[d] = new int[count + 1];
+			for (int item = 1; item <= numberOfItemsPerDimension[d]; item++) {
+				if (newIds[d][item] > 0) originalIds[d][newIds[d][item]] = item;
+			}
+		}
+
+		/*
+		 * copy the remaining triples
+		 */
+		final int size = n - removedTriples;
+		final int[][] reduced = new int[DIMS][size];
+		int j = 0;
+		for (int i = 0; i < n; i++) {
+			if (removedTriple[i]) continue;
+			for (int d = 0; d < DIMS; d++) {
+				reduced[d][j] = newIds[d][columns[d][i]];
+			}
+			j++;
+		}
+		this.tripleStore = new TripleStore(reduced[0], reduced[1], reduced[2]);
+
+		if (log.isDebugEnabled()) {
+			log.debug("support reduction removed " + removedTriples + " of " + n + " triples, remaining items: " + 
+					this.numberOfItemsPerDimension[0] + ", " + this.numberOfItemsPerDimension[1] + ", " + this.numberOfItemsPerDimension[2]);
+		}
+	}
+
+	/**
+	 * @return The reduced context (with re-numbered items).
+	 */
+	public TripleStore getTripleStore() {
+		return tripleStore;
+	}
+
+	/**
+	 * @return The number of remaining items for each dimension.
+	 */
+	public int[] getNumberOfItemsPerDimension() {
+		return numberOfItemsPerDimension;
+	}
+
+	/**
+	 * @return For each dimension and each new id the original id of the item.
+	 */
+	public int[][] getOriginalIds() {
+		return originalIds;
+	}
+
+	/**
+	 * @return The number of triples which were removed.
+	 */
+	public int getNumberOfRemovedTriples() {
+		return numberOfRemovedTriples;
+	}
+
+}
@@ -0,0 +1,204 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.model;
+
+import java.util.Arrays;
+
+import de.unikassel.cs.kde.trias.util.Dimension;
+
+/**
+ * The triples of a triadic context, stored column by column: one 
+ * <code>int[]</code> per dimension, such that the item of triple i in 
+ * dimension d is <code>getColumn(d)[i]</code>. 
+ * <p>
+ * Compared to an <code>int[][]</code> with one row per triple this needs 
+ * 12 bytes per triple (after {@link #trimToSize()}) instead of one array 
+ * object per triple, and scans over one dimension read consecutive memory.
+ * 
+ */
+public class TripleStore {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private int[][] columns; // columns[dimension][triple]
+	private int size;
+
+	/**
+	 * Creates an empty store.
+	 */
+	public TripleStore() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/** Creates an empty store with room for the given number of triples.
+	 * 
+	 * @param capacity
+	 */
+	public TripleStore(final int capacity) {
+		super();
+		this.columns = new int[Dimension.noOfDimensions][Math.max(capacity, 1)];
+		this.size = 0;
+	}
+
+	/** Creates a store which wraps the given columns (they're not copied).
+	 * 
+	 * @param u - the users of the triples
+	 * @param t - the tags of the triples
+	 * @param r - the resources of the triples
+	 */
+	public TripleStore(final int[] u, final int[] t, final int[] r) {
+		super();
+		if (u.length != t.length || u.length != r.length) {
+			throw new IllegalArgumentException("columns have different lengths (" + u.length + ", " + t.length + ", " + r.length + ")");
+		}
+		this.columns = new int[Dimension.noOfDimensions][];
+		this.columns[Dimension.U.intValue()] = u;
+		this.columns[Dimension.T.intValue()] = t;
+		this.columns[Dimension.R.intValue()] = r;
+		this.size = u.length;
+	}
+
+	/** Copies the triples of an item list (one row per triple, as used 
+	 * by {@link de.unikassel.cs.kde.trias.io.TriasReader#getItemlist()}).
+	 * 
+	 * @param itemList
+	 * @return A store containing the triples of the item list.
+	 */
+	public static TripleStore fromItemList(final int[][] itemList) {
+		final TripleStore store = new TripleStore(itemList.length);
+		for (final int[] triple: itemList) {
+			store.add(triple[Dimension.U.intValue()], triple[Dimension.T.intValue()], triple[Dimension.R.intValue()]);
+		}
+		return store;
+	}
+
+	/** Appends a triple.
+	 * 
+	 * @param u
+	 * @param t
+	 * @param r
+	 */
+	public void add(final int u, final int t, final int r) {
+		if (size == columns[0].length) {
+			grow(size + (size >> 1) + 1);
+		}
+		columns[Dimension.U.intValue()][size] = u;
+		columns[Dimension.T.intValue()][size] = t;
+		columns[Dimension.R.intValue()][size] = r;
+		size++;
+	}
+
+	/** Sets the item of an existing triple.
+	 * 
+	 * @param triple
+	 * @param dimension
+	 * @param item
+	 */
+	public void set(final int triple, final int dimension, final int item) {
+		if (triple >= size) {
+			throw new IndexOutOfBoundsException("triple " + triple + " >= " + size);
+		}
+		columns[dimension][triple] = item;
+	}
+
+	/**
+	 * @param triple
+	 * @param dimension
+	 * @return The item of the triple in the given dimension.
+	 */
+	public int get(final int triple, final int dimension) {
+		if (triple >= size) {
+			throw new IndexOutOfBoundsException("triple " + triple + " >= " + size);
+		}
+		return columns[dimension][triple];
+	}
+
+	/**
+	 * @return The number of triples.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/** Shrinks the columns to the number of triples.
+	 */
+	public void trimToSize() {
+		if (columns[0].length != size) {
+			grow(size);
+		}
+	}
+
+	/** Returns the column of the given dimension, trimmed to the number 
+	 * of triples. Changes to the array change the store.
+	 * 
+	 * @param dimension
+	 * @return The items of all triples in the given dimension.
+	 */
+	public int[] getColumn(final int dimension) {
+		trimToSize();
+		return columns[dimension];
+	}
+
+	/** Returns all columns (trimmed), indexed by dimension. Changes to the 
+	 * arrays change the store.
+	 * 
+	 * @return <code>columns[dimension][triple]</code>
+	 */
+	public int[][] getColumns() {
+		trimToSize();
+		return columns;
+	}
+
+	/** Copies the triples into an item list with one row per triple.
+	 * 
+	 * @return The item list.
+	 */
+	public int[][] toItemList() {
+		final int[][] itemList = new int[size][Dimension.noOfDimensions + 1];
+		for (int i = 0; i < size; i++) {
+			for (int dim = 0; dim < Dimension.noOfDimensions; dim++) {
+				itemList[i][dim] = columns[dim][i];
+			}
+		}
+		return itemList;
+	}
+
+	private void grow(final int capacity) {
+		for (int dim = 0; dim < columns.length; dim++) {
+			columns[dim] = Arrays.copyOf(columns[dim], capacity);
+		}
+	}
+
+	@Override
+	public String toString() {
+		final StringBuffer buf = new StringBuffer("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) buf.append(", ");
+			buf.append("(" + columns[0][i] + "," + columns[1][i] + "," + columns[2][i] + ")");
+		}
+		buf.append("]");
+		return buf.toString();
+	}
+}
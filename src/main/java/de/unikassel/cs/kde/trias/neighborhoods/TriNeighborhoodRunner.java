@@ -239,7 +239,7 @@ public class TriNeighborhoodRunner {
 		/*
 		 * configure trias
 		 */
-		trias.setItemList(mrw.getItemlist());
+		trias.setTripleStore(mrw.getTripleStore());
 		trias.setNumberOfItemsPerDimension(mrw.getNumberOfItemsPerDimension());
 		trias.setMinSupportPerDimension(getIntArrayFromString(prop.getProperty("trias.minSupport"), ARRAY_DELIM));
 		trias.setTriConceptWriter(mrw);
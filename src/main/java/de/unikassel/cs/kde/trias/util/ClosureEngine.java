@@ -0,0 +1,50 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.util;
+
+
+/**
+ * The algorithm Trias uses to enumerate the closed sets in the outer 
+ * (users) and the inner (tags and resources) loop.
+ * 
+ */
+public enum ClosureEngine {
+	/**
+	 * Ganter's NEXT CLOSURE, which finds the closed sets in lectic order 
+	 * (the default).
+	 */
+	NEXT_CLOSURE,
+	/**
+	 * Fast Close-by-One, a depth first search which skips closures known 
+	 * to fail the canonicity test. 
+	 */
+	FCBO,
+	/**
+	 * LCM (Uno et al.), a depth first search with prefix preserving closure 
+	 * extensions, occurrence deliver, and database reduction; for the 
+	 * inner loop only, the outer loop then uses NEXT CLOSURE.
+	 */
+	LCM;
+}
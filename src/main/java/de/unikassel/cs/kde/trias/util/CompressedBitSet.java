@@ -0,0 +1,330 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.util;
+
+/**
+ * A compressed set of non-negative integers in the style of Roaring bitmaps.
+ * 
+ * The integers are partitioned into chunks of 2^16 values by their upper 16 
+ * bits. Each non-empty chunk stores its lower 16 bits in a container which 
+ * is either a sorted <code>char[]</code> (sparse chunks with at most 
+ * {@value #ARRAY_MAX} elements) or a bitmap of 1024 <code>long</code>s 
+ * (dense chunks). Intersections of two bitmaps are computed 64 values at 
+ * a time by AND-ing words. 
+ * 
+ * Sets are built by {@link #add(int)}ing values in ascending order and are 
+ * not modified after they have been intersected.
+ * 
+ */
+public class CompressedBitSet {
+
+	/**
+	 * Containers with more elements are stored as bitmap.
+	 */
+	public static final int ARRAY_MAX = 4096;
+	private static final int BITMAP_WORDS = 1 << 10;
+
+	private char[] keys;              // upper 16 bits of the chunks, ascending
+	private Object[] containers;      // char[] or long[] for each chunk
+	private int[] cardinalities;      // number of elements in each container
+	private int size = 0;             // number of containers
+	private int cardinality = 0;      // number of elements
+	private int last = -1;            // largest value added so far
+
+	public CompressedBitSet() {
+		this(4);
+	}
+
+	private CompressedBitSet(final int capacity) {
+		final int c = Math.max(capacity, 1);
+		keys = new char[c];
+		containers = new Object[c];
+		cardinalities = new int[c];
+	}
+
+	/** Adds the value to the set. Values must be added in ascending order; 
+	 * adding the last value again has no effect.
+	 * 
+	 * @param value
+	 */
+	public void add(final int value) {
+		if (value <= last) {
+			if (value == last) return;
+			throw new IllegalArgumentException("values must be added in ascending order, but " + value + " < " + last);
+		}
+		last = value;
+		final char key = (char) (value >>> 16);
+		final char low = (char) value;
+		if (size == 0 || keys[size - 1] != key) {
+			append(key, new char[4], 0);
+		}
+		final int k = size - 1;
+		final Object container = containers[k];
+		if (container instanceof long[]) {
+			final long[] bitmap = (long[]) container;
+			bitmap[low >>> 6] |= 1L << low;
+		} else {
+			char[] array = (char[]) container;
+			if (cardinalities[k] == ARRAY_MAX) {
+				containers[k] = toBitmap(array, cardinalities[k]);
+				((long[]) containers[k])[low >>> 6] |= 1L << low;
+			} else {
+				if (cardinalities[k] == array.length) {
+					array = copyOf(array, Math.min(2 * array.length, ARRAY_MAX));
+					containers[k] = array;
+				}
+				array[cardinalities[k]] = low;
+			}
+		}
+		cardinalities[k]++;
+		cardinality++;
+	}
+
+	/**
+	 * @param value
+	 * @return <code>true</code>, if the set contains the value.
+	 */
+	public boolean contains(final int value) {
+		final int k = findKey((char) (value >>> 16));
+		if (k < 0) return false;
+		final char low = (char) value;
+		final Object container = containers[k];
+		if (container instanceof long[]) {
+			return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+		}
+		final char[] array = (char[]) container;
+		int l = 0;
+		int u = cardinalities[k] - 1;
+		while (l <= u) {
+			final int m = (l + u) >>> 1;
+			if (array[m] < low) {
+				l = m + 1;
+			} else if (array[m] > low) {
+				u = m - 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return The number of elements in the set.
+	 */
+	public int cardinality() {
+		return cardinality;
+	}
+
+	/** Computes the intersection of this set and the other set.
+	 * 
+	 * @param other
+	 * @return A new set containing the elements of both sets.
+	 */
+	public CompressedBitSet and(final CompressedBitSet other) {
+		final CompressedBitSet result = new CompressedBitSet(Math.min(size, other.size));
+		int i = 0;
+		int j = 0;
+		while (i < size && j < other.size) {
+			if (keys[i] < other.keys[j]) {
+				i++;
+			} else if (keys[i] > other.keys[j]) {
+				j++;
+			} else {
+				result.andContainers(keys[i], containers[i], cardinalities[i], other.containers[j], other.cardinalities[j]);
+				i++;
+				j++;
+			}
+		}
+		result.last = Math.min(last, other.last);
+		return result;
+	}
+
+	/** Copies the elements of the set in ascending order into the array.
+	 *  
+	 * @param dest
+	 * @param offset - position of the first element in dest
+	 */
+	public void toArray(final int[] dest, final int offset) {
+		int pos = offset;
+		for (int k = 0; k < size; k++) {
+			final int high = keys[k] << 16;
+			final Object container = containers[k];
+			if (container instanceof long[]) {
+				final long[] bitmap = (long[]) container;
+				for (int w = 0; w < bitmap.length; w++) {
+					long word = bitmap[w];
+					while (word != 0) {
+						dest[pos++] = high | (w << 6) + Long.numberOfTrailingZeros(word);
+						word &= word - 1;
+					}
+				}
+			} else {
+				final char[] array = (char[]) container;
+				for (int l = 0; l < cardinalities[k]; l++) {
+					dest[pos++] = high | array[l];
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The elements of the set in ascending order.
+	 */
+	public int[] toArray() {
+		final int[] result = new int[cardinality];
+		toArray(result, 0);
+		return result;
+	}
+
+	/*
+	 * intersects two containers and appends the non-empty result
+	 */
+	private void andContainers(final char key, final Object a, final int aCard, final Object b, final int bCard) {
+		if (a instanceof long[] && b instanceof long[]) {
+			final long[] aBits = (long[]) a;
+			final long[] bBits = (long[]) b;
+			final long[] bitmap = new long[BITMAP_WORDS];
+			int card = 0;
+			for (int w = 0; w < BITMAP_WORDS; w++) {
+				bitmap[w] = aBits[w] & bBits[w];
+				card += Long.bitCount(bitmap[w]);
+			}
+			if (card > ARRAY_MAX) {
+				append(key, bitmap, card);
+			} else if (card > 0) {
+				append(key, toArray(bitmap, card), card);
+			}
+		} else if (a instanceof long[]) {
+			andArrayBitmap(key, (char[]) b, bCard, (long[]) a);
+		} else if (b instanceof long[]) {
+			andArrayBitmap(key, (char[]) a, aCard, (long[]) b);
+		} else {
+			final char[] aArray = (char[]) a;
+			final char[] bArray = (char[]) b;
+			final char[] array = new char[Math.min(aCard, bCard)];
+			int card = 0;
+			int i = 0;
+			int j = 0;
+			while (i < aCard && j < bCard) {
+				if (aArray[i] < bArray[j]) {
+					i++;
+				} else if (aArray[i] > bArray[j]) {
+					j++;
+				} else {
+					array[card++] = aArray[i];
+					i++;
+					j++;
+				}
+			}
+			if (card > 0) append(key, array, card);
+		}
+	}
+
+	private void andArrayBitmap(final char key, final char[] array, final int card, final long[] bitmap) {
+		final char[] result = new char[card];
+		int resultCard = 0;
+		for (int i = 0; i < card; i++) {
+			final char low = array[i];
+			if ((bitmap[low >>> 6] & (1L << low)) != 0) {
+				result[resultCard++] = low;
+			}
+		}
+		if (resultCard > 0) append(key, result, resultCard);
+	}
+
+	private void append(final char key, final Object container, final int card) {
+		if (size == keys.length) {
+			final int capacity = 2 * size;
+			final char[] newKeys = new char[capacity];
+			final Object[] newContainers = new Object[capacity];
+			final int[] newCardinalities = new int[capacity];
+			System.arraycopy(keys, 0, newKeys, 0, size);
+			System.arraycopy(containers, 0, newContainers, 0, size);
+			System.arraycopy(cardinalities, 0, newCardinalities, 0, size);
+			keys = newKeys;
+			containers = newContainers;
+			cardinalities = newCardinalities;
+		}
+		keys[size] = key;
+		containers[size] = container;
+		cardinalities[size] = card;
+		size++;
+		cardinality += card;
+	}
+
+	private int findKey(final char key) {
+		int l = 0;
+		int u = size - 1;
+		while (l <= u) {
+			final int m = (l + u) >>> 1;
+			if (keys[m] < key) {
+				l = m + 1;
+			} else if (keys[m] > key) {
+				u = m - 1;
+			} else {
+				return m;
+			}
+		}
+		return -1;
+	}
+
+	private static long[] toBitmap(final char[] array, final int card) {
+		final long[] bitmap = new long[BITMAP_WORDS];
+		for (int i = 0; i < card; i++) {
+			bitmap[array[i] >>> 6] |= 1L << array[i];
+		}
+		return bitmap;
+	}
+
+	private static char[] toArray(final long[] bitmap, final int card) {
+		final char[] array = new char[card];
+		int pos = 0;
+		for (int w = 0; w < bitmap.length; w++) {
+			long word = bitmap[w];
+			while (word != 0) {
+				array[pos++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+				word &= word - 1;
+			}
+		}
+		return array;
+	}
+
+	private static char[] copyOf(final char[] array, final int length) {
+		final char[] copy = new char[length];
+		System.arraycopy(array, 0, copy, 0, array.length);
+		return copy;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuffer buf = new StringBuffer("{");
+		final int[] values = toArray();
+		for (int i = 0; i < values.length; i++) {
+			buf.append(values[i]);
+			if (i < values.length - 1) buf.append(", ");
+		}
+		return buf.append("}").toString();
+	}
+}
@@ -0,0 +1,50 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.util;
+
+
+/**
+ * Helpers for primitive <code>int</code> arrays, e.g., permutations of 
+ * the triples.
+ * 
+ */
+public class IntArrays {
+
+	private IntArrays() {
+		// static methods only
+	}
+
+	/**
+	 * @param n
+	 * @return The array <code>{0, 1, ..., n-1}</code>.
+	 */
+	public static int[] identity(final int n) {
+		final int[] a = new int[n];
+		for (int i = 0; i < n; i++) {
+			a[i] = i;
+		}
+		return a;
+	}
+}
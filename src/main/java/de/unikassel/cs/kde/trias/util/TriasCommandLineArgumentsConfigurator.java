@@ -63,6 +63,9 @@ public class TriasCommandLineArgumentsConfigurator implements TriasConfigurator
 	 *   uminsup, tminsup, rminsup ... minimal support (absolut values!) for dim0, dim1, dim2
 	 *   HOLES|NOHOLES ...  HOLES = columns contain holes (i.e., numbers are missing), NOHOLES = opposite
 	 *   
+	 * Optional parameters are:
+	 *   threads ... number of threads used for mining (default: 1)
+	 *   
 	 * @param args
 	 */
 	public TriasCommandLineArgumentsConfigurator (final String[] args) {
@@ -100,6 +103,11 @@ public class TriasCommandLineArgumentsConfigurator implements TriasConfigurator
 		// check, if input file contains holes
 		final boolean holes = "HOLES".equals(nextArg());
 
+		// number of threads
+		if (argctr < args.length) {
+			trias.setNumberOfThreads(nextIntArg());
+		}
+
 		/*
 		 * set data trias works on, configure output writer
 		 */
@@ -110,11 +118,11 @@ public class TriasCommandLineArgumentsConfigurator implements TriasConfigurator
 		try {
 			if (holes) {
 				final TriasHoleReader tripleReader = new TriasHoleReader(new BufferedReader (new InputStreamReader(inputStream)), numberOfTriples, delimiter);
-				trias.setItemList(tripleReader.getItemlist());
+				trias.setTripleStore(tripleReader.getTripleStore());
 				trias.setTriConceptWriter(new TriasHoleWriter(new BufferedWriter(new OutputStreamWriter(outputStream)), tripleReader.getInverseMapping()));
 			} else {
 				final TriasReader tripleReader = new TriasStandardReader(new BufferedReader (new InputStreamReader(inputStream)), numberOfTriples, delimiter);
-				trias.setItemList(tripleReader.getItemlist());
+				trias.setTripleStore(tripleReader.getTripleStore());
 				trias.setTriConceptWriter(new TriasStandardWriter(new BufferedWriter(new OutputStreamWriter(outputStream)), false));
 			}
 		} catch (IOException e) {
@@ -150,7 +158,7 @@ public class TriasCommandLineArgumentsConfigurator implements TriasConfigurator
 		final StringBuffer buf = new StringBuffer();
 		buf.append("TRIAS reads facts from STDIN and writes tri-concepts to STDOUT\n");
 		buf.append("usage:\n");
-		buf.append("java " + Trias.class.getName() + " X A B C dim0minsup dim1minsup dim2minsup HOLES|NOHOLES\n");
+		buf.append("java " + Trias.class.getName() + " X A B C dim0minsup dim1minsup dim2minsup HOLES|NOHOLES [threads]\n");
 		buf.append(
 				" neccessary parameters are:\n" + 
 				"   X ... number of triples\n" +
@@ -158,7 +166,9 @@ public class TriasCommandLineArgumentsConfigurator implements TriasConfigurator
 				"   B ... number of items in dim1\n" +
 				"   C ... number of items in dim2\n" +
 				"   dim0minsup, dim1minsup, dim2minsup ... minimal support (absolut values!) for dim0, dim1, dim2\n" +
-		"   HOLES|NOHOLES ...  HOLES = columns contain holes (i.e., numbers are missing), NOHOLES = opposite\n");
+				"   HOLES|NOHOLES ...  HOLES = columns contain holes (i.e., numbers are missing), NOHOLES = opposite\n" +
+				" optional parameters are:\n" +
+		"   threads ... number of threads used for mining (default: 1)\n");
 		return buf.toString();
 	}
 }
@@ -43,11 +43,17 @@ public class TriasJavaConfigurator implements TriasConfigurator {
 	private int[][] utrList;
 	private int[] minSupp;
 	private SortedSet<String> concepts;
+	private int numberOfThreads;
 	
 	public TriasJavaConfigurator (final int[][] utrList, final int[] minSupp, final SortedSet<String> concepts) {
+		this(utrList, minSupp, concepts, 1);
+	}
+
+	public TriasJavaConfigurator (final int[][] utrList, final int[] minSupp, final SortedSet<String> concepts, final int numberOfThreads) {
 		this.utrList = utrList;
 		this.minSupp = minSupp;
 		this.concepts = concepts;
+		this.numberOfThreads = numberOfThreads;
 	}
 
 	public void configureTrias(final Trias trias) throws ConfigurationException {
@@ -71,6 +77,8 @@ public class TriasJavaConfigurator implements TriasConfigurator {
 		 */
 		trias.setMinSupportPerDimension(minSupp);
 
+		trias.setNumberOfThreads(numberOfThreads);
+
 		trias.setTriConceptWriter(new TriasStringWriter(concepts));
 
 		trias.setItemList(utrList);
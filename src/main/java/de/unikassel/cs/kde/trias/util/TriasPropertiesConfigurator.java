@@ -28,6 +28,7 @@ import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -36,15 +37,19 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
 import java.util.Properties;
 
 import de.unikassel.cs.kde.trias.Trias;
+import de.unikassel.cs.kde.trias.io.AsyncTriasWriter;
 import de.unikassel.cs.kde.trias.io.RDFReaderWriter;
 import de.unikassel.cs.kde.trias.io.TriasHoleReader;
 import de.unikassel.cs.kde.trias.io.TriasHoleWriter;
 import de.unikassel.cs.kde.trias.io.TriasReader;
+import de.unikassel.cs.kde.trias.io.TriasStandardFileWriter;
 import de.unikassel.cs.kde.trias.io.TriasStandardReader;
 import de.unikassel.cs.kde.trias.io.TriasStandardWriter;
+import de.unikassel.cs.kde.trias.io.TriasWriter;
 
 /**
  * 
@@ -66,6 +71,22 @@ public class TriasPropertiesConfigurator implements TriasConfigurator {
 	private static final String TRIAS_NUMBER_OF_TRIPLES             = "trias.numberOfTriples";
 	private static final String TRIAS_DELIMITER                     = "trias.delimiter";
 	private static final String TRIAS_OUTPUT_SCORES                 = "trias.outputScores";
+	private static final String TRIAS_NUMBER_OF_THREADS             = "trias.numberOfThreads";
+	private static final String TRIAS_NUMBER_OF_INNER_THREADS       = "trias.numberOfInnerThreads";
+	private static final String TRIAS_INNER_QUEUE_DEPTH             = "trias.innerQueueDepth";
+	private static final String TRIAS_ORDERED_OUTPUT                = "trias.orderedOutput";
+	private static final String TRIAS_DERIVATION_ENGINE             = "trias.derivationEngine";
+	private static final String TRIAS_CLOSURE_ENGINE                = "trias.closureEngine";
+	private static final String TRIAS_INNER_CONCEPT_CACHE_SIZE      = "trias.innerConceptCacheSize";
+	private static final String TRIAS_DIMENSION_PLANNING            = "trias.dimensionPlanning";
+	private static final String TRIAS_SUPPORT_REDUCTION             = "trias.supportReduction";
+	private static final String TRIAS_BIT_MATRIX_MAX_PAIRS          = "trias.bitMatrixMaxPairs";
+	private static final String TRIAS_BIT_MATRIX_MIN_DENSITY        = "trias.bitMatrixMinDensity";
+	private static final String TRIAS_INNER_TRANSPOSITION           = "trias.innerTransposition";
+	private static final String TRIAS_ASYNC_WRITER_CAPACITY         = "trias.asyncWriterCapacity";
+	private static final String TRIAS_ASYNC_WRITER_BACKPRESSURE     = "trias.asyncWriterBackpressure";
+	private static final String TRIAS_CHECKPOINT                    = "trias.checkpoint";
+	private static final String TRIAS_CHECKPOINT_INTERVAL           = "trias.checkpointInterval";
 
 	private Properties props;
 
@@ -98,12 +119,38 @@ public class TriasPropertiesConfigurator implements TriasConfigurator {
 		}
 		trias.setMinSupportPerDimension(minSupportPerDimension);
 
+		/*
+		 * number of threads
+		 */
+		trias.setNumberOfThreads(Integer.parseInt(props.getProperty(TRIAS_NUMBER_OF_THREADS, "1")));
+		trias.setNumberOfInnerThreads(Integer.parseInt(props.getProperty(TRIAS_NUMBER_OF_INNER_THREADS, "1")));
+		if (props.containsKey(TRIAS_INNER_QUEUE_DEPTH)) {
+			trias.setInnerQueueDepth(Integer.parseInt(props.getProperty(TRIAS_INNER_QUEUE_DEPTH)));
+		}
+		trias.setOrderedOutput(Boolean.parseBoolean(props.getProperty(TRIAS_ORDERED_OUTPUT, "true")));
+
+		/*
+		 * derivation and closure engine
+		 */
+		try {
+			trias.setDerivationEngine(DerivationEngine.valueOf(props.getProperty(TRIAS_DERIVATION_ENGINE, DerivationEngine.LIST.name()).trim().toUpperCase()));
+			trias.setClosureEngine(ClosureEngine.valueOf(props.getProperty(TRIAS_CLOSURE_ENGINE, ClosureEngine.NEXT_CLOSURE.name()).trim().toUpperCase()));
+		} catch (final IllegalArgumentException e) {
+			throw new ConfigurationException(e);
+		}
+		trias.setInnerConceptCacheSize(Long.parseLong(props.getProperty(TRIAS_INNER_CONCEPT_CACHE_SIZE, "0")));
+		trias.setDimensionPlanning(Boolean.parseBoolean(props.getProperty(TRIAS_DIMENSION_PLANNING, "false")));
+		trias.setSupportReduction(Boolean.parseBoolean(props.getProperty(TRIAS_SUPPORT_REDUCTION, "true")));
+		trias.setBitMatrixMaxPairs(Integer.parseInt(props.getProperty(TRIAS_BIT_MATRIX_MAX_PAIRS, "4096")));
+		trias.setBitMatrixMinDensity(Double.parseDouble(props.getProperty(TRIAS_BIT_MATRIX_MIN_DENSITY, "0.05")));
+		trias.setInnerTransposition(Boolean.parseBoolean(props.getProperty(TRIAS_INNER_TRANSPOSITION, "true")));
+
 
 		// check, if input file contains holes
-		final boolean holes = new Boolean(props.getProperty(TRIAS_HOLES, "false"));
+		final boolean holes = Boolean.parseBoolean(props.getProperty(TRIAS_HOLES, "false"));
 
 		// check, if input is in RDF format
-		final boolean rdf = new Boolean(props.getProperty(TRIAS_RDF, "false"));
+		final boolean rdf = Boolean.parseBoolean(props.getProperty(TRIAS_RDF, "false"));
 
 		/*
 		 * configure input
@@ -116,11 +163,29 @@ public class TriasPropertiesConfigurator implements TriasConfigurator {
 				throw new ConfigurationException(e);
 			}
 		}
+		/*
+		 * configure asynchronous writing (0 = write in the mining thread)
+		 */
+		final int asyncWriterCapacity = Integer.parseInt(props.getProperty(TRIAS_ASYNC_WRITER_CAPACITY, "0"));
+
+		/*
+		 * configure checkpoints (the output file is then resumed instead 
+		 * of overwritten)
+		 */
+		final boolean checkpoints = props.containsKey(TRIAS_CHECKPOINT);
+		if (checkpoints) {
+			if (!props.containsKey(TRIAS_OUTPUT) || rdf || holes || asyncWriterCapacity > 0) {
+				throw new ConfigurationException(TRIAS_CHECKPOINT + " needs an " + TRIAS_OUTPUT + " file in the standard format, which is written synchronously");
+			}
+			trias.setCheckpointFile(new File(props.getProperty(TRIAS_CHECKPOINT)));
+			trias.setCheckpointInterval(1000 * Long.parseLong(props.getProperty(TRIAS_CHECKPOINT_INTERVAL, "600")));
+		}
+
 		/*
 		 * configure output
 		 */
 		OutputStream outputStream = System.out;
-		if (props.containsKey(TRIAS_OUTPUT)) {
+		if (props.containsKey(TRIAS_OUTPUT) && !checkpoints) {
 			try {
 				outputStream = new BufferedOutputStream(new FileOutputStream(props.getProperty(TRIAS_OUTPUT)));
 			} catch (FileNotFoundException e) {
@@ -136,28 +201,44 @@ public class TriasPropertiesConfigurator implements TriasConfigurator {
 		/*
 		 * configure writing of scores
 		 */
-		final boolean writeScores = new Boolean(props.getProperty(TRIAS_OUTPUT_SCORES, "false"));
+		final boolean writeScores = Boolean.parseBoolean(props.getProperty(TRIAS_OUTPUT_SCORES, "false"));
+
+		/*
+		 * configure asynchronous writing
+		 */
+		final AsyncTriasWriter.Backpressure backpressure;
+		try {
+			backpressure = AsyncTriasWriter.Backpressure.valueOf(props.getProperty(TRIAS_ASYNC_WRITER_BACKPRESSURE, AsyncTriasWriter.Backpressure.PARK.name()).trim().toUpperCase());
+		} catch (final IllegalArgumentException e) {
+			throw new ConfigurationException(e);
+		}
 
 		/*
 		 * read data, configure writers
 		 */
 		try {
+			final TriasWriter writer;
 			if (rdf) {
 				final RDFReaderWriter rdfrw = new RDFReaderWriter(inputStream, outputStream);
-				trias.setItemList(rdfrw.getItemlist());
-				trias.setTriConceptWriter(rdfrw);
+				trias.setTripleStore(rdfrw.getTripleStore());
+				writer = rdfrw;
 				trias.setNumberOfItemsPerDimension(rdfrw.getNumberOfItemsPerDimension());
 			} else {
 				if (holes) {
 					final TriasHoleReader tripleReader = new TriasHoleReader(new BufferedReader (new InputStreamReader(inputStream, DEFAULT_CHARSET)), numberOfTriples, delimiter);
-					trias.setItemList(tripleReader.getItemlist());
-					trias.setTriConceptWriter(new TriasHoleWriter(new BufferedWriter(new OutputStreamWriter(outputStream, DEFAULT_CHARSET)), tripleReader.getInverseMapping()));
+					trias.setTripleStore(tripleReader.getTripleStore());
+					writer = new TriasHoleWriter(new BufferedWriter(new OutputStreamWriter(outputStream, DEFAULT_CHARSET)), tripleReader.getInverseMapping());
 				} else {
 					final TriasReader tripleReader = new TriasStandardReader(new BufferedReader (new InputStreamReader(inputStream, DEFAULT_CHARSET)), numberOfTriples, delimiter);
-					trias.setItemList(tripleReader.getItemlist());
-					trias.setTriConceptWriter(new TriasStandardWriter(new BufferedWriter(new OutputStreamWriter(outputStream, DEFAULT_CHARSET)), writeScores));
+					trias.setTripleStore(tripleReader.getTripleStore());
+					if (checkpoints) {
+						writer = new TriasStandardFileWriter(new File(props.getProperty(TRIAS_OUTPUT)), Charset.forName(DEFAULT_CHARSET), writeScores);
+					} else {
+						writer = new TriasStandardWriter(new BufferedWriter(new OutputStreamWriter(outputStream, DEFAULT_CHARSET)), writeScores);
+					}
 				}
 			}
+			trias.setTriConceptWriter(asyncWriterCapacity > 0 ? new AsyncTriasWriter(writer, asyncWriterCapacity, backpressure) : writer);
 		} catch (IOException e) {
 			throw new ConfigurationException(e);
 		}
@@ -186,6 +267,22 @@ public class TriasPropertiesConfigurator implements TriasConfigurator {
 		buf.append(TRIAS_MIN_SUPPORT_PER_DIMENSION + ".0 ... minimal number of items of dim0 to be in each tri-concept\n");
 		buf.append(TRIAS_MIN_SUPPORT_PER_DIMENSION + ".1 ... minimal number of items of dim1 to be in each tri-concept\n");
 		buf.append(TRIAS_MIN_SUPPORT_PER_DIMENSION + ".2 ... minimal number of items of dim2 to be in each tri-concept\n");
+		buf.append(TRIAS_NUMBER_OF_THREADS + " ... number of threads used for mining (default: 1)\n");
+		buf.append(TRIAS_NUMBER_OF_INNER_THREADS + " ... number of threads running the inner loop, while the outer loop runs sequentially (default: 1)\n");
+		buf.append(TRIAS_INNER_QUEUE_DEPTH + " ... number of inner loop jobs which may wait for a thread (default: 4 * " + TRIAS_NUMBER_OF_INNER_THREADS + ")\n");
+		buf.append(TRIAS_DERIVATION_ENGINE + " ... 'LIST' or 'BITSET' - data structures used to compute the derivations (default: LIST)\n");
+		buf.append(TRIAS_ORDERED_OUTPUT + " ... set to 'false', if the concepts found by the inner threads need not be written in sequential order (default: true)\n");
+		buf.append(TRIAS_CLOSURE_ENGINE + " ... 'NEXT_CLOSURE', 'FCBO' or 'LCM' - algorithm used to enumerate the closed sets, LCM for the inner loop only (default: NEXT_CLOSURE)\n");
+		buf.append(TRIAS_INNER_CONCEPT_CACHE_SIZE + " ... maximal number of ints the cache of inner concepts of repeated projected relations may hold, 0 disables the cache (default: 0)\n");
+		buf.append(TRIAS_DIMENSION_PLANNING + " ... set to 'true', if the dimension enumerated in the outer loop should be chosen by estimated costs, only if all minimal supports are at least 1 (default: false)\n");
+		buf.append(TRIAS_SUPPORT_REDUCTION + " ... set to 'false', if the items which can not be part of a frequent tri-concept should not be removed before mining, only done if all minimal supports are at least 1 (default: true)\n");
+		buf.append(TRIAS_BIT_MATRIX_MAX_PAIRS + " ... maximal number of (t,r) pairs of a projected relation which is mined on a bit matrix, 0 disables the bit matrix (default: 4096)\n");
+		buf.append(TRIAS_BIT_MATRIX_MIN_DENSITY + " ... minimal density of a projected relation which is mined on a bit matrix (default: 0.05)\n");
+		buf.append(TRIAS_INNER_TRANSPOSITION + " ... set to 'false', if the inner loop should always enumerate the tags instead of the smaller dimension, which also changes the output order (default: true)\n");
+		buf.append(TRIAS_ASYNC_WRITER_CAPACITY + " ... size in ints of the buffer of a writer thread which writes the concepts, 0 writes them in the mining thread (default: 0)\n");
+		buf.append(TRIAS_ASYNC_WRITER_BACKPRESSURE + " ... 'SPIN', 'YIELD' or 'PARK' - how mining waits, when the buffer of the writer thread is full (default: PARK)\n");
+		buf.append(TRIAS_CHECKPOINT + " ... path to a checkpoint file, which allows to resume an interrupted run; needs " + TRIAS_OUTPUT + " in the standard format and synchronous writing\n");
+		buf.append(TRIAS_CHECKPOINT_INTERVAL + " ... seconds between two checkpoints (default: 600)\n");
 
 		return buf.toString();
 	}
@@ -0,0 +1,188 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.util;
+
+/**
+ * Maps pairs (a, b) of non-negative integers to non-negative integers 
+ * (e.g., (t, r) pairs to the position of their triple) without boxing.
+ * 
+ * If the pairs are dense enough, i.e., the number of possible pairs 
+ * (maxA + 1) * (maxB + 1) is at most {@value #DIRECT_FACTOR} times the expected 
+ * number of pairs, the values are stored directly in an array indexed by 
+ * a * (maxB + 1) + b. Otherwise, the pairs are packed into a 
+ * <code>long</code> and stored in an open-addressing hash table with 
+ * linear probing.
+ *  
+ */
+public class TupleIndex {
+
+	/**
+	 * Up to this factor of unused slots the direct array is used.
+	 */
+	public static final int DIRECT_FACTOR = 4;
+
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private final int maxA;
+	private final int maxB;
+
+	/*
+	 * direct index; contains value + 1 for each pair, 0 for missing pairs
+	 */
+	private int[] direct;
+
+	/*
+	 * hash table; values contains value + 1, 0 marks an empty slot
+	 */
+	private long[] keys;
+	private int[] values;
+	private int mask;
+	private int size = 0;
+
+	/**
+	 * @param maxA - largest first component
+	 * @param maxB - largest second component
+	 * @param expectedSize - expected number of pairs
+	 */
+	public TupleIndex(final int maxA, final int maxB, final int expectedSize) {
+		this.maxA = maxA;
+		this.maxB = maxB;
+		final long slots = (maxA + 1L) * (maxB + 1L);
+		if (slots <= Math.max(16L, (long) DIRECT_FACTOR * expectedSize) && slots <= Integer.MAX_VALUE) {
+			direct = new int[(int) slots];
+		} else {
+			allocate(capacityFor(expectedSize));
+		}
+	}
+
+	/**
+	 * @return <code>true</code>, if the pairs are stored in a direct array.
+	 */
+	public boolean isDirect() {
+		return direct != null;
+	}
+
+	/** Stores the value for the pair (a, b). 
+	 * 
+	 * @param a - 0 <= a <= maxA
+	 * @param b - 0 <= b <= maxB
+	 * @param value - non-negative
+	 */
+	public void put(final int a, final int b, final int value) {
+		if (a < 0 || a > maxA || b < 0 || b > maxB) {
+			throw new IllegalArgumentException("pair (" + a + ", " + b + ") is out of range");
+		}
+		if (value < 0) {
+			throw new IllegalArgumentException("value " + value + " is negative");
+		}
+		if (direct != null) {
+			direct[a * (maxB + 1) + b] = value + 1;
+			return;
+		}
+		if (size + 1 > LOAD_FACTOR * keys.length) {
+			rehash(keys.length << 1);
+		}
+		final long key = key(a, b);
+		int slot = slot(key);
+		while (values[slot] != 0) {
+			if (keys[slot] == key) {
+				values[slot] = value + 1;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value + 1;
+		size++;
+	}
+
+	/**
+	 * @param a
+	 * @param b
+	 * @return The value stored for the pair (a, b) or -1, if there is none.
+	 */
+	public int get(final int a, final int b) {
+		if (direct != null) {
+			if (a < 0 || a > maxA || b < 0 || b > maxB) return -1;
+			return direct[a * (maxB + 1) + b] - 1;
+		}
+		final long key = key(a, b);
+		int slot = slot(key);
+		while (values[slot] != 0) {
+			if (keys[slot] == key) {
+				return values[slot] - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	private static long key(final int a, final int b) {
+		return ((long) a << 32) | (b & 0xFFFFFFFFL);
+	}
+
+	/*
+	 * mixes the bits of the key (finalizer of MurmurHash3) 
+	 */
+	private int slot(final long key) {
+		long h = key;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return (int) h & mask;
+	}
+
+	private static int capacityFor(final int expectedSize) {
+		int capacity = 16;
+		while (capacity * LOAD_FACTOR < expectedSize) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	private void allocate(final int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+	}
+
+	private void rehash(final int capacity) {
+		final long[] oldKeys = keys;
+		final int[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] != 0) {
+				int slot = slot(oldKeys[i]);
+				while (values[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import de.unikassel.cs.kde.trias.model.SupportReduction;
+import de.unikassel.cs.kde.trias.model.TripleStore;
+import de.unikassel.cs.kde.trias.util.Dimension;
+import de.unikassel.cs.kde.trias.util.TriasJavaConfigurator;
+
+/**
+ * Tests the {@link DimensionPlanner}.
+ * 
+ */
+public class DimensionPlannerTest {
+
+	/*
+	 * few users, many resources 
+	 */
+	private static int[][] skewedItemList() {
+		final List<int[]> triples = new ArrayList<int[]>();
+		for (int r = 1; r <= 200; r++) {
+			for (int u = 1; u <= 3; u++) {
+				triples.add(new int[]{u, 1 + r % 5, r});
+				if (r % 3 != u) triples.add(new int[]{u, 1 + (r + 1) % 5, r});
+			}
+		}
+		return triples.toArray(new int[triples.size()][]);
+	}
+
+	@Test
+	public void testPlans() {
+		final DimensionPlanner planner = new DimensionPlanner(TripleStore.fromItemList(skewedItemList()), new int[]{3, 5, 200}, new int[]{1, 1, 1});
+		final DimensionPlanner.Plan[] plans = planner.getPlans();
+		assertEquals(6, plans.length);
+		for (int p = 1; p < plans.length; p++) {
+			assertTrue(plans[p - 1].getCost() <= plans[p].getCost());
+		}
+		// the resources must not be enumerated outside
+		assertFalse(Dimension.R.intValue() == planner.getBestPlan().getPermutation()[0]);
+		// one line per permutation plus header
+		assertEquals(7, planner.getReport().split("\n").length);
+	}
+
+	/** The report must show the plans of the context which is mined, 
+	 * i.e., after the support reduction.
+	 */
+	@Test
+	public void testReportOfReducedContext() {
+		final List<int[]> triples = new ArrayList<int[]>();
+		for (final int[] triple: skewedItemList()) triples.add(triple);
+		// resources of a single user, removed by the support reduction
+		for (int r = 201; r <= 400; r++) triples.add(new int[]{1, 1, r});
+		final int[][] itemList = triples.toArray(new int[triples.size()][]);
+		final int[] numberOfItems = new int[]{3, 5, 400};
+		final int[] minSupp = new int[]{2, 1, 1};
+
+		final Trias trias = new Trias();
+		new TriasJavaConfigurator(itemList, minSupp, null).configureTrias(trias);
+		final SupportReduction reduction = new SupportReduction(TripleStore.fromItemList(itemList), numberOfItems, minSupp);
+		assertTrue(reduction.getNumberOfRemovedTriples() > 0);
+		final String reducedReport = trias.getDimensionPlanReport();
+		assertEquals(new DimensionPlanner(reduction.getTripleStore(), reduction.getNumberOfItemsPerDimension(), minSupp).getReport(), reducedReport);
+
+		trias.setSupportReduction(false);
+		assertFalse(reducedReport.equals(trias.getDimensionPlanReport()));
+		assertEquals(new DimensionPlanner(TripleStore.fromItemList(itemList), numberOfItems, minSupp).getReport(), trias.getDimensionPlanReport());
+
+		trias.setMinSupportPerDimension(new int[]{0, 1, 1});
+		assertTrue(trias.getDimensionPlanReport().startsWith("the dimensions are not permuted"));
+	}
+
+	@Test
+	public void testPermutedMiningFindsSameConcepts() throws IOException {
+		final int[][] itemList = skewedItemList();
+		final int[] minSupp = new int[]{1, 2, 1};
+		final SortedSet<String> expected = mine(itemList, minSupp, false);
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, mine(itemList, minSupp, true));
+	}
+
+	private static SortedSet<String> mine(final int[][] itemList, final int[] minSupp, final boolean dimensionPlanning) throws IOException {
+		final SortedSet<String> concepts = new TreeSet<String>();
+		final Trias trias = new Trias();
+		new TriasJavaConfigurator(itemList, minSupp, concepts).configureTrias(trias);
+		trias.setDimensionPlanning(dimensionPlanning);
+		trias.doWork();
+		return concepts;
+	}
+
+}
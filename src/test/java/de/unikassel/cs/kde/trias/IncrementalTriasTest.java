@@ -0,0 +1,168 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import de.unikassel.cs.kde.trias.io.ListTriasWriter;
+import de.unikassel.cs.kde.trias.io.TriConceptReader;
+import de.unikassel.cs.kde.trias.io.TriasStandardWriter;
+import de.unikassel.cs.kde.trias.model.ContextIndex;
+import de.unikassel.cs.kde.trias.model.TripleStore;
+
+/**
+ * Checks that the previous tri-concepts plus the added minus the removed 
+ * ones are the tri-concepts of the updated context.
+ * 
+ */
+public class IncrementalTriasTest {
+
+	@Test
+	public void testRandomUpdates() throws IOException {
+		final Random random = new Random(11);
+		int added = 0;
+		int removed = 0;
+		int addedByRemovals = 0;
+		for (int run = 0; run < 60; run++) {
+			final int[][] itemList = TriasTest.randomItemList(random, 4 + random.nextInt(6), 4 + random.nextInt(6), 4 + random.nextInt(6), 0.3 + 0.4 * random.nextDouble());
+			final int[] minSupp = new int[]{1 + random.nextInt(2), 1 + random.nextInt(2), 1 + random.nextInt(2)};
+			/*
+			 * the previous context misses some triples, the update also 
+			 * contains some which are already in it; some updates also 
+			 * (or only) remove triples
+			 */
+			final TripleStore previous = new TripleStore();
+			final TripleStore update = new TripleStore();
+			for (final int[] triple: itemList) {
+				final double p = random.nextDouble();
+				if (p < 0.8) previous.add(triple[0], triple[1], triple[2]);
+				if (p >= 0.7 && run % 3 != 2) update.add(triple[0], triple[1], triple[2]);
+			}
+			if (previous.size() == 0) continue;
+			final int[] numberOfItems = new int[3];
+			for (int dim = 0; dim < numberOfItems.length; dim++) {
+				for (final int item: previous.getColumn(dim)) numberOfItems[dim] = Math.max(numberOfItems[dim], item);
+			}
+
+			/*
+			 * save and load the previous concepts and index
+			 */
+			final StringWriter previousConceptsFile = new StringWriter();
+			final TriasStandardWriter standardWriter = new TriasStandardWriter(new BufferedWriter(previousConceptsFile), false);
+			final List<int[][]> previousConcepts = mine(previous, numberOfItems, minSupp);
+			for (final int[][] concept: previousConcepts) {
+				standardWriter.write(concept);
+			}
+			standardWriter.close();
+			final ByteArrayOutputStream indexFile = new ByteArrayOutputStream();
+			new ContextIndex(previous, numberOfItems).write(new DataOutputStream(indexFile));
+
+			final IncrementalTrias incremental = new IncrementalTrias(ContextIndex.read(new DataInputStream(new ByteArrayInputStream(indexFile.toByteArray()))), minSupp);
+			final ListTriasWriter addedConcepts = new ListTriasWriter();
+			final ListTriasWriter removedConcepts = new ListTriasWriter();
+			final boolean[] removedTriples = new boolean[previous.size()];
+			if (run % 3 != 0) {
+				for (int triple = 0; triple < removedTriples.length; triple++) removedTriples[triple] = random.nextDouble() < 0.2;
+			}
+			incremental.update(removedTriples, update, new TriConceptReader().getConcepts(new BufferedReader(new StringReader(previousConceptsFile.toString()))), addedConcepts, removedConcepts);
+
+			final SortedSet<String> concepts = toStrings(previousConcepts);
+			for (final String concept: toStrings(removedConcepts.getConcepts())) {
+				assertTrue(concept, concepts.remove(concept));
+			}
+			for (final String concept: toStrings(addedConcepts.getConcepts())) {
+				assertTrue(concept, concepts.add(concept));
+			}
+			assertEquals(addedConcepts.getConcepts().size(), incremental.getNumberOfAddedConcepts());
+			assertEquals(removedConcepts.getConcepts().size(), incremental.getNumberOfRemovedConcepts());
+
+			final ContextIndex index = incremental.getContextIndex();
+			assertEquals(toStrings(mine(index.getTripleStore(), index.getNumberOfItemsPerDimension(), minSupp)), concepts);
+			added += addedConcepts.getConcepts().size();
+			removed += removedConcepts.getConcepts().size();
+			if (run % 3 == 2) addedByRemovals += addedConcepts.getConcepts().size();
+		}
+		assertTrue(added > 0);
+		assertTrue(removed > 0);
+		assertTrue(addedByRemovals > 0);
+	}
+
+	@Test
+	public void testNoNewTriples() throws IOException {
+		final TripleStore previous = TripleStore.fromItemList(new int[][]{{1, 1, 1}, {1, 2, 1}, {2, 1, 1}});
+		final int[] minSupp = new int[]{1, 1, 1};
+		final IncrementalTrias incremental = new IncrementalTrias(new ContextIndex(previous, new int[]{2, 2, 1}), minSupp);
+		final ListTriasWriter addedConcepts = new ListTriasWriter();
+		final ListTriasWriter removedConcepts = new ListTriasWriter();
+		incremental.update(TripleStore.fromItemList(new int[][]{{2, 1, 1}, {1, 1, 1}}), mine(previous, new int[]{2, 2, 1}, minSupp), addedConcepts, removedConcepts);
+		assertEquals(0, incremental.getNumberOfNewTriples());
+		assertTrue(addedConcepts.getConcepts().isEmpty());
+		assertTrue(removedConcepts.getConcepts().isEmpty());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testEmptySets() {
+		new IncrementalTrias(new ContextIndex(new TripleStore(), new int[]{0, 0, 0}), new int[]{1, 0, 1});
+	}
+
+	private static List<int[][]> mine(final TripleStore triples, final int[] numberOfItems, final int[] minSupp) throws IOException {
+		final ListTriasWriter writer = new ListTriasWriter();
+		final Trias trias = new Trias();
+		trias.setTripleStore(triples);
+		trias.setNumberOfItemsPerDimension(numberOfItems);
+		trias.setMinSupportPerDimension(minSupp);
+		trias.setTriConceptWriter(writer);
+		trias.doWork();
+		return writer.getConcepts();
+	}
+
+	private static SortedSet<String> toStrings(final List<int[][]> concepts) {
+		final SortedSet<String> strings = new TreeSet<String>();
+		for (final int[][] concept: concepts) {
+			assertFalse(strings.contains(Arrays.deepToString(concept)));
+			strings.add(Arrays.deepToString(concept));
+		}
+		return strings;
+	}
+}
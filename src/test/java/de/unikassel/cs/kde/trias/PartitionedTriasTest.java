@@ -0,0 +1,178 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import de.unikassel.cs.kde.trias.io.TriasStringWriter;
+import de.unikassel.cs.kde.trias.model.TripleStore;
+import de.unikassel.cs.kde.trias.util.TriasJavaConfigurator;
+
+/**
+ * Mines random contexts with worker processes and compares the merged 
+ * result with the one of Trias.
+ * 
+ */
+public class PartitionedTriasTest {
+
+	/*
+	 * lets the first attempt of one range fail
+	 */
+	private static class FailingPartitionedTrias extends PartitionedTrias {
+		private final int failingPartition;
+		private final int failingAttempts;
+
+		public FailingPartitionedTrias(final File workDirectory, final int failingPartition, final int failingAttempts) {
+			super(workDirectory);
+			this.failingPartition = failingPartition;
+			this.failingAttempts = failingAttempts;
+		}
+
+		@Override
+		protected Process startWorker(final int partition, final int attempt, final List<String> command, final File workerLog) throws IOException {
+			if (partition == failingPartition && attempt <= failingAttempts) {
+				final List<String> failing = new ArrayList<String>(command);
+				failing.set(failing.indexOf(PartitionedTrias.class.getName()), "no.such.Class");
+				return super.startWorker(partition, attempt, failing, workerLog);
+			}
+			return super.startWorker(partition, attempt, command, workerLog);
+		}
+	}
+
+	/*
+	 * lets the first attempt of one range hang
+	 */
+	private static class HangingPartitionedTrias extends PartitionedTrias {
+		private final int hangingPartition;
+
+		public HangingPartitionedTrias(final File workDirectory, final int hangingPartition) {
+			super(workDirectory);
+			this.hangingPartition = hangingPartition;
+		}
+
+		@Override
+		protected Process startWorker(final int partition, final int attempt, final List<String> command, final File workerLog) throws IOException {
+			if (partition == hangingPartition && attempt == 1) {
+				final List<String> hanging = new ArrayList<String>(command);
+				hanging.set(hanging.indexOf(PartitionedTrias.class.getName()), HangingWorker.class.getName());
+				return super.startWorker(partition, attempt, hanging, workerLog);
+			}
+			return super.startWorker(partition, attempt, command, workerLog);
+		}
+	}
+
+	/**
+	 * A worker which never finishes.
+	 */
+	public static class HangingWorker {
+		public static void main(final String[] args) throws InterruptedException {
+			Thread.sleep(Long.MAX_VALUE);
+		}
+	}
+
+	@Test
+	public void testRandomContexts() throws IOException {
+		final Random random = new Random(29);
+		for (final int[] minSupp: new int[][]{{1, 1, 1}, {2, 1, 2}}) {
+			final int[][] itemList = TriasTest.randomItemList(random, 12, 10, 10, 0.3);
+			final PartitionedTrias partitioned = new PartitionedTrias(Files.createTempDirectory("trias").toFile());
+			partitioned.setNumberOfPartitions(5);
+			partitioned.setNumberOfWorkers(3);
+			assertEquals(mine(itemList, minSupp), mine(partitioned, itemList, minSupp));
+			assertEquals(0, partitioned.getNumberOfFailedAttempts());
+		}
+	}
+
+	@Test
+	public void testRetry() throws IOException {
+		final int[][] itemList = TriasTest.randomItemList(new Random(31), 10, 8, 8, 0.4);
+		final int[] minSupp = new int[]{1, 1, 1};
+		final PartitionedTrias partitioned = new FailingPartitionedTrias(Files.createTempDirectory("trias").toFile(), 1, 1);
+		partitioned.setNumberOfPartitions(3);
+		assertEquals(mine(itemList, minSupp), mine(partitioned, itemList, minSupp));
+		assertEquals(1, partitioned.getNumberOfFailedAttempts());
+	}
+
+	@Test
+	public void testTimeout() throws IOException {
+		final int[][] itemList = TriasTest.randomItemList(new Random(41), 8, 8, 8, 0.4);
+		final int[] minSupp = new int[]{1, 1, 1};
+		final PartitionedTrias partitioned = new HangingPartitionedTrias(Files.createTempDirectory("trias").toFile(), 0);
+		partitioned.setNumberOfPartitions(2);
+		partitioned.setWorkerTimeout(3000);
+		assertEquals(mine(itemList, minSupp), mine(partitioned, itemList, minSupp));
+		assertEquals(1, partitioned.getNumberOfFailedAttempts());
+	}
+
+	@Test
+	public void testFailure() throws IOException {
+		final int[][] itemList = TriasTest.randomItemList(new Random(37), 6, 6, 6, 0.5);
+		final PartitionedTrias partitioned = new FailingPartitionedTrias(Files.createTempDirectory("trias").toFile(), 0, 2);
+		partitioned.setMaxAttempts(2);
+		try {
+			mine(partitioned, itemList, new int[]{1, 1, 1});
+			fail("the first range can not be mined");
+		} catch (final IOException e) {
+			assertTrue(e.getMessage().contains("2 attempts"));
+		}
+	}
+
+	private static SortedSet<String> mine(final int[][] itemList, final int[] minSupp) throws IOException {
+		final SortedSet<String> concepts = new TreeSet<String>();
+		new Trias(new TriasJavaConfigurator(itemList, minSupp, concepts)).doWork();
+		return concepts;
+	}
+
+	private static SortedSet<String> mine(final PartitionedTrias partitioned, final int[][] itemList, final int[] minSupp) throws IOException {
+		final int[] numberOfItems = new int[3];
+		for (final int[] triple: itemList) {
+			for (int dim = 0; dim < numberOfItems.length; dim++) numberOfItems[dim] = Math.max(numberOfItems[dim], triple[dim]);
+		}
+		final SortedSet<String> concepts = new TreeSet<String>();
+		try {
+			partitioned.mine(TripleStore.fromItemList(itemList), numberOfItems, minSupp, new TriasStringWriter(concepts));
+		} finally {
+			// remove the logs of the workers
+			for (final File file: partitioned.getWorkDirectory().listFiles()) {
+				Files.delete(file.toPath());
+			}
+			Files.delete(partitioned.getWorkDirectory().toPath());
+		}
+		return concepts;
+	}
+}
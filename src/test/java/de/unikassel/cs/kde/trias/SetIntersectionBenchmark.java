@@ -0,0 +1,109 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import java.util.Random;
+
+/**
+ * Microbenchmark for the methods of {@link SetIntersection}: intersects a 
+ * small set A with sets B which are increasingly larger than A and prints 
+ * the time per intersection for each method. The crossover points are the 
+ * basis for {@link SetIntersection#BLOCK_RATIO} and {@link SetIntersection#GALLOP_RATIO}.
+ * 
+ * Not a test - run it with 
+ * <pre>
+ * java -cp target/classes:target/test-classes de.unikassel.cs.kde.trias.SetIntersectionBenchmark [sizeOfA]
+ * </pre>
+ * 
+ */
+public class SetIntersectionBenchmark {
+
+	private static final String[] METHODS = {"merge", "block", "gallop", "intersect"};
+
+	private static final TriasComparator COMPARATOR = new TriasComparator() {
+		public int compare(final int[][] values, final int a, final int b) {
+			return values[0][a] - values[0][b];
+		}
+	};
+
+	public static void main(final String[] args) {
+		final int sizeA = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+		final Random random = new Random(42);
+
+		System.out.println("|A| = " + sizeA + ", time per intersection in ns");
+		System.out.printf("%8s %10s %10s %10s %10s%n", "|B|/|A|", METHODS[0], METHODS[1], METHODS[2], METHODS[3]);
+		for (int ratio = 1; ratio <= 1024; ratio <<= 1) {
+			final int sizeB = sizeA * ratio;
+			/*
+			 * B contains the values 1 ... sizeB, A a random subset of them, 
+			 * thus each element of A is found in B
+			 */
+			final int[][] values = new int[1][sizeA + sizeB];
+			final int[] order = new int[sizeB];
+			for (int j = 0; j < sizeB; j++) {
+				values[0][sizeA + j] = j + 1;
+				order[j] = sizeA + j;
+			}
+			final int[] set = new int[sizeA + 1];
+			set[0] = sizeA;
+			int value = 0;
+			for (int i = 1; i <= sizeA; i++) {
+				value += 1 + random.nextInt(2 * ratio - 1); // on average ratio
+				values[0][i - 1] = Math.min(value, sizeB);
+				set[i] = i - 1;
+			}
+			// duplicate values at the end of A are not a problem for timing
+
+			final long[] times = new long[METHODS.length];
+			for (int method = 0; method < METHODS.length; method++) {
+				run(method, set, values, order, sizeB, 2000000 / (sizeA + sizeB) + 10); // warm-up
+				times[method] = run(method, set, values, order, sizeB, 20000000 / (sizeA + sizeB) + 100);
+			}
+			System.out.printf("%8d %10d %10d %10d %10d%n", ratio, times[0], times[1], times[2], times[3]);
+		}
+	}
+
+	/*
+	 * returns the average time per intersection in ns
+	 */
+	private static long run(final int method, final int[] set, final int[][] values, final int[] order, final int sizeB, final int repetitions) {
+		final int[] result = new int[set.length];
+		int sum = 0;
+		final long start = System.nanoTime();
+		for (int k = 0; k < repetitions; k++) {
+			System.arraycopy(set, 0, result, 0, set.length);
+			switch (method) {
+			case 0: SetIntersection.merge(result, values, order, 0, sizeB - 1, COMPARATOR); break;
+			case 1: SetIntersection.blockMerge(result, values, order, 0, sizeB - 1, COMPARATOR); break;
+			case 2: SetIntersection.gallopB(result, values, order, 0, sizeB - 1, COMPARATOR); break;
+			default: SetIntersection.intersect(result, values, order, 0, sizeB - 1, COMPARATOR); break;
+			}
+			sum += result[0];
+		}
+		final long time = (System.nanoTime() - start) / repetitions;
+		if (sum < 0) System.out.println(sum); // keep the result alive
+		return time;
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import static junit.framework.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Compares the methods of {@link SetIntersection} with a naive 
+ * intersection.
+ * 
+ */
+public class SetIntersectionTest {
+
+	private static final TriasComparator COMPARATOR = new TriasComparator() {
+		public int compare(final int[][] values, final int a, final int b) {
+			return values[0][a] - values[0][b];
+		}
+	};
+
+	@Test
+	public void testSimilarSizes() {
+		check(100, 100, new Random(1));
+	}
+
+	@Test
+	public void testSkewedSizes() {
+		check(10, 1000, new Random(2));
+		check(1000, 10, new Random(3));
+		check(50, 500, new Random(4));
+	}
+
+	@Test
+	public void testEmptySets() {
+		check(0, 100, new Random(5));
+		check(100, 0, new Random(6));
+		check(0, 0, new Random(7));
+	}
+
+	private static void check(final int sizeA, final int sizeB, final Random random) {
+		for (int run = 0; run < 20; run++) {
+			/*
+			 * one column of values; A and B refer to disjoint positions
+			 */
+			final int maxValue = 2 * (sizeA + sizeB) + 1;
+			final int[] a = randomSet(sizeA, maxValue, random);
+			final int[] b = randomSet(sizeB, maxValue, random);
+			final int[][] values = new int[1][sizeA + sizeB];
+			final int[] set = new int[sizeA + 1];
+			final int[] order = new int[sizeB + 2]; // B starts at position 1
+			set[0] = sizeA;
+			for (int i = 0; i < sizeA; i++) {
+				values[0][i] = a[i];
+				set[i + 1] = i;
+			}
+			for (int j = 0; j < sizeB; j++) {
+				values[0][sizeA + j] = b[j];
+				order[j + 1] = sizeA + j;
+			}
+			/*
+			 * expected: positions from B
+			 */
+			final int[] expected = new int[Math.min(sizeA, sizeB) + 1];
+			for (int j = 0; j < sizeB; j++) {
+				if (Arrays.binarySearch(a, b[j]) >= 0) expected[++expected[0]] = sizeA + j;
+			}
+
+			assertSet(expected, intersect(0, set, values, order, sizeB));
+			assertSet(expected, intersect(1, set, values, order, sizeB));
+			assertSet(expected, intersect(2, set, values, order, sizeB));
+			assertSet(expected, intersect(3, set, values, order, sizeB));
+			assertSet(expected, intersect(4, set, values, order, sizeB));
+		}
+	}
+
+	private static int[] intersect(final int method, final int[] set, final int[][] values, final int[] order, final int sizeB) {
+		final int[] result = set.clone();
+		switch (method) {
+		case 0: SetIntersection.intersect(result, values, order, 1, sizeB, COMPARATOR); break;
+		case 1: SetIntersection.merge(result, values, order, 1, sizeB, COMPARATOR); break;
+		case 2: SetIntersection.blockMerge(result, values, order, 1, sizeB, COMPARATOR); break;
+		case 3: SetIntersection.gallopB(result, values, order, 1, sizeB, COMPARATOR); break;
+		default: SetIntersection.gallopA(result, values, order, 1, sizeB, COMPARATOR); break;
+		}
+		return result;
+	}
+
+	private static void assertSet(final int[] expected, final int[] actual) {
+		assertEquals(expected[0], actual[0]);
+		for (int i = 1; i <= expected[0]; i++) {
+			assertEquals(expected[i], actual[i]);
+		}
+	}
+
+	/*
+	 * sorted set of distinct values from 1 to maxValue
+	 */
+	private static int[] randomSet(final int size, final int maxValue, final Random random) {
+		final boolean[] contained = new boolean[maxValue + 1];
+		int n = 0;
+		while (n < size) {
+			final int value = 1 + random.nextInt(maxValue);
+			if (!contained[value]) {
+				contained[value] = true;
+				n++;
+			}
+		}
+		final int[] set = new int[size];
+		int i = 0;
+		for (int value = 1; value <= maxValue; value++) {
+			if (contained[value]) set[i++] = value;
+		}
+		return set;
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import de.unikassel.cs.kde.trias.io.ListTriasWriter;
+import de.unikassel.cs.kde.trias.model.ContextIndex;
+import de.unikassel.cs.kde.trias.model.TripleStore;
+
+/**
+ * Moves a window over random time stamped triples and compares its 
+ * tri-concepts with the ones Trias mines on the triples in the window.
+ * 
+ */
+public class SlidingWindowTriasTest {
+
+	@Test
+	public void testRandomWindows() throws IOException {
+		final Random random = new Random(17);
+		final int[] minSupp = new int[]{2, 1, 1};
+		final SlidingWindowTrias window = new SlidingWindowTrias(3, minSupp);
+		final Map<String, int[][]> concepts = new TreeMap<String, int[][]>();
+		int removed = 0;
+		for (int day = 1; day <= 12; day++) {
+			/*
+			 * new users, tags and resources get the next ids
+			 */
+			final int[] numberOfItems = window.getContextIndex().getNumberOfItemsPerDimension();
+			final TripleStore triples = new TripleStore();
+			final int n = 10 + random.nextInt(30);
+			final long[] timestamps = new long[n];
+			for (int triple = 0; triple < n; triple++) {
+				triples.add(1 + random.nextInt(numberOfItems[0] + 1), 1 + random.nextInt(numberOfItems[1] + 1), 1 + random.nextInt(numberOfItems[2] + 1));
+				timestamps[triple] = day - random.nextInt(2);
+			}
+
+			final ListTriasWriter addedConcepts = new ListTriasWriter();
+			final ListTriasWriter removedConcepts = new ListTriasWriter();
+			window.advance(day, triples, timestamps, new ArrayList<int[][]>(concepts.values()), addedConcepts, removedConcepts);
+			for (final int[][] concept: removedConcepts.getConcepts()) {
+				assertNotNull(concepts.remove(Arrays.deepToString(concept)));
+			}
+			for (final int[][] concept: addedConcepts.getConcepts()) {
+				assertNull(concepts.put(Arrays.deepToString(concept), concept));
+			}
+			removed += removedConcepts.getConcepts().size();
+
+			final ContextIndex index = window.getContextIndex();
+			assertEquals(index.getTripleStore().size(), window.getTimestamps().length);
+			for (final long timestamp: window.getTimestamps()) {
+				assertTrue(day - 3 < timestamp && timestamp <= day);
+			}
+			assertEquals(mine(index, minSupp), concepts.keySet());
+		}
+		assertTrue(removed > 0);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testBackwards() throws IOException {
+		final SlidingWindowTrias window = new SlidingWindowTrias(3, new int[]{1, 1, 1});
+		window.advance(5, new TripleStore(), new long[0], new ArrayList<int[][]>(), new ListTriasWriter(), new ListTriasWriter());
+		window.advance(4, new TripleStore(), new long[0], new ArrayList<int[][]>(), new ListTriasWriter(), new ListTriasWriter());
+	}
+
+	private static Set<String> mine(final ContextIndex index, final int[] minSupp) throws IOException {
+		final ListTriasWriter writer = new ListTriasWriter();
+		final Trias trias = new Trias();
+		trias.setTripleStore(index.getTripleStore());
+		trias.setNumberOfItemsPerDimension(index.getNumberOfItemsPerDimension());
+		trias.setMinSupportPerDimension(minSupp);
+		trias.setTriConceptWriter(writer);
+		trias.doWork();
+		final Map<String, int[][]> concepts = new TreeMap<String, int[][]>();
+		for (final int[][] concept: writer.getConcepts()) {
+			concepts.put(Arrays.deepToString(concept), concept);
+		}
+		return concepts.keySet();
+	}
+}
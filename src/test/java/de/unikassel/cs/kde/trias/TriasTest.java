@@ -25,19 +25,38 @@
 package de.unikassel.cs.kde.trias;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
 import org.junit.Test;
 
 import de.unikassel.cs.kde.trias.io.ModelReaderWriter;
+import de.unikassel.cs.kde.trias.io.TriasStandardFileWriter;
 import de.unikassel.cs.kde.trias.io.TriasStringWriter;
 import de.unikassel.cs.kde.trias.io.TriasWriter;
 import de.unikassel.cs.kde.trias.model.Context;
 import de.unikassel.cs.kde.trias.model.Triple;
+import de.unikassel.cs.kde.trias.progress.ProgressLogger;
+import de.unikassel.cs.kde.trias.progress.ProgressStep;
 import de.unikassel.cs.kde.trias.progress.SimpleProgressLogger;
+import de.unikassel.cs.kde.trias.util.ClosureEngine;
+import de.unikassel.cs.kde.trias.util.DerivationEngine;
 import de.unikassel.cs.kde.trias.util.TriasConfigurator;
 import de.unikassel.cs.kde.trias.util.TriasJavaConfigurator;
 
@@ -575,6 +594,492 @@ public class TriasTest {
 		checkResult(utrList, result, new int[]{0, 0, 1});
 	}
 	
+	/** Runs Trias with all variants on random contexts and compares the 
+	 * results with the sequential algorithm.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testVariantsOnRandomContexts() throws IOException {
+		final Random random = new Random(42);
+		for (int run = 0; run < 20; run++) {
+			final int[][] itemList = randomItemList(random, 2 + random.nextInt(8), 2 + random.nextInt(8), 2 + random.nextInt(8), 0.2 + 0.6 * random.nextDouble());
+			final int[] minSupp = new int[]{random.nextInt(2), random.nextInt(2), random.nextInt(2)};
+			final SortedSet<String> sequential = runTrias(itemList, minSupp, null);
+			for (final Variant variant: VARIANTS) {
+				assertEquals(variant.toString(), sequential, runTrias(itemList, minSupp, variant));
+			}
+		}
+	}
+
+	/** The readers accept repeated lines, thus a context may contain a 
+	 * triple more than once. All variants must find the tri-concepts of the 
+	 * context without the repetitions.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testRepeatedTriples() throws IOException {
+		final int[][] repeated = new int[][] {{1, 1, 1}, {1, 1, 1}, {1, 2, 1}, {2, 1, 1}, {2, 2, 2}};
+		final int[][] distinct = new int[][] {{1, 1, 1}, {1, 2, 1}, {2, 1, 1}, {2, 2, 2}};
+		assertEquals(runTrias(distinct, minSupp1, null), runTrias(repeated, minSupp1, null));
+
+		final Random random = new Random(31);
+		for (int run = 0; run < 20; run++) {
+			final int[][] itemList = randomItemList(random, 2 + random.nextInt(8), 2 + random.nextInt(8), 2 + random.nextInt(8), 0.2 + 0.6 * random.nextDouble());
+			final int[][] withRepetitions = Arrays.copyOf(itemList, itemList.length + 1 + random.nextInt(itemList.length));
+			for (int i = itemList.length; i < withRepetitions.length; i++) {
+				withRepetitions[i] = itemList[random.nextInt(itemList.length)].clone();
+			}
+			final int[] minSupp = new int[]{random.nextInt(2), random.nextInt(2), random.nextInt(2)};
+			final SortedSet<String> expected = runTrias(itemList, minSupp, null);
+			assertEquals(expected, runTrias(withRepetitions, minSupp, null));
+			for (final Variant variant: VARIANTS) {
+				assertEquals(variant.toString(), expected, runTrias(withRepetitions, minSupp, variant));
+			}
+		}
+	}
+
+	/** Runs the inner loop concurrently and checks, that the tri-concepts 
+	 * are written in the same order as by the sequential algorithm.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testOrderedInnerThreadsOnRandomContexts() throws IOException {
+		final Random random = new Random(23);
+		for (int run = 0; run < 20; run++) {
+			final int[][] itemList = randomItemList(random, 2 + random.nextInt(8), 2 + random.nextInt(8), 2 + random.nextInt(8), 0.2 + 0.6 * random.nextDouble());
+			final int[] minSupp = new int[]{random.nextInt(2), random.nextInt(2), random.nextInt(2)};
+			final List<String> sequential = runTriasOrdered(itemList, minSupp, 1, 0);
+			assertEquals(sequential, runTriasOrdered(itemList, minSupp, 3, 0));
+			assertEquals(sequential, runTriasOrdered(itemList, minSupp, 4, 2));
+		}
+	}
+
+	/** Two users with relations which are equal up to re-numbering: the 
+	 * inner concepts of the second one must come from the cache.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testInnerConceptCache() throws IOException {
+		final int[][] itemList = new int[][] {
+				{1, 1, 1}, {1, 1, 2}, {1, 2, 1},
+				{2, 3, 3}, {2, 3, 4}, {2, 4, 3}
+		};
+		final int[] minSupp = new int[]{1, 1, 1};
+		final SortedSet<String> expected = runTrias(itemList, minSupp, null);
+		final CountingProgressLogger expectedSteps = new CountingProgressLogger();
+		final Trias uncached = new Trias();
+		new TriasJavaConfigurator(itemList, minSupp, new TreeSet<String>()).configureTrias(uncached);
+		uncached.setProgressLogger(expectedSteps);
+		uncached.doWork();
+
+		final SortedSet<String> computedConcepts = new TreeSet<String>();
+		final CountingProgressLogger steps = new CountingProgressLogger();
+		final Trias trias = new Trias();
+		new TriasJavaConfigurator(itemList, minSupp, computedConcepts).configureTrias(trias);
+		trias.setInnerConceptCacheSize(1000);
+		trias.setProgressLogger(steps);
+		trias.doWork();
+		assertEquals(expected, computedConcepts);
+		assertEquals(1, trias.getInnerConceptCacheHits());
+		assertTrue(trias.getInnerConceptCacheMisses() > 0);
+		// a hit logs the same progress steps as mining the relation
+		assertEquals(expectedSteps.counts, steps.counts);
+	}
+
+	/*
+	 * counts how often each step was logged
+	 */
+	private static class CountingProgressLogger implements ProgressLogger {
+		private final Map<ProgressStep, Integer> counts = new EnumMap<ProgressStep, Integer>(ProgressStep.class);
+
+		public void logExtent(final int minElement) {
+			// nothing to do
+		}
+
+		public synchronized void logStep(final ProgressStep step) {
+			counts.put(step, counts.containsKey(step) ? counts.get(step) + 1 : 1);
+		}
+
+		public void setMax(final int max) {
+			// nothing to do
+		}
+	}
+
+	/** Checks that candidates with too few triples are skipped (the 
+	 * support reduction is disabled, since it would remove them 
+	 * beforehand).
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testPrunedCandidates() throws IOException {
+		/*
+		 * three dense users, one user with a single resource for tag 2 and 
+		 * many users with only two triples
+		 */
+		final List<int[]> triples = new LinkedList<int[]>();
+		for (int u = 1; u <= 3; u++) {
+			for (int t = 1; t <= 3; t++) {
+				for (int r = 1; r <= 3; r++) {
+					triples.add(new int[]{u, t, r, 0});
+				}
+			}
+		}
+		triples.add(new int[]{4, 1, 1, 0});
+		triples.add(new int[]{4, 1, 2, 0});
+		triples.add(new int[]{4, 1, 3, 0});
+		triples.add(new int[]{4, 2, 1, 0});
+		for (int u = 5; u <= 20; u++) {
+			triples.add(new int[]{u, 1 + u % 3, 1, 0});
+			triples.add(new int[]{u, 1 + u % 3, 2, 0});
+		}
+		final int[][] itemList = triples.toArray(new int[triples.size()][]);
+		final int[] minSupp = new int[]{1, 2, 2};
+		final SortedSet<String> expected = runTrias(itemList, minSupp, null);
+		assertEquals(1, expected.size());
+
+		final SortedSet<String> computedConcepts = new TreeSet<String>();
+		final Trias trias = new Trias();
+		new TriasJavaConfigurator(itemList, minSupp, computedConcepts).configureTrias(trias);
+		trias.setSupportReduction(false);
+		trias.setBitMatrixMaxPairs(0); // the inner next closure loop skips candidates
+		trias.doWork();
+		assertEquals(expected, computedConcepts);
+		assertTrue(trias.getPrunedOuterCandidates() > 0);
+		assertTrue(trias.getPrunedInnerCandidates() > 0);
+	}
+
+	/** Mines disjoint ranges of the branches of the outer loop and checks 
+	 * that their results are disjoint and together give the result of the 
+	 * whole context.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testOuterBranches() throws IOException {
+		final Random random = new Random(23);
+		for (int run = 0; run < 50; run++) {
+			final int[][] itemList = randomItemList(random, 2 + random.nextInt(8), 2 + random.nextInt(8), 2 + random.nextInt(8), 0.2 + 0.6 * random.nextDouble());
+			final int[] minSupp = new int[]{random.nextInt(2), random.nextInt(2), random.nextInt(2)};
+			final SortedSet<String> expected = runTrias(itemList, minSupp, null);
+			int numberOfUsers = 0;
+			for (final int[] triple: itemList) numberOfUsers = Math.max(numberOfUsers, triple[0]);
+			final int split = 1 + random.nextInt(numberOfUsers);
+			final SortedSet<String> concepts = new TreeSet<String>();
+			int size = 0;
+			for (final int[] range: new int[][]{{1, split}, {split + 1, split + 1}, {split + 2, Integer.MAX_VALUE}}) {
+				final SortedSet<String> rangeConcepts = new TreeSet<String>();
+				final Trias trias = new Trias();
+				new TriasJavaConfigurator(itemList, minSupp, rangeConcepts).configureTrias(trias);
+				trias.setOuterBranches(range[0], range[1]);
+				trias.doWork();
+				concepts.addAll(rangeConcepts);
+				size += rangeConcepts.size();
+			}
+			assertEquals(expected, concepts);
+			assertEquals(expected.size(), size);
+		}
+	}
+
+	/** Lets the writer fail several times and restarts Trias from its 
+	 * last checkpoint: the output must be the same as that of an 
+	 * uninterrupted run.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testCheckpoints() throws IOException {
+		final Random random = new Random(42);
+		final Charset charset = Charset.forName("UTF-8");
+		for (int run = 0; run < 20; run++) {
+			final int[][] itemList = randomItemList(random, 2 + random.nextInt(8), 2 + random.nextInt(8), 2 + random.nextInt(8), 0.2 + 0.6 * random.nextDouble());
+			final int[] minSupp = new int[]{random.nextInt(2), random.nextInt(2), random.nextInt(2)};
+			final boolean dimensionPlanning = random.nextBoolean();
+
+			final File expectedFile = File.createTempFile("trias-expected", ".txt");
+			final File outputFile = File.createTempFile("trias-output", ".txt");
+			final File checkpointFile = File.createTempFile("trias", ".checkpoint");
+			assertTrue(checkpointFile.delete());
+			try {
+				runTriasWithCheckpoints(itemList, minSupp, dimensionPlanning, new TriasStandardFileWriter(expectedFile, charset, false), checkpointFile);
+				assertFalse(checkpointFile.exists());
+
+				int failures = 0;
+				for (int attempt = 0; ; attempt++) {
+					final int failAfter = attempt < 5 ? 1 + random.nextInt(10) : Integer.MAX_VALUE;
+					final TriasStandardFileWriter writer = new TriasStandardFileWriter(outputFile, charset, false) {
+						private int written = 0;
+						@Override
+						public void write(final int[][] concept) throws IOException {
+							if (++written > failAfter) throw new IOException("simulated failure");
+							super.write(concept);
+						}
+					};
+					try {
+						runTriasWithCheckpoints(itemList, minSupp, dimensionPlanning, writer, checkpointFile);
+						break;
+					} catch (final IOException e) {
+						writer.close();
+						failures++;
+					}
+				}
+				assertTrue(failures > 0);
+				assertFalse(checkpointFile.exists());
+
+				final List<String> expected = Files.readAllLines(expectedFile.toPath(), charset);
+				assertEquals(runTrias(itemList, minSupp, null).size(), expected.size());
+				assertEquals(expected, Files.readAllLines(outputFile.toPath(), charset));
+			} finally {
+				expectedFile.delete();
+				outputFile.delete();
+				checkpointFile.delete();
+			}
+		}
+	}
+
+	private void runTriasWithCheckpoints(final int[][] itemList, final int[] minSupp, final boolean dimensionPlanning, final TriasWriter writer, final File checkpointFile) throws IOException {
+		final Trias trias = new Trias();
+		new TriasJavaConfigurator(itemList, minSupp, null).configureTrias(trias);
+		trias.setDimensionPlanning(dimensionPlanning);
+		trias.setTriConceptWriter(writer);
+		trias.setCheckpointFile(checkpointFile);
+		trias.setCheckpointInterval(0);
+		trias.doWork();
+	}
+
+	/** Checks that the inner loop enumerates the resources of projected 
+	 * relations with more tags than resources.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testInnerTransposition() throws IOException {
+		final List<int[]> triples = new LinkedList<int[]>();
+		for (int u = 1; u <= 2; u++) {
+			for (int t = 1; t <= 5; t++) {
+				triples.add(new int[]{u, t, 1, 0});
+				triples.add(new int[]{u, t, 2, 0});
+				if (t % 2 == u) triples.add(new int[]{u, t, 3, 0});
+			}
+		}
+		final int[][] itemList = triples.toArray(new int[triples.size()][]);
+		final int[] minSupp = new int[]{1, 1, 1};
+
+		final SortedSet<String> expected = new TreeSet<String>();
+		final Trias trias = new Trias();
+		new TriasJavaConfigurator(itemList, minSupp, expected).configureTrias(trias);
+		trias.setInnerTransposition(false);
+		trias.doWork();
+		assertEquals(0, trias.getInnerLoopsOverResources());
+		assertTrue(trias.getInnerLoopsOverTags() > 0);
+
+		final SortedSet<String> computedConcepts = new TreeSet<String>();
+		final Trias transposing = new Trias();
+		new TriasJavaConfigurator(itemList, minSupp, computedConcepts).configureTrias(transposing);
+		transposing.doWork();
+		assertEquals(expected, computedConcepts);
+		assertTrue(transposing.getInnerLoopsOverResources() > 0);
+	}
+
+	/** Mines the same context repeatedly and checks that the inner loop 
+	 * does not allocate, once all temporary arrays have grown to their 
+	 * final size. The JVM itself allocates on the mining thread now and 
+	 * then (e.g., while it replaces interpreted by compiled code), thus 
+	 * several consecutive runs must not allocate - an allocation of the 
+	 * inner loop would show up in each run.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testInnerLoopDoesNotAllocate() throws IOException {
+		final int[][] itemList = randomItemList(new Random(5), 12, 12, 12, 0.5);
+		final Trias trias = new Trias();
+		new TriasJavaConfigurator(itemList, new int[]{1, 1, 1}, null).configureTrias(trias);
+		trias.setBitMatrixMaxPairs(0); // the small relations would not reach the next closure loop
+		assertInnerLoopDoesNotAllocate(trias);
+	}
+
+	/** Like {@link #testInnerLoopDoesNotAllocate()}, but the support 
+	 * reduction removes users and the dimensions are permuted, such that 
+	 * the concepts are mapped back before they reach the writer.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testMappedConceptsDoNotAllocate() throws IOException {
+		/*
+		 * users 1..5 have a single triple and are removed
+		 */
+		final List<int[]> triples = new LinkedList<int[]>();
+		for (int u = 1; u <= 5; u++) {
+			triples.add(new int[]{u, u, 1, 0});
+		}
+		for (final int[] triple: randomItemList(new Random(2), 6, 10, 16, 0.3)) {
+			triples.add(new int[]{triple[0] + 5, triple[1], triple[2], 0});
+		}
+		final int[][] itemList = triples.toArray(new int[triples.size()][]);
+		final Trias trias = new Trias();
+		new TriasJavaConfigurator(itemList, new int[]{2, 2, 2}, null).configureTrias(trias);
+		trias.setDimensionPlanning(true);
+		trias.setBitMatrixMaxPairs(0);
+		assertInnerLoopDoesNotAllocate(trias);
+	}
+
+	private void assertInnerLoopDoesNotAllocate(final Trias trias) throws IOException {
+		final Logger logger = Logger.getLogger(Trias.class);
+		final Level level = logger.getLevel();
+		logger.setLevel(Level.INFO); // debug messages allocate strings
+		try {
+			try {
+				trias.setAllocationCheck(true);
+			} catch (final UnsupportedOperationException e) {
+				return; // this JVM can't count allocations
+			}
+			final int[] concepts = new int[1];
+			final TriasWriter writer = new TriasWriter() {
+				public void write(final int[][] concept) throws IOException {
+					concepts[0]++;
+				}
+				public void close() throws IOException {
+					// nothing to do
+				}
+			};
+			int runsWithoutAllocation = 0;
+			for (int run = 0; run < 20 && runsWithoutAllocation < 3; run++) {
+				concepts[0] = 0;
+				trias.setTriConceptWriter(writer);
+				trias.doWork();
+				assertTrue(concepts[0] > 0);
+				runsWithoutAllocation = trias.getInnerLoopAllocatedBytes() == 0 ? runsWithoutAllocation + 1 : 0;
+			}
+			assertEquals(3, runsWithoutAllocation);
+		} finally {
+			logger.setLevel(level);
+		}
+	}
+
+	/**
+	 * Configures Trias to use an alternative way of mining. All variants must
+	 * find the same tri-concepts as the sequential algorithm.
+	 */
+	private static abstract class Variant {
+		private final String name;
+
+		public Variant(final String name) {
+			this.name = name;
+		}
+
+		public abstract void configure(final Trias trias);
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	private static final Variant[] VARIANTS = new Variant[] {
+		new Variant("parallel outer loop") {
+			public void configure(final Trias trias) {
+				trias.setNumberOfThreads(4);
+			}
+		},
+		new Variant("unordered concurrent inner loop") {
+			public void configure(final Trias trias) {
+				trias.setNumberOfInnerThreads(3);
+				trias.setInnerQueueDepth(1);
+				trias.setOrderedOutput(false);
+			}
+		},
+		new Variant("bitset derivation") {
+			public void configure(final Trias trias) {
+				trias.setDerivationEngine(DerivationEngine.BITSET);
+			}
+		},
+		new Variant("parallel bitset derivation") {
+			public void configure(final Trias trias) {
+				trias.setDerivationEngine(DerivationEngine.BITSET);
+				trias.setNumberOfThreads(3);
+			}
+		},
+		new Variant("fast close by one") {
+			public void configure(final Trias trias) {
+				trias.setClosureEngine(ClosureEngine.FCBO);
+			}
+		},
+		new Variant("parallel fast close by one") {
+			public void configure(final Trias trias) {
+				trias.setClosureEngine(ClosureEngine.FCBO);
+				trias.setNumberOfThreads(4);
+			}
+		},
+		new Variant("fast close by one with bitset derivation") {
+			public void configure(final Trias trias) {
+				trias.setClosureEngine(ClosureEngine.FCBO);
+				trias.setDerivationEngine(DerivationEngine.BITSET);
+			}
+		},
+		new Variant("inner concept cache") {
+			public void configure(final Trias trias) {
+				trias.setInnerConceptCacheSize(1 << 20);
+			}
+		},
+		new Variant("small inner concept cache with fast close by one") {
+			public void configure(final Trias trias) {
+				trias.setInnerConceptCacheSize(64); // forces evictions
+				trias.setClosureEngine(ClosureEngine.FCBO);
+			}
+		},
+		new Variant("dimension planning") {
+			public void configure(final Trias trias) {
+				trias.setDimensionPlanning(true);
+			}
+		},
+		new Variant("without support reduction") {
+			public void configure(final Trias trias) {
+				trias.setSupportReduction(false);
+			}
+		},
+		new Variant("without bit matrix") {
+			public void configure(final Trias trias) {
+				trias.setBitMatrixMaxPairs(0);
+			}
+		},
+		new Variant("FCbO without bit matrix") {
+			public void configure(final Trias trias) {
+				trias.setClosureEngine(ClosureEngine.FCBO);
+				trias.setBitMatrixMaxPairs(0);
+			}
+		},
+		new Variant("LCM") {
+			public void configure(final Trias trias) {
+				trias.setClosureEngine(ClosureEngine.LCM);
+				trias.setBitMatrixMaxPairs(0);
+			}
+		},
+		new Variant("without inner transposition") {
+			public void configure(final Trias trias) {
+				trias.setInnerTransposition(false);
+			}
+		},
+		new Variant("without inner transposition and bit matrix") {
+			public void configure(final Trias trias) {
+				trias.setInnerTransposition(false);
+				trias.setBitMatrixMaxPairs(0);
+			}
+		},
+		new Variant("parallel LCM") {
+			public void configure(final Trias trias) {
+				trias.setClosureEngine(ClosureEngine.LCM);
+				trias.setBitMatrixMaxPairs(0);
+				trias.setNumberOfThreads(3);
+			}
+		}
+	};
+
 	/** Checks, if Trias computes for the given utrList the given concepts.
 	 * 
 	 * @param itemList
@@ -593,19 +1098,80 @@ public class TriasTest {
 		/*
 		 * run trias
 		 */
+		final SortedSet<String> computedConcepts = runTrias(itemList, minSupp, null);
+
+		/*
+		 * compare
+		 */
+		System.out.println("should: " + trueConceptsSet);
+		System.out.println("is    : " + computedConcepts);
+		assertEquals(trueConceptsSet, computedConcepts);
+
+		/*
+		 * all variants must find the same concepts
+		 */
+		for (final Variant variant: VARIANTS) {
+			assertEquals(variant.toString(), trueConceptsSet, runTrias(itemList, minSupp, variant));
+		}
+	}
+
+	/** Runs Trias, configured by the given variant (if not <code>null</code>).
+	 */
+	private SortedSet<String> runTrias(final int[][] itemList, final int[] minSupp, final Variant variant) throws IOException {
 		final SortedSet<String> computedConcepts = new TreeSet<String>();
 		final TriasConfigurator config = new TriasJavaConfigurator(itemList, minSupp, computedConcepts);
 		final Trias trias = new Trias();
 		trias.setProgressLogger(new SimpleProgressLogger("/tmp/trias.log"));
 		config.configureTrias(trias);
+		if (variant != null) variant.configure(trias);
+		trias.doWork();
+		return computedConcepts;
+	}
+
+	/** Returns the tri-concepts in the order they were written by Trias.
+	 */
+	private List<String> runTriasOrdered(final int[][] itemList, final int[] minSupp, final int numberOfInnerThreads, final int innerQueueDepth) throws IOException {
+		final List<String> concepts = new LinkedList<String>();
+		final Trias trias = new Trias();
+		new TriasJavaConfigurator(itemList, minSupp, null).configureTrias(trias);
+		trias.setNumberOfInnerThreads(numberOfInnerThreads);
+		trias.setInnerQueueDepth(innerQueueDepth);
+		trias.setTriConceptWriter(new TriasWriter() {
+			public void write(final int[][] concept) throws IOException {
+				concepts.add(Arrays.deepToString(concept));
+			}
+			public void close() throws IOException {
+				// nothing to do
+			}
+		});
 		trias.doWork();
+		return concepts;
+	}
 
+	/** Generates a random context, where the items of each dimension are 
+	 * numbered consecutively starting with 1.
+	 */
+	public static int[][] randomItemList(final Random random, final int u, final int t, final int r, final double density) {
+		final List<int[]> triples = new LinkedList<int[]>();
+		for (int i = 1; i <= u; i++) {
+			for (int j = 1; j <= t; j++) {
+				for (int k = 1; k <= r; k++) {
+					if (random.nextDouble() < density) triples.add(new int[]{i, j, k, 0});
+				}
+			}
+		}
 		/*
-		 * compare
+		 * remove holes
 		 */
-		System.out.println("should: " + trueConceptsSet);
-		System.out.println("is    : " + computedConcepts);
-		assertEquals(trueConceptsSet, computedConcepts);
+		final int[][] itemList = triples.toArray(new int[triples.size()][]);
+		for (int dim = 0; dim < 3; dim++) {
+			final SortedSet<Integer> items = new TreeSet<Integer>();
+			for (final int[] triple: itemList) items.add(triple[dim]);
+			final Map<Integer, Integer> mapping = new HashMap<Integer, Integer>();
+			for (final Integer item: items) mapping.put(item, mapping.size() + 1);
+			for (final int[] triple: itemList) triple[dim] = mapping.get(triple[dim]);
+		}
+		return itemList;
 	}
 
 	private void writeResult(final int[][][] result, final TriasWriter writer) throws IOException {
@@ -616,4 +1182,3 @@ public class TriasTest {
 
 
 }
-
@@ -0,0 +1,162 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.io;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.unikassel.cs.kde.trias.Trias;
+import de.unikassel.cs.kde.trias.TriasTest;
+import de.unikassel.cs.kde.trias.util.TriasJavaConfigurator;
+
+/**
+ * Tests the {@link AsyncTriasWriter}.
+ * 
+ */
+public class AsyncTriasWriterTest {
+
+	@Test
+	public void testOrderWithSmallBuffer() throws IOException {
+		for (final AsyncTriasWriter.Backpressure backpressure: AsyncTriasWriter.Backpressure.values()) {
+			final ListTriasWriter listWriter = new ListTriasWriter();
+			// the buffer is smaller than most concepts
+			final AsyncTriasWriter writer = new AsyncTriasWriter(listWriter, 6, backpressure);
+			final List<String> expected = new ArrayList<String>();
+			final int[][] concept = new int[3][];
+			for (int c = 0; c < 1000; c++) {
+				for (int k = 0; k < concept.length; k++) {
+					concept[k] = new int[(c + k) % 7];
+					for (int i = 0; i < concept[k].length; i++) {
+						concept[k][i] = c * i + k;
+					}
+				}
+				expected.add(Arrays.deepToString(concept));
+				writer.write(concept);
+			}
+			writer.close();
+			assertTrue(listWriter.isClosed());
+			assertEquals(expected, toStrings(listWriter.getConcepts()));
+			assertEquals(1000, writer.getNumberOfConcepts());
+			assertTrue(writer.getNumberOfWaits() > 0);
+		}
+	}
+
+	@Test
+	public void testMining() throws IOException {
+		final int[][] itemList = TriasTest.randomItemList(new Random(3), 20, 8, 10, 0.3);
+		final ListTriasWriter expected = new ListTriasWriter();
+		mine(itemList, expected);
+		final ListTriasWriter listWriter = new ListTriasWriter();
+		mine(itemList, new AsyncTriasWriter(listWriter, 64, AsyncTriasWriter.Backpressure.YIELD));
+		assertTrue(expected.getConcepts().size() > 0);
+		assertEquals(toStrings(expected.getConcepts()), toStrings(listWriter.getConcepts()));
+	}
+
+	private static List<String> toStrings(final List<int[][]> concepts) {
+		final List<String> strings = new ArrayList<String>();
+		for (final int[][] concept: concepts) {
+			strings.add(Arrays.deepToString(concept));
+		}
+		return strings;
+	}
+
+	private static void mine(final int[][] itemList, final TriasWriter writer) throws IOException {
+		final Trias trias = new Trias();
+		new TriasJavaConfigurator(itemList, new int[]{1, 1, 1}, null).configureTrias(trias);
+		trias.setTriConceptWriter(writer);
+		trias.doWork();
+	}
+
+	/** The consumer parks while the buffer is empty and must be woken up 
+	 * by the next concept.
+	 */
+	@Test
+	public void testWakeUpAfterIdle() throws IOException, InterruptedException {
+		final ListTriasWriter listWriter = new ListTriasWriter();
+		final AsyncTriasWriter writer = new AsyncTriasWriter(listWriter);
+		for (int c = 1; c <= 3; c++) {
+			writer.write(new int[][]{{c}, {c}, {c}});
+			final long deadline = System.currentTimeMillis() + 5000;
+			while (listWriter.getConcepts().size() < c && System.currentTimeMillis() < deadline) {
+				Thread.sleep(1);
+			}
+			assertEquals(c, listWriter.getConcepts().size());
+			// long enough for the consumer to park
+			Thread.sleep(200);
+		}
+		writer.close();
+		assertTrue(listWriter.isClosed());
+	}
+
+	/** If mining fails, Trias closes the writer, such that its thread ends.
+	 */
+	@Test
+	public void testClosedWhenMiningFails() {
+		final ListTriasWriter listWriter = new ListTriasWriter();
+		final AsyncTriasWriter writer = new AsyncTriasWriter(listWriter);
+		final Trias trias = new Trias();
+		// the item 3 is out of range
+		new TriasJavaConfigurator(new int[][]{{1, 1, 3}}, new int[]{1, 1, 1}, null).configureTrias(trias);
+		trias.setNumberOfItemsPerDimension(new int[]{1, 1, 1});
+		trias.setTriConceptWriter(writer);
+		try {
+			trias.doWork();
+			fail("the item out of range was not detected");
+		} catch (final RuntimeException e) {
+			assertTrue(listWriter.isClosed());
+		} catch (final IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	public void testErrorOnClose() {
+		final AsyncTriasWriter writer = new AsyncTriasWriter(new TriasWriter() {
+			public void write(final int[][] concept) throws IOException {
+				throw new IOException("disk full");
+			}
+			public void close() throws IOException {
+				// nothing to do
+			}
+		});
+		try {
+			writer.write(new int[][]{{1}, {2}, {3}});
+			writer.close();
+			fail("the exception of the writer was not thrown");
+		} catch (final IOException e) {
+			assertEquals("disk full", e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,71 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects the tri-concepts it gets in a list, for tests. Since the arrays
+ * of a concept are only valid during {@link #write(int[][])}, each concept 
+ * is copied and its sets are sorted.
+ * 
+ */
+public class ListTriasWriter implements TriasWriter {
+
+	private final List<int[][]> concepts = new ArrayList<int[][]>();
+	private boolean closed = false;
+
+	public void write(final int[][] concept) throws IOException {
+		if (closed) throw new IOException("closed");
+		final int[][] copy = new int[concept.length][];
+		for (int k = 0; k < concept.length; k++) {
+			copy[k] = concept[k].clone();
+			Arrays.sort(copy[k]);
+		}
+		concepts.add(copy);
+	}
+
+	public void close() throws IOException {
+		closed = true;
+	}
+
+	/**
+	 * @return The concepts in the order they were written.
+	 */
+	public List<int[][]> getConcepts() {
+		return concepts;
+	}
+
+	/**
+	 * @return <code>true</code>, if the writer was closed.
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+}
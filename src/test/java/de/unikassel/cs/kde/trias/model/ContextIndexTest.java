@@ -0,0 +1,190 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.unikassel.cs.kde.trias.util.Dimension;
+
+/**
+ * Checks the radix sorted orders and offset tables against the definition.
+ * 
+ */
+public class ContextIndexTest {
+
+	private static final int U = Dimension.U.intValue();
+	private static final int T = Dimension.T.intValue();
+	private static final int R = Dimension.R.intValue();
+
+	@Test
+	public void testSmallContext() {
+		final int[][] itemList = new int[][] {
+				{2, 1, 1}, 
+				{1, 2, 1}, 
+				{2, 1, 2}, 
+				{1, 1, 1}, 
+				{2, 2, 1} 
+		};
+		final ContextIndex index = new ContextIndex(TripleStore.fromItemList(itemList), new int[]{2, 2, 2});
+		assertTrue(Arrays.equals(new int[]{3, 1, 0, 2, 4}, index.getUOrder()));
+		assertTrue(Arrays.equals(new int[]{2, 0, 2, 5}, index.getUOffsets()));
+		assertTrue(Arrays.equals(new int[]{3, 0, 2, 1, 4}, index.getTROrder()));
+		assertEquals(3, index.getTROffsets()[0]);
+		assertTrue(Arrays.equals(new int[]{1, 3, 2, 1, 3}, index.getTRRemember()));
+	}
+
+	@Test
+	public void testDistinct() {
+		final int[][] itemList = new int[][] {
+				{2, 1, 1}, 
+				{1, 1, 1}, 
+				{2, 1, 1}, 
+				{1, 2, 1}, 
+				{1, 1, 1} 
+		};
+		final ContextIndex index = new ContextIndex(TripleStore.fromItemList(itemList), new int[]{2, 2, 1});
+		final ContextIndex distinct = index.distinct();
+		assertEquals(5, index.getTripleStore().size());
+		assertEquals("[(1,1,1), (1,2,1), (2,1,1)]", distinct.getTripleStore().toString());
+		check(distinct.getTripleStore().toItemList(), distinct);
+		assertTrue(distinct == distinct.distinct());
+	}
+
+	@Test
+	public void testRandomContexts() {
+		final Random random = new Random(7);
+		// large enough to be split into several chunks
+		final int[][] itemList = randomItemList(random, 200000, 300, 500, 700);
+		final int[] numberOfItemsPerDimension = new int[]{300, 500, 700};
+		check(itemList, new ContextIndex(TripleStore.fromItemList(itemList), numberOfItemsPerDimension, 1));
+		check(itemList, new ContextIndex(TripleStore.fromItemList(itemList), numberOfItemsPerDimension, 4));
+	}
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+		final int[][] itemList = randomItemList(new Random(3), 5000, 30, 50, 70);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new ContextIndex(TripleStore.fromItemList(itemList), new int[]{30, 50, 70}).write(new DataOutputStream(out));
+		final ContextIndex index = ContextIndex.read(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+		assertTrue(Arrays.equals(new int[]{30, 50, 70}, index.getNumberOfItemsPerDimension()));
+		check(itemList, index);
+		for (final int[] triple: itemList) {
+			assertTrue(index.contains(triple[U], triple[T], triple[R]));
+			assertTrue(index.getPair(triple[T], triple[R]) > 0);
+		}
+		assertTrue(!index.contains(31, 1, 1));
+		assertEquals(0, index.getPair(51, 1));
+	}
+
+	@Test
+	public void testUpdate() {
+		final Random random = new Random(5);
+		final int[][] itemList = randomItemList(random, 20000, 30, 50, 70);
+		final ContextIndex index = new ContextIndex(TripleStore.fromItemList(itemList), new int[]{30, 50, 70});
+		final boolean[] removed = new boolean[itemList.length];
+		for (int triple = 0; triple < removed.length; triple++) {
+			removed[triple] = random.nextDouble() < 0.3;
+		}
+		// new users and triples which are not in the kept context
+		final TripleStore added = new TripleStore();
+		for (int triple = 0; triple < 1000; triple++) {
+			added.add(31 + triple % 5, 1 + triple / 20, 1 + triple % 20);
+		}
+		final ContextIndex updated = index.update(removed, added, new int[]{35, 50, 70});
+		final int[][] updatedItemList = updated.getTripleStore().toItemList();
+		assertEquals(itemList.length + added.size(), updatedItemList.length + countTrue(removed));
+		check(updatedItemList, updated);
+		assertEquals(35, updated.getUOffsets()[0]);
+	}
+
+	private static int countTrue(final boolean[] a) {
+		int count = 0;
+		for (final boolean b: a) if (b) count++;
+		return count;
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testItemOutOfRange() {
+		new ContextIndex(new TripleStore(new int[]{1}, new int[]{1}, new int[]{3}), new int[]{1, 1, 2});
+	}
+
+	private static void check(final int[][] itemList, final ContextIndex index) {
+		final int n = itemList.length;
+		final int[] uOrder = index.getUOrder();
+		final int[] trOrder = index.getTROrder();
+		for (int p = 1; p < n; p++) {
+			assertTrue(compare(itemList, uOrder[p - 1], uOrder[p], U, T, R) < 0);
+			assertTrue(compare(itemList, trOrder[p - 1], trOrder[p], T, R, U) < 0);
+		}
+		final int[] uOffsets = index.getUOffsets();
+		for (int p = 0; p < n; p++) {
+			final int u = itemList[uOrder[p]][U];
+			assertEquals(u, index.getURemember()[uOrder[p]]);
+			assertTrue(uOffsets[u] <= p && p < uOffsets[u + 1]);
+		}
+		final int[] trOffsets = index.getTROffsets();
+		for (int p = 0; p < n; p++) {
+			final int k = index.getTRRemember()[trOrder[p]];
+			assertTrue(trOffsets[k] <= p && p < trOffsets[k + 1]);
+			final int[] first = itemList[trOrder[trOffsets[k]]];
+			assertEquals(first[T], itemList[trOrder[p]][T]);
+			assertEquals(first[R], itemList[trOrder[p]][R]);
+		}
+		assertEquals(n, trOffsets[trOffsets[0] + 1]);
+	}
+
+	/*
+	 * compares the triples at positions a and b by the given columns, 
+	 * then by position
+	 */
+	private static int compare(final int[][] itemList, final int a, final int b, final int... columns) {
+		for (final int c: columns) {
+			if (itemList[a][c] != itemList[b][c]) return itemList[a][c] - itemList[b][c];
+		}
+		return a - b;
+	}
+
+	private static int[][] randomItemList(final Random random, final int n, final int u, final int t, final int r) {
+		final int[][] itemList = new int[n][3];
+		for (int i = 0; i < n; i++) {
+			// make sure that all ids occur
+			itemList[i][U] = i < u ? i + 1 : 1 + random.nextInt(u);
+			itemList[i][T] = i < t ? i + 1 : 1 + random.nextInt(t);
+			itemList[i][R] = i < r ? i + 1 : 1 + random.nextInt(r);
+		}
+		return itemList;
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import de.unikassel.cs.kde.trias.Trias;
+import de.unikassel.cs.kde.trias.util.TriasJavaConfigurator;
+
+/**
+ * Tests the {@link SupportReduction}.
+ * 
+ */
+public class SupportReductionTest {
+
+	@Test
+	public void testCascade() {
+		final List<int[]> triples = new ArrayList<int[]>();
+		/*
+		 * the block {2,3} x {2,3} x {2,3} survives
+		 */
+		for (int u = 2; u <= 3; u++) {
+			for (int t = 2; t <= 3; t++) {
+				for (int r = 2; r <= 3; r++) {
+					triples.add(new int[]{u, t, r});
+				}
+			}
+		}
+		/*
+		 * resource 1 has three triples and thus is removed, which leaves 
+		 * tag 1 with one triple and user 1 with two triples
+		 */
+		triples.add(new int[]{2, 1, 1});
+		triples.add(new int[]{3, 1, 1});
+		triples.add(new int[]{1, 1, 1});
+		triples.add(new int[]{1, 1, 2});
+		triples.add(new int[]{1, 2, 2});
+		triples.add(new int[]{1, 3, 3});
+
+		final TripleStore store = TripleStore.fromItemList(triples.toArray(new int[triples.size()][]));
+		final SupportReduction reduction = new SupportReduction(store, new int[]{3, 3, 3}, new int[]{2, 2, 2});
+
+		assertEquals(6, reduction.getNumberOfRemovedTriples());
+		assertEquals(8, reduction.getTripleStore().size());
+		assertArrayEquals(new int[]{2, 2, 2}, reduction.getNumberOfItemsPerDimension());
+		for (final int[] ids: reduction.getOriginalIds()) {
+			assertArrayEquals(new int[]{0, 2, 3}, ids);
+		}
+	}
+
+	@Test
+	public void testSameConcepts() throws IOException {
+		final Random random = new Random(42);
+		final int[][] itemList = new int[300][];
+		for (int i = 0; i < itemList.length; i++) {
+			if (i < 27) {
+				// a dense block with large ids, such that there is something to find (with new ids)
+				itemList[i] = new int[]{18 + i % 3, 3 + (i / 3) % 3, 38 + i / 9};
+			} else {
+				itemList[i] = new int[]{1 + random.nextInt(20), 1 + random.nextInt(5), 1 + random.nextInt(40)};
+			}
+		}
+		final int[] minSupp = new int[]{2, 2, 2};
+		// some, but not all triples are removed
+		final int removed = new SupportReduction(TripleStore.fromItemList(itemList), new int[]{20, 5, 40}, minSupp).getNumberOfRemovedTriples();
+		assertTrue(removed > 0 && removed < itemList.length);
+		final SortedSet<String> expected = mine(itemList, minSupp, false);
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, mine(itemList, minSupp, true));
+	}
+
+	private static SortedSet<String> mine(final int[][] itemList, final int[] minSupp, final boolean supportReduction) throws IOException {
+		final SortedSet<String> concepts = new TreeSet<String>();
+		final Trias trias = new Trias();
+		new TriasJavaConfigurator(itemList, minSupp, concepts).configureTrias(trias);
+		trias.setSupportReduction(supportReduction);
+		trias.doWork();
+		return concepts;
+	}
+
+}
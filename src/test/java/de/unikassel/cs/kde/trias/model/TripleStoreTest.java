@@ -0,0 +1,73 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import de.unikassel.cs.kde.trias.util.Dimension;
+
+/**
+ * 
+ */
+public class TripleStoreTest {
+
+	@Test
+	public void testAddAndGrow() {
+		final TripleStore store = new TripleStore(1);
+		for (int i = 1; i <= 100; i++) {
+			store.add(i, 2 * i, 3 * i);
+		}
+		assertEquals(100, store.size());
+		assertEquals(42, store.get(41, Dimension.T.intValue()) / 2);
+		assertEquals(100, store.getColumn(Dimension.U.intValue()).length);
+		assertEquals(300, store.getColumns()[Dimension.R.intValue()][99]);
+	}
+
+	@Test
+	public void testItemListRoundTrip() {
+		final int[][] itemList = new int[][] {
+				{1, 2, 3, 0},
+				{4, 5, 6, 0}
+		};
+		final TripleStore store = TripleStore.fromItemList(itemList);
+		assertEquals(2, store.size());
+		assertEquals(6, store.get(1, Dimension.R.intValue()));
+		final int[][] copy = store.toItemList();
+		for (int i = 0; i < itemList.length; i++) {
+			assertTrue(Arrays.equals(itemList[i], copy[i]));
+		}
+		assertEquals("[(1,2,3), (4,5,6)]", store.toString());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testDifferentColumnLengths() {
+		new TripleStore(new int[2], new int[2], new int[1]);
+	}
+}
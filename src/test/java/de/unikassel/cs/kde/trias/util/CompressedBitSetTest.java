@@ -0,0 +1,101 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.util;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Compares {@link CompressedBitSet} with {@link BitSet}.
+ * 
+ */
+public class CompressedBitSetTest {
+
+	@Test
+	public void testAddAndContains() {
+		final CompressedBitSet set = new CompressedBitSet();
+		set.add(3);
+		set.add(3);
+		set.add(70000);
+		set.add(70001);
+		assertEquals(3, set.cardinality());
+		assertTrue(set.contains(3));
+		assertTrue(set.contains(70001));
+		assertFalse(set.contains(4));
+		assertFalse(set.contains(1 << 20));
+		assertEquals("{3, 70000, 70001}", set.toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAddDescending() {
+		final CompressedBitSet set = new CompressedBitSet();
+		set.add(5);
+		set.add(4);
+	}
+
+	/**
+	 * Intersects sparse and dense sets, such that all combinations of array 
+	 * and bitmap containers occur.
+	 */
+	@Test
+	public void testAnd() {
+		final Random random = new Random(7);
+		final double[] densities = new double[]{0.001, 0.05, 0.5, 0.95};
+		for (final double d1: densities) {
+			for (final double d2: densities) {
+				final BitSet b1 = new BitSet();
+				final BitSet b2 = new BitSet();
+				final CompressedBitSet c1 = random(random, d1, b1);
+				final CompressedBitSet c2 = random(random, d2, b2);
+				b1.and(b2);
+				final CompressedBitSet c = c1.and(c2);
+				assertEquals(b1.cardinality(), c.cardinality());
+				final int[] values = c.toArray();
+				int pos = 0;
+				for (int i = b1.nextSetBit(0); i >= 0; i = b1.nextSetBit(i + 1)) {
+					assertEquals(i, values[pos++]);
+					assertTrue(c.contains(i));
+				}
+			}
+		}
+	}
+
+	private static CompressedBitSet random(final Random random, final double density, final BitSet bitSet) {
+		final CompressedBitSet set = new CompressedBitSet();
+		for (int i = 0; i < 200000; i++) {
+			if (random.nextDouble() < density) {
+				set.add(i);
+				bitSet.set(i);
+			}
+		}
+		return set;
+	}
+}
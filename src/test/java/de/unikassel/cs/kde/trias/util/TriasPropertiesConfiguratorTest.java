@@ -0,0 +1,81 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.util;
+
+import static junit.framework.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import de.unikassel.cs.kde.trias.Trias;
+
+/**
+ * Tests the checks of the {@link TriasPropertiesConfigurator}.
+ * 
+ */
+public class TriasPropertiesConfiguratorTest {
+
+	@Test
+	public void testCheckpointWithSynchronousWriting() throws IOException {
+		final File directory = Files.createTempDirectory("trias").toFile();
+		try {
+			// capacity 0 means synchronous writing
+			new TriasPropertiesConfigurator(checkpointProperties(directory, "0")).configureTrias(new Trias());
+			try {
+				new TriasPropertiesConfigurator(checkpointProperties(directory, "64")).configureTrias(new Trias());
+				fail("checkpoints need synchronous writing");
+			} catch (final ConfigurationException e) {
+				// expected
+			}
+		} finally {
+			for (final File file: directory.listFiles()) {
+				Files.delete(file.toPath());
+			}
+			Files.delete(directory.toPath());
+		}
+	}
+
+	private static Properties checkpointProperties(final File directory, final String asyncWriterCapacity) throws IOException {
+		final File input = new File(directory, "input.txt");
+		Files.write(input.toPath(), Arrays.asList("1 1 1", "1 2 1", "2 1 1"), Charset.forName("UTF-8"));
+		final Properties props = new Properties();
+		props.setProperty("trias.input", input.getPath());
+		props.setProperty("trias.output", new File(directory, "output.txt").getPath());
+		props.setProperty("trias.checkpoint", new File(directory, "checkpoint").getPath());
+		props.setProperty("trias.asyncWriterCapacity", asyncWriterCapacity);
+		props.setProperty("trias.numberOfTriples", "3");
+		for (int dim = 0; dim < 3; dim++) {
+			props.setProperty("trias.numberOfItemsPerDimension." + dim, "2");
+			props.setProperty("trias.minSupportPerDimension." + dim, "1");
+		}
+		return props;
+	}
+}
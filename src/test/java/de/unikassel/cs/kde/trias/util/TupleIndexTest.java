@@ -0,0 +1,94 @@
+/**
+ *  
+ *  Trias Algorithm - Trias is an algorithm for computing triadic concepts which
+ * 		fulfill minimal support constraints.
+ *   
+ *  Copyright (C) 2006 - 2009 Knowledge & Data Engineering Group, 
+ *                            University of Kassel, Germany
+ *                            http://www.kde.cs.uni-kassel.de/
+ *  
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License
+ *  as published by the Free Software Foundation; either version 2
+ *  of the License, or (at your option) any later version.
+ * 
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package de.unikassel.cs.kde.trias.util;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Compares {@link TupleIndex} with a {@link HashMap}.
+ * 
+ */
+public class TupleIndexTest {
+
+	@Test
+	public void testDirect() {
+		final TupleIndex index = new TupleIndex(10, 10, 50);
+		assertTrue(index.isDirect());
+		check(index, 10, 10, 50, new Random(1));
+	}
+
+	@Test
+	public void testHashed() {
+		// only a few of the possible pairs, more than expected to force a rehash
+		final TupleIndex index = new TupleIndex(100000, 100000, 10);
+		assertFalse(index.isDirect());
+		check(index, 100000, 100000, 5000, new Random(2));
+	}
+
+	@Test
+	public void testSymmetricPairs() {
+		final TupleIndex index = new TupleIndex(1 << 20, 1 << 20, 4);
+		index.put(1, 7, 1);
+		index.put(7, 1, 2);
+		index.put(0, 0, 3);
+		assertEquals(1, index.get(1, 7));
+		assertEquals(2, index.get(7, 1));
+		assertEquals(3, index.get(0, 0));
+		assertEquals(-1, index.get(7, 7));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOutOfRange() {
+		new TupleIndex(3, 3, 4).put(4, 1, 0);
+	}
+
+	private static void check(final TupleIndex index, final int maxA, final int maxB, final int n, final Random random) {
+		final Map<Long, Integer> expected = new HashMap<Long, Integer>();
+		for (int i = 0; i < n; i++) {
+			final int a = random.nextInt(maxA + 1);
+			final int b = random.nextInt(maxB + 1);
+			index.put(a, b, i);
+			expected.put(((long) a << 32) | b, i);
+		}
+		for (int a = 0; a <= Math.min(maxA, 50); a++) {
+			for (int b = 0; b <= Math.min(maxB, 50); b++) {
+				final Integer value = expected.get(((long) a << 32) | b);
+				assertEquals(value == null ? -1 : value.intValue(), index.get(a, b));
+			}
+		}
+		for (final Map.Entry<Long, Integer> entry: expected.entrySet()) {
+			final long key = entry.getKey();
+			assertEquals(entry.getValue().intValue(), index.get((int) (key >>> 32), (int) key));
+		}
+	}
+}